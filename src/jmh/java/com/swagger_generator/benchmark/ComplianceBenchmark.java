@@ -0,0 +1,46 @@
+package com.swagger_generator.benchmark;
+
+import com.swagger_generator.compliance.ComplianceIssue;
+import com.swagger_generator.service.ComplianceService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks generated documents for compliance, loading them as a whole and scanning them as a stream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ComplianceBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int operations;
+
+    private ComplianceService complianceService;
+    private String swaggerYaml;
+    private byte[] swaggerYamlBytes;
+
+    @Setup
+    public void setUp() {
+        complianceService = SpecFixtures.complianceService();
+        swaggerYaml = SpecFixtures.swaggerYaml(operations, 4);
+        swaggerYamlBytes = swaggerYaml.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<ComplianceIssue> checkCompliance() {
+        return complianceService.checkCompliance(swaggerYaml);
+    }
+
+    @Benchmark
+    public List<ComplianceIssue> checkComplianceStream() {
+        return complianceService.checkCompliance(new ByteArrayInputStream(swaggerYamlBytes));
+    }
+}
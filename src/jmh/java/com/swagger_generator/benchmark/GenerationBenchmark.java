@@ -0,0 +1,56 @@
+package com.swagger_generator.benchmark;
+
+import com.swagger_generator.entity.SwaggerSchemaRequest;
+import com.swagger_generator.service.GenerationExecutor;
+import com.swagger_generator.service.SwaggerGeneratorService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates a complete Swagger document, both dumped to a string as {@code /generate} did
+ * originally and streamed as {@code /generate/stream} does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GenerationBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int operations;
+
+    @Param({"2", "16"})
+    private int schemaDepth;
+
+    private GenerationExecutor generationExecutor;
+    private SwaggerGeneratorService generatorService;
+    private List<SwaggerSchemaRequest> requests;
+
+    @Setup
+    public void setUp() {
+        generationExecutor = SpecFixtures.generationExecutor();
+        generatorService = SpecFixtures.generatorService(generationExecutor);
+        requests = SpecFixtures.requests(operations, schemaDepth);
+    }
+
+    @TearDown
+    public void tearDown() {
+        generationExecutor.destroy();
+    }
+
+    @Benchmark
+    public String generateSwaggerYaml() {
+        return generatorService.generateSwaggerYaml(requests);
+    }
+
+    @Benchmark
+    public void writeSwaggerYaml() throws IOException {
+        generatorService.writeSwaggerYaml(requests, OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,53 @@
+package com.swagger_generator.benchmark;
+
+import com.swagger_generator.entity.SwaggerSchemaRequest;
+import com.swagger_generator.service.GenerationExecutor;
+import com.swagger_generator.service.OutputFormat;
+import com.swagger_generator.service.RequestMetrics;
+import com.swagger_generator.service.SwaggerGeneratorService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams the same document in each {@link OutputFormat}, as {@code /generate/stream} does for the
+ * format a client accepts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OutputFormatBenchmark {
+
+    @Param({"1000", "10000"})
+    private int operations;
+
+    @Param({"YAML", "JSON", "SMILE", "CBOR"})
+    private OutputFormat format;
+
+    private GenerationExecutor generationExecutor;
+    private SwaggerGeneratorService generatorService;
+    private List<SwaggerSchemaRequest> requests;
+
+    @Setup
+    public void setUp() {
+        generationExecutor = SpecFixtures.generationExecutor();
+        generatorService = SpecFixtures.generatorService(generationExecutor);
+        requests = SpecFixtures.requests(operations, 4);
+    }
+
+    @TearDown
+    public void tearDown() {
+        generationExecutor.destroy();
+    }
+
+    @Benchmark
+    public void writeSwagger() throws IOException {
+        generatorService.writeSwagger(requests, format, OutputStream.nullOutputStream(), RequestMetrics.disabled());
+    }
+}
@@ -0,0 +1,41 @@
+package com.swagger_generator.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.swagger_generator.model.Schema;
+import com.swagger_generator.util.Utility;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converts a single request or response schema into its Swagger schema.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchemaParsingBenchmark {
+
+    @Param({"1", "8", "64"})
+    private int schemaDepth;
+
+    private JsonNode schema;
+
+    @Setup
+    public void setUp() {
+        schema = SpecFixtures.schema(new Random(schemaDepth), schemaDepth);
+    }
+
+    @Benchmark
+    public Schema parseSchema() {
+        return Utility.parseSchema(schema);
+    }
+
+    @Benchmark
+    public Schema parseResponseSchema() {
+        return Utility.parseResponseSchema(schema);
+    }
+}
@@ -0,0 +1,67 @@
+package com.swagger_generator.benchmark;
+
+import com.swagger_generator.config.ComplianceProperties;
+import com.swagger_generator.diff.SpecChange;
+import com.swagger_generator.diff.SpecDiffEngine;
+import com.swagger_generator.entity.SwaggerSchemaRequest;
+import com.swagger_generator.service.GenerationExecutor;
+import com.swagger_generator.service.SpecDiffService;
+import com.swagger_generator.util.YamlPool;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Diffs two versions of a generated document that differ in a single operation, from YAML and
+ * from already loaded documents, which leaves out the cost of parsing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpecDiffBenchmark {
+
+    @Param({"100", "5000"})
+    private int operations;
+
+    private SpecDiffService specDiffService;
+    private SpecDiffEngine specDiffEngine;
+    private String previousYaml;
+    private String currentYaml;
+    private Map<String, Object> previous;
+    private Map<String, Object> current;
+
+    @Setup
+    public void setUp() {
+        YamlPool yamlPool = SpecFixtures.yamlPool(new ComplianceProperties());
+        specDiffService = new SpecDiffService(yamlPool);
+        specDiffEngine = new SpecDiffEngine();
+
+        List<SwaggerSchemaRequest> requests = SpecFixtures.requests(operations, 4);
+        GenerationExecutor generationExecutor = SpecFixtures.generationExecutor();
+        try {
+            previousYaml = SpecFixtures.generatorService(generationExecutor).generateSwaggerYaml(requests);
+            requests.get(operations / 2).setResponseSchema(SpecFixtures.schema(new Random(operations), 4));
+            currentYaml = SpecFixtures.generatorService(generationExecutor).generateSwaggerYaml(requests);
+        } finally {
+            generationExecutor.destroy();
+        }
+        previous = yamlPool.load(previousYaml);
+        current = yamlPool.load(currentYaml);
+    }
+
+    @Benchmark
+    public List<SpecChange> diffYaml() {
+        return specDiffService.diff(previousYaml, currentYaml);
+    }
+
+    @Benchmark
+    public List<SpecChange> diffLoaded() {
+        return specDiffEngine.diff(previous, current);
+    }
+}
@@ -0,0 +1,125 @@
+package com.swagger_generator.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.swagger_generator.compliance.ComplianceEngine;
+import com.swagger_generator.compliance.StandardRules;
+import com.swagger_generator.config.ComplianceProperties;
+import com.swagger_generator.config.GenerationProperties;
+import com.swagger_generator.config.GeneratorCacheProperties;
+import com.swagger_generator.config.YamlConfig;
+import com.swagger_generator.entity.SwaggerSchemaRequest;
+import com.swagger_generator.service.ComplianceService;
+import com.swagger_generator.service.GenerationExecutor;
+import com.swagger_generator.service.SwaggerGeneratorService;
+import com.swagger_generator.util.YamlPool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Builds the synthetic inputs shared by the benchmarks.
+ *
+ * <p>Everything is derived from a fixed seed, so the same parameters always produce the same
+ * requests and documents and results stay comparable between commits.
+ */
+public final class SpecFixtures {
+
+    private static final long SEED = 0x5EED_2024L;
+    private static final String[] HTTP_METHODS = {"GET", "POST", "PUT", "DELETE", "PATCH"};
+    private static final String[] FIELD_TYPES = {"string", "number", "boolean", "date"};
+    private static final int FIELDS_PER_LEVEL = 6;
+
+    private SpecFixtures() {
+    }
+
+    /**
+     * Requests for {@code operations} operations, five methods per endpoint, whose request and
+     * response schemas nest {@code schemaDepth} objects deep.
+     */
+    public static List<SwaggerSchemaRequest> requests(int operations, int schemaDepth) {
+        Random random = new Random(SEED);
+        List<SwaggerSchemaRequest> requests = new ArrayList<>(operations);
+        for (int i = 0; i < operations; i++) {
+            String resource = "resource" + (i / HTTP_METHODS.length);
+            SwaggerSchemaRequest request = new SwaggerSchemaRequest();
+            request.setEndpoint("/api/v1/" + resource + "/{id}");
+            request.setHttpMethod(HTTP_METHODS[i % HTTP_METHODS.length]);
+            request.setOperationId(request.getHttpMethod().toLowerCase() + "_" + resource);
+            request.setDescription("Operation " + i);
+            request.setTags(List.of(resource));
+            request.setParameters(List.of(
+                    Map.of("name", "id", "in", "path", "required", true),
+                    Map.of("name", "Authorization", "in", "header"),
+                    Map.of("name", "page", "in", "query")));
+            request.setRequestSchema(schema(random, schemaDepth));
+            request.setResponseSchema(schema(random, schemaDepth));
+            requests.add(request);
+        }
+        return requests;
+    }
+
+    /**
+     * A request schema: an object with a mix of scalar, array and nested object fields, with one
+     * branch reaching {@code depth} levels.
+     */
+    public static ObjectNode schema(Random random, int depth) {
+        JsonNodeFactory nodes = JsonNodeFactory.instance;
+        ObjectNode schema = nodes.objectNode();
+        for (int field = 0; field < FIELDS_PER_LEVEL; field++) {
+            switch (random.nextInt(4)) {
+                case 0 -> schema.put("name" + field, FIELD_TYPES[random.nextInt(FIELD_TYPES.length)]);
+                case 1 -> schema.put("count" + field, random.nextInt(1000));
+                case 2 -> schema.put("amount", random.nextDouble());
+                default -> schema.putArray("items" + field).add(nodes.objectNode().put("id", "string"));
+            }
+        }
+        if (depth > 1) {
+            schema.set("child", schema(random, depth - 1));
+        }
+        return schema;
+    }
+
+    /**
+     * The Swagger YAML the generator produces for {@link #requests(int, int)}.
+     */
+    public static String swaggerYaml(int operations, int schemaDepth) {
+        GenerationExecutor generationExecutor = generationExecutor();
+        try {
+            return generatorService(generationExecutor).generateSwaggerYaml(requests(operations, schemaDepth));
+        } finally {
+            generationExecutor.destroy();
+        }
+    }
+
+    /**
+     * The generator as the application configures it by default, but with caching turned off so
+     * that every invocation does the full work.
+     */
+    public static SwaggerGeneratorService generatorService(GenerationExecutor generationExecutor) {
+        GeneratorCacheProperties cacheProperties = new GeneratorCacheProperties();
+        cacheProperties.setEnabled(false);
+        return new SwaggerGeneratorService(new ObjectMapper(), cacheProperties, new GenerationProperties(), generationExecutor,
+                yamlPool(new ComplianceProperties()));
+    }
+
+    public static YamlPool yamlPool(ComplianceProperties complianceProperties) {
+        return new YamlConfig().yamlPool(complianceProperties);
+    }
+
+    public static GenerationExecutor generationExecutor() {
+        return new GenerationExecutor(new GenerationProperties());
+    }
+
+    /**
+     * The compliance checks with the standard rules and the default limits.
+     */
+    public static ComplianceService complianceService() {
+        ComplianceProperties complianceProperties = new ComplianceProperties();
+        return new ComplianceService(new ComplianceEngine(StandardRules.specRules()), yamlPool(complianceProperties),
+                complianceProperties);
+    }
+}
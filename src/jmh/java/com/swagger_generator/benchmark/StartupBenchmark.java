@@ -0,0 +1,116 @@
+package com.swagger_generator.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Time from launching the packaged application in a new JVM until its first successful
+ * {@code /generate}, which is what a scaled-to-zero instance costs its first caller. Every
+ * invocation starts a fresh process, so each measurement is a cold start.
+ *
+ * <p>The jar is taken from the {@code startup.jar} system property, which the {@code benchmarks}
+ * profile sets. Pass {@code -p aot=true} when it was built with the {@code fast-startup} profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupBenchmark {
+
+    private static final String DESCRIPTORS = """
+            [{"endpoint": "/users", "httpMethod": "POST", "requestSchema": {"name": "string", "age": 31}, "responseSchema": {"id": 1}}]
+            """;
+    private static final long TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    @Param({"false", "true"})
+    private boolean lazyInitialization;
+
+    @Param({"false"})
+    private boolean aot;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().build();
+    private Path directory;
+    private Process application;
+    private HttpRequest generate;
+
+    @Setup(Level.Invocation)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("startup-benchmark");
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        generate = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/swagger/generate"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(DESCRIPTORS))
+                .build();
+
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Dspring.aot.enabled=" + aot);
+        command.add("-jar");
+        command.add(System.getProperty("startup.jar", "target/swagger-generator-0.0.1-SNAPSHOT.jar"));
+        command.add("--server.port=" + port);
+        command.add("--spring.main.lazy-initialization=" + lazyInitialization);
+        // Own stores per run, as a previous instance may still be releasing its files
+        command.add("--swagger.incremental.directory=" + directory.resolve("incremental"));
+        command.add("--swagger.compliance.index.directory=" + directory.resolve("compliance-index"));
+        application = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(directory.resolve("application.log").toFile())
+                .start();
+    }
+
+    @Benchmark
+    public int firstGenerate() throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT_NANOS;
+        while (true) {
+            try {
+                HttpResponse<Void> response = httpClient.send(generate, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) return response.statusCode();
+                throw new IllegalStateException("/generate answered " + response.statusCode());
+            } catch (ConnectException e) {
+                // Not listening yet
+            }
+            if (!application.isAlive()) {
+                List<String> log = Files.readAllLines(directory.resolve("application.log"));
+                throw new IllegalStateException("The application exited with " + application.exitValue() + ":\n"
+                        + String.join("\n", log.subList(Math.max(0, log.size() - 20), log.size())));
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("No successful /generate within two minutes");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() throws IOException, InterruptedException {
+        application.destroy();
+        if (!application.waitFor(30, TimeUnit.SECONDS)) {
+            application.destroyForcibly().waitFor();
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.swagger_generator.benchmark;
+
+import com.swagger_generator.config.ComplianceProperties;
+import com.swagger_generator.util.YamlPool;
+import org.openjdk.jmh.annotations.*;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dumps and loads a small document with a fresh {@link Yaml} per call, as every request used to,
+ * and with the per-thread instances of {@link YamlPool}. Compare {@code gc.alloc.rate.norm}
+ * for the allocation saved per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class YamlPoolBenchmark {
+
+    private YamlPool yamlPool;
+    private Map<String, Object> document;
+    private String swaggerYaml;
+
+    @Setup
+    public void setUp() {
+        yamlPool = SpecFixtures.yamlPool(new ComplianceProperties());
+        swaggerYaml = SpecFixtures.swaggerYaml(10, 2);
+        document = yamlPool.load(swaggerYaml);
+    }
+
+    @Benchmark
+    public String dumpWithNewYaml() {
+        DumperOptions dumperOptions = new DumperOptions();
+        dumperOptions.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+        return new Yaml(dumperOptions).dump(document);
+    }
+
+    @Benchmark
+    public String dumpWithPool() {
+        return yamlPool.dump(document);
+    }
+
+    @Benchmark
+    public Object loadWithNewYaml() {
+        return new Yaml(new SafeConstructor(new LoaderOptions())).load(swaggerYaml);
+    }
+
+    @Benchmark
+    public Object loadWithPool() {
+        return yamlPool.load(swaggerYaml);
+    }
+}
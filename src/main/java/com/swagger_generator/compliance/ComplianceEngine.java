@@ -0,0 +1,159 @@
+package com.swagger_generator.compliance;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Runs a set of {@link ComplianceRule}s over a parsed Swagger document in a single traversal.
+ *
+ * <p>Rules are indexed by the node types they subscribe to, and every node is visited once and
+ * handed to the rules interested in it. Parts of the document no rule cares about, such as the
+ * parameters and responses of an operation, are not walked at all. Issues are reported in
+ * document order, and in rule registration order for the same node.
+ *
+ * <p>{@link #check(Map)} walks a fully loaded document. The {@code visit} methods run the rules for
+ * one node at a time, for callers such as {@link StreamingComplianceScanner} that never hold the
+ * whole document.
+ *
+ * <p>The engine holds no per-document state, so one instance can be shared between threads.
+ * Nodes of an unexpected shape are skipped rather than failing the whole check.
+ */
+public class ComplianceEngine {
+
+    private static final Set<String> HTTP_METHODS = Set.of("get", "put", "post", "delete", "options", "head", "patch", "trace");
+
+    private final List<ComplianceRule> rules;
+    private final Map<NodeType, List<ComplianceRule>> rulesByType = new EnumMap<>(NodeType.class);
+
+    public ComplianceEngine(List<? extends ComplianceRule> rules) {
+        this.rules = List.copyOf(rules);
+        for (NodeType nodeType : NodeType.values()) {
+            rulesByType.put(nodeType, new ArrayList<>());
+        }
+        for (ComplianceRule rule : rules) {
+            rule.nodeTypes().forEach(nodeType -> rulesByType.get(nodeType).add(rule));
+        }
+        rulesByType.replaceAll((nodeType, typeRules) -> List.copyOf(typeRules));
+    }
+
+    /**
+     * The rules, in registration order.
+     */
+    public List<ComplianceRule> rules() {
+        return rules;
+    }
+
+    public List<ComplianceIssue> check(Map<String, Object> swaggerRoot) {
+        List<ComplianceIssue> issues = new ArrayList<>();
+        visitDocument(swaggerRoot, null, issues);
+        if (!visitsPaths() || !(swaggerRoot.get("paths") instanceof Map<?, ?> paths)) {
+            return issues;
+        }
+        for (Map.Entry<?, ?> pathEntry : paths.entrySet()) {
+            if (!(pathEntry.getValue() instanceof Map<?, ?> pathItem)) continue;
+            String path = String.valueOf(pathEntry.getKey());
+            visitPath(path, asMap(pathItem), null, issues);
+
+            for (Map.Entry<?, ?> methodEntry : pathItem.entrySet()) {
+                String method = String.valueOf(methodEntry.getKey());
+                if (!isHttpMethod(method) || !(methodEntry.getValue() instanceof Map<?, ?> operation)) continue;
+                visitOperation(path, method, asMap(operation), container -> null, issues);
+            }
+        }
+        return issues;
+    }
+
+    /**
+     * Runs the {@link NodeType#DOCUMENT} rules against the document root.
+     */
+    public void visitDocument(Map<String, Object> swaggerRoot, SourceLocation location, List<ComplianceIssue> issues) {
+        dispatch(new SpecNode(NodeType.DOCUMENT, "", null, null, null, swaggerRoot, location), issues);
+    }
+
+    /**
+     * Runs the {@link NodeType#PATH} rules against a path item. Its operations are visited separately.
+     */
+    public void visitPath(String path, Map<String, Object> pathItem, SourceLocation location, List<ComplianceIssue> issues) {
+        dispatch(new SpecNode(NodeType.PATH, pathPointer(path), path, null, null, pathItem, location), issues);
+    }
+
+    /**
+     * Runs the {@link NodeType#OPERATION} rules against an operation, followed by the rules for its
+     * parameters and responses.
+     *
+     * @param method  the HTTP method key as it appears in the document
+     * @param locator looks up where a container of {@code operation} starts; returns {@code null} if unknown
+     */
+    public void visitOperation(String path, String method, Map<String, Object> operation,
+                               Function<Object, SourceLocation> locator, List<ComplianceIssue> issues) {
+        String operationPointer = pathPointer(path) + "/" + escape(method);
+        String lowerCaseMethod = method.toLowerCase();
+        dispatch(new SpecNode(NodeType.OPERATION, operationPointer, path, lowerCaseMethod, null, operation, locator.apply(operation)), issues);
+        visitParameters(operation, operationPointer, path, lowerCaseMethod, locator, issues);
+        visitResponses(operation, operationPointer, path, lowerCaseMethod, locator, issues);
+    }
+
+    /**
+     * Whether any rule looks below the document root, i.e. whether {@code paths} has to be visited at all.
+     */
+    public boolean visitsPaths() {
+        return subscribed(NodeType.PATH) || subscribed(NodeType.OPERATION)
+                || subscribed(NodeType.PARAMETER) || subscribed(NodeType.RESPONSE);
+    }
+
+    private void visitParameters(Map<?, ?> operation, String operationPointer, String path, String method,
+                                 Function<Object, SourceLocation> locator, List<ComplianceIssue> issues) {
+        if (!subscribed(NodeType.PARAMETER) || !(operation.get("parameters") instanceof List<?> parameters)) return;
+        for (int i = 0; i < parameters.size(); i++) {
+            if (parameters.get(i) instanceof Map<?, ?> parameter) {
+                dispatch(new SpecNode(NodeType.PARAMETER, operationPointer + "/parameters/" + i, path, method, null, asMap(parameter),
+                        locator.apply(parameter)), issues);
+            }
+        }
+    }
+
+    private void visitResponses(Map<?, ?> operation, String operationPointer, String path, String method,
+                                Function<Object, SourceLocation> locator, List<ComplianceIssue> issues) {
+        if (!subscribed(NodeType.RESPONSE) || !(operation.get("responses") instanceof Map<?, ?> responses)) return;
+        for (Map.Entry<?, ?> responseEntry : responses.entrySet()) {
+            if (responseEntry.getValue() instanceof Map<?, ?> response) {
+                String status = String.valueOf(responseEntry.getKey());
+                dispatch(new SpecNode(NodeType.RESPONSE, operationPointer + "/responses/" + escape(status), path, method, status,
+                        asMap(response), locator.apply(response)), issues);
+            }
+        }
+    }
+
+    private boolean subscribed(NodeType nodeType) {
+        return !rulesByType.get(nodeType).isEmpty();
+    }
+
+    private void dispatch(SpecNode node, List<ComplianceIssue> issues) {
+        for (ComplianceRule rule : rulesByType.get(node.type())) {
+            rule.check(node, issues);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(Map<?, ?> map) {
+        return (Map<String, Object>) map;
+    }
+
+    /**
+     * Whether a path item key names an operation rather than, say, {@code parameters} or {@code summary}.
+     */
+    public static boolean isHttpMethod(String key) {
+        return HTTP_METHODS.contains(key.toLowerCase());
+    }
+
+    private static String pathPointer(String path) {
+        return "/paths/" + escape(path);
+    }
+
+    /**
+     * Escapes a reference token for use in a JSON pointer.
+     */
+    public static String escape(String token) {
+        return token.replace("~", "~0").replace("/", "~1");
+    }
+}
@@ -0,0 +1,13 @@
+package com.swagger_generator.compliance;
+
+/**
+ * Selects part of a {@link ComplianceIndex}. Each criterion left {@code null} matches everything.
+ *
+ * @param tag        only operations with this tag, and their issues
+ * @param ruleId     only issues of this {@link ComplianceRule#id()}
+ * @param pathPrefix only paths starting with this, e.g. {@code /users}, and their issues
+ */
+public record ComplianceFilter(String tag, String ruleId, String pathPrefix) {
+
+    public static final ComplianceFilter ALL = new ComplianceFilter(null, null, null);
+}
@@ -0,0 +1,199 @@
+package com.swagger_generator.compliance;
+
+import java.util.*;
+
+/**
+ * What the compliance views need of a checked document, kept so that the document does not have to
+ * be parsed and checked again: its operations with their tags, security requirements, parameter
+ * locations and response codes, and the issues the rules reported, each tied to its operation.
+ *
+ * <p>Every operation and issue carries the JSON pointer of its node. Filtering by tag, rule or path
+ * prefix is a scan over these lists, which takes well under a millisecond even for thousands of
+ * operations. Instances are immutable and can be shared between threads.
+ *
+ * @param operations the operations in document order
+ * @param issues     the issues in the order the {@link ComplianceEngine} reported them
+ */
+public record ComplianceIndex(List<IndexedOperation> operations, List<IndexedIssue> issues) {
+
+    private static final int MAX_REF_HOPS = 32;
+
+    /**
+     * Indexes a parsed document and the issues {@code complianceEngine} reports for it.
+     */
+    public static ComplianceIndex build(Map<String, Object> swaggerRoot, ComplianceEngine complianceEngine) {
+        List<IndexedOperation> operations = new ArrayList<>();
+        List<String> rootSecurity = securityNames(swaggerRoot.get("security"));
+        if (swaggerRoot.get("paths") instanceof Map<?, ?> paths) {
+            for (Map.Entry<?, ?> pathEntry : paths.entrySet()) {
+                if (!(pathEntry.getValue() instanceof Map<?, ?> pathItem)) continue;
+                String path = String.valueOf(pathEntry.getKey());
+                for (Map.Entry<?, ?> methodEntry : pathItem.entrySet()) {
+                    String method = String.valueOf(methodEntry.getKey());
+                    if (ComplianceEngine.isHttpMethod(method) && methodEntry.getValue() instanceof Map<?, ?> operation) {
+                        operations.add(indexOperation(swaggerRoot, path, method, pathItem, operation, rootSecurity));
+                    }
+                }
+            }
+        }
+
+        // Issues below an operation belong to it; those of a path item only to the path
+        Map<String, Integer> operationsByPointer = new HashMap<>();
+        for (int i = 0; i < operations.size(); i++) {
+            operationsByPointer.put(operations.get(i).pointer(), i);
+        }
+        List<IndexedIssue> issues = new ArrayList<>();
+        for (ComplianceIssue issue : complianceEngine.check(swaggerRoot)) {
+            String[] tokens = issue.pointer().split("/", 5);
+            String path = tokens.length > 2 && tokens[1].equals("paths") ? unescape(tokens[2]) : null;
+            Integer operation = tokens.length > 3 ? operationsByPointer.get("/paths/" + tokens[2] + "/" + tokens[3]) : null;
+            issues.add(new IndexedIssue(issue, path, operation != null ? operation : -1));
+        }
+        return new ComplianceIndex(List.copyOf(operations), List.copyOf(issues));
+    }
+
+    /**
+     * The index of a document that could not be parsed: no operations and the single parse issue.
+     */
+    public static ComplianceIndex unparsable(ComplianceIssue parseError) {
+        return new ComplianceIndex(List.of(), List.of(new IndexedIssue(parseError, null, -1)));
+    }
+
+    /**
+     * The issues matching {@code filter}, in the order they were reported.
+     */
+    public List<ComplianceIssue> issues(ComplianceFilter filter) {
+        List<ComplianceIssue> matching = new ArrayList<>();
+        for (IndexedIssue issue : issues) {
+            if (filter.ruleId() != null && !filter.ruleId().equals(issue.issue().ruleId())) continue;
+            if (filter.pathPrefix() != null && (issue.path() == null || !issue.path().startsWith(filter.pathPrefix()))) continue;
+            if (filter.tag() != null && (issue.operation() < 0 || !operations.get(issue.operation()).tags().contains(filter.tag()))) continue;
+            matching.add(issue.issue());
+        }
+        return matching;
+    }
+
+    /**
+     * The operations matching the tag and path prefix of {@code filter}, in document order. With a
+     * rule, only operations that rule reported an issue for are included.
+     */
+    public List<IndexedOperation> operations(ComplianceFilter filter) {
+        BitSet reported = null;
+        if (filter.ruleId() != null) {
+            reported = new BitSet(operations.size());
+            for (IndexedIssue issue : issues) {
+                if (issue.operation() >= 0 && filter.ruleId().equals(issue.issue().ruleId())) {
+                    reported.set(issue.operation());
+                }
+            }
+        }
+        List<IndexedOperation> matching = new ArrayList<>();
+        for (int i = 0; i < operations.size(); i++) {
+            IndexedOperation operation = operations.get(i);
+            if (filter.pathPrefix() != null && !operation.path().startsWith(filter.pathPrefix())) continue;
+            if (filter.tag() != null && !operation.tags().contains(filter.tag())) continue;
+            if (reported != null && !reported.get(i)) continue;
+            matching.add(operation);
+        }
+        return matching;
+    }
+
+    private static IndexedOperation indexOperation(Map<String, Object> swaggerRoot, String path, String method, Map<?, ?> pathItem,
+                                                   Map<?, ?> operation, List<String> rootSecurity) {
+        List<String> tags = new ArrayList<>();
+        if (operation.get("tags") instanceof List<?> tagList) {
+            tagList.forEach(tag -> tags.add(String.valueOf(tag)));
+        }
+
+        // Path-level parameters apply unless the operation overrides them by name and location
+        Map<String, IndexedParameter> parameters = new LinkedHashMap<>();
+        for (Object parameterSource : new Object[]{pathItem.get("parameters"), operation.get("parameters")}) {
+            if (!(parameterSource instanceof List<?> parameterList)) continue;
+            for (Object parameter : parameterList) {
+                if (resolve(swaggerRoot, parameter) instanceof Map<?, ?> resolved) {
+                    IndexedParameter indexed = new IndexedParameter(stringOrNull(resolved.get("name")), stringOrNull(resolved.get("in")));
+                    parameters.put(indexed.in() + ":" + indexed.name(), indexed);
+                }
+            }
+        }
+
+        List<String> responses = new ArrayList<>();
+        if (operation.get("responses") instanceof Map<?, ?> responseMap) {
+            responseMap.keySet().forEach(status -> responses.add(String.valueOf(status)));
+        }
+
+        return new IndexedOperation(
+                "/paths/" + ComplianceEngine.escape(path) + "/" + ComplianceEngine.escape(method),
+                path,
+                method.toLowerCase(),
+                stringOrNull(operation.get("operationId")),
+                List.copyOf(tags),
+                operation.containsKey("security") ? securityNames(operation.get("security")) : rootSecurity,
+                List.copyOf(parameters.values()),
+                List.copyOf(responses));
+    }
+
+    // The scheme names of a security requirement list; an empty list means no security
+    private static List<String> securityNames(Object security) {
+        if (!(security instanceof List<?> requirements)) return List.of();
+        Set<String> names = new LinkedHashSet<>();
+        for (Object requirement : requirements) {
+            if (requirement instanceof Map<?, ?> schemes) {
+                schemes.keySet().forEach(name -> names.add(String.valueOf(name)));
+            }
+        }
+        return List.copyOf(names);
+    }
+
+    // Follows local {"$ref": "#/..."} pointers; anything else is returned as it is
+    private static Object resolve(Map<String, Object> swaggerRoot, Object node) {
+        for (int hop = 0; hop < MAX_REF_HOPS; hop++) {
+            if (!(node instanceof Map<?, ?> map) || !(map.get("$ref") instanceof String ref) || !ref.startsWith("#/")) {
+                return node;
+            }
+            Object target = swaggerRoot;
+            for (String token : ref.substring(2).split("/", -1)) {
+                target = target instanceof Map<?, ?> container ? container.get(unescape(token)) : null;
+            }
+            if (target == null) return node;
+            node = target;
+        }
+        return node;
+    }
+
+    private static String stringOrNull(Object value) {
+        return value != null ? String.valueOf(value) : null;
+    }
+
+    private static String unescape(String token) {
+        return token.replace("~1", "/").replace("~0", "~");
+    }
+
+    /**
+     * An operation of the document.
+     *
+     * @param pointer    JSON pointer to the operation, e.g. {@code /paths/~1users/get}
+     * @param method     the HTTP method in lower case
+     * @param security   names of the security schemes that apply, from the operation or else the document
+     * @param parameters the parameters that apply, path-level ones included and references resolved
+     * @param responses  the response status codes, in document order
+     */
+    public record IndexedOperation(String pointer, String path, String method, String operationId, List<String> tags,
+                                   List<String> security, List<IndexedParameter> parameters, List<String> responses) {
+    }
+
+    /**
+     * A parameter by name and location, e.g. {@code query}.
+     */
+    public record IndexedParameter(String name, String in) {
+    }
+
+    /**
+     * An issue and where it was found.
+     *
+     * @param path      the path it was reported under, or {@code null} for the document
+     * @param operation position of its operation in {@link #operations()}, or {@code -1}
+     */
+    public record IndexedIssue(ComplianceIssue issue, String path, int operation) {
+    }
+}
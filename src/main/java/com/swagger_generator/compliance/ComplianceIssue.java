@@ -0,0 +1,31 @@
+package com.swagger_generator.compliance;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * A single finding of a {@link ComplianceRule}.
+ *
+ * @param ruleId   the {@link ComplianceRule#id()} of the rule that reported it
+ * @param severity how serious the issue is
+ * @param pointer  JSON pointer (RFC 6901) to the offending node, e.g. {@code /paths/~1users/get}
+ * @param message  a human-readable description
+ * @param location where the offending node starts in the source, or {@code null} if the document
+ *                 was checked as an object tree
+ */
+public record ComplianceIssue(String ruleId, Severity severity, String pointer, String message,
+                              @JsonInclude(JsonInclude.Include.NON_NULL) SourceLocation location) {
+
+    public static final String PARSE_ERROR = "yaml-parse";
+
+    public ComplianceIssue(String ruleId, Severity severity, String pointer, String message) {
+        this(ruleId, severity, pointer, message, null);
+    }
+
+    /**
+     * The issue reported for a document that cannot be parsed.
+     */
+    public static ComplianceIssue parseError(String detail, SourceLocation location) {
+        return new ComplianceIssue(PARSE_ERROR, Severity.ERROR, "",
+                "Error parsing or analyzing the Swagger YAML content: " + detail, location);
+    }
+}
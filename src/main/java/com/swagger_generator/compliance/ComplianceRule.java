@@ -0,0 +1,29 @@
+package com.swagger_generator.compliance;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A check run by the {@link ComplianceEngine} against the nodes of a Swagger document.
+ *
+ * <p>A rule declares the {@link NodeType}s it inspects and is called once for every node of
+ * those types. Rules may be shared between threads and requests, so they must not keep any
+ * per-document state; issues are reported through the list passed to {@link #check}.
+ */
+public interface ComplianceRule {
+
+    /**
+     * A stable identifier, e.g. {@code operation-security}.
+     */
+    String id();
+
+    Severity severity();
+
+    Set<NodeType> nodeTypes();
+
+    void check(SpecNode node, List<ComplianceIssue> issues);
+
+    default ComplianceIssue issue(SpecNode node, String message) {
+        return new ComplianceIssue(id(), severity(), node.pointer(), message, node.location());
+    }
+}
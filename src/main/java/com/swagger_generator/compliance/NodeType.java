@@ -0,0 +1,32 @@
+package com.swagger_generator.compliance;
+
+/**
+ * The kinds of Swagger document nodes a {@link ComplianceRule} can subscribe to.
+ */
+public enum NodeType {
+
+    /**
+     * The document root.
+     */
+    DOCUMENT,
+
+    /**
+     * A path item under {@code paths}, e.g. {@code /paths/~1users}.
+     */
+    PATH,
+
+    /**
+     * An operation under a path item, e.g. {@code /paths/~1users/get}.
+     */
+    OPERATION,
+
+    /**
+     * An entry of an operation's {@code parameters} list.
+     */
+    PARAMETER,
+
+    /**
+     * An entry of an operation's {@code responses} map, keyed by status code.
+     */
+    RESPONSE
+}
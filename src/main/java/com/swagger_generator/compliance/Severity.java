@@ -0,0 +1,10 @@
+package com.swagger_generator.compliance;
+
+/**
+ * How serious a {@link ComplianceIssue} is.
+ */
+public enum Severity {
+    ERROR,
+    WARNING,
+    INFO
+}
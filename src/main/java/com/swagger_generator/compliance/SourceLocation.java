@@ -0,0 +1,10 @@
+package com.swagger_generator.compliance;
+
+/**
+ * A position in the YAML source, as reported by the streaming scanner.
+ *
+ * @param line   1-based line number
+ * @param column 1-based column number
+ */
+public record SourceLocation(int line, int column) {
+}
@@ -0,0 +1,32 @@
+package com.swagger_generator.compliance;
+
+import java.util.Map;
+
+/**
+ * A node of a Swagger document as presented to a {@link ComplianceRule}.
+ *
+ * <p>When the document is scanned as a stream, {@code value} only holds the first few levels
+ * of the node (see {@link StreamingComplianceScanner}); deeper containers appear empty.
+ *
+ * @param type     what kind of node this is
+ * @param pointer  JSON pointer to the node
+ * @param path     the enclosing path, e.g. {@code /users}, or {@code null} for the document
+ * @param method   the enclosing HTTP method in lower case, or {@code null} above operation level
+ * @param key      the status code of a {@link NodeType#RESPONSE}, otherwise {@code null}
+ * @param value    the node itself
+ * @param location where the node starts in the source, or {@code null} if unknown
+ */
+public record SpecNode(NodeType type, String pointer, String path, String method, String key, Map<String, Object> value,
+                       SourceLocation location) {
+
+    public SpecNode(NodeType type, String pointer, String path, String method, String key, Map<String, Object> value) {
+        this(type, pointer, path, method, key, value, null);
+    }
+
+    /**
+     * The enclosing operation in the form used by issue messages, e.g. {@code GET /users}.
+     */
+    public String operation() {
+        return method.toUpperCase() + " " + path;
+    }
+}
@@ -0,0 +1,91 @@
+package com.swagger_generator.compliance;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * The built-in {@link ComplianceRule}s.
+ *
+ * <p>{@link #specRules()} are the checks run by {@code /api/swagger/generate-with-compliance}.
+ * {@link #securityRules()} are the transport checks of {@code SecurityComplianceChecker}.
+ */
+public final class StandardRules {
+
+    /**
+     * Version of the built-in rules. Bump it when the check or the message of a rule changes, so that
+     * results kept from an earlier version, such as stored compliance indexes, are not served.
+     */
+    public static final int VERSION = 1;
+
+    public static final ComplianceRule SECURITY_SCHEMES = new SimpleRule("security-schemes", Severity.ERROR, NodeType.DOCUMENT,
+            node -> node.value().get("components") instanceof Map<?, ?> components && components.containsKey("securitySchemes")
+                    ? null
+                    : "Security schemes are missing from components.");
+
+    public static final ComplianceRule OPERATION_SECURITY = new SimpleRule("operation-security", Severity.ERROR, NodeType.OPERATION,
+            node -> node.value().containsKey("security")
+                    ? null
+                    : "Missing security definitions for " + node.operation());
+
+    // The same check in the wording SecurityComplianceChecker has always reported
+    public static final ComplianceRule OPERATION_SECURITY_DEFINITION = new SimpleRule("operation-security", Severity.ERROR, NodeType.OPERATION,
+            node -> node.value().containsKey("security")
+                    ? null
+                    : "Missing 'security' definition for " + node.method() + " on endpoint " + node.path());
+
+    public static final ComplianceRule ERROR_RESPONSE = new SimpleRule("error-response", Severity.WARNING, NodeType.OPERATION,
+            node -> node.value().get("responses") instanceof Map<?, ?> responses && responses.containsKey("400")
+                    ? null
+                    : "Error response (e.g., 400) is missing for " + node.operation());
+
+    public static final ComplianceRule AUTHORIZATION_HEADER = new SimpleRule("authorization-header", Severity.ERROR, NodeType.PARAMETER,
+            node -> "Authorization".equals(node.value().get("name")) && !"header".equals(node.value().get("in"))
+                    ? "Authorization parameter should be in the header for " + node.operation()
+                    : null);
+
+    public static final ComplianceRule HTTPS_SCHEME = new SimpleRule("https-scheme", Severity.WARNING, NodeType.DOCUMENT,
+            node -> node.value().get("schemes") instanceof List<?> schemes && !schemes.contains("https")
+                    ? "API should support HTTPS (missing 'https' in schemes)."
+                    : null);
+
+    public static final ComplianceRule CORS_HEADERS = new SimpleRule("cors-headers", Severity.WARNING, NodeType.OPERATION,
+            node -> node.value().get("responses") instanceof Map<?, ?> responses && !responses.containsKey("Access-Control-Allow-Origin")
+                    ? "CORS headers missing for " + node.method() + " on endpoint " + node.path()
+                    : null);
+
+    private StandardRules() {
+    }
+
+    public static List<ComplianceRule> specRules() {
+        return List.of(SECURITY_SCHEMES, OPERATION_SECURITY, ERROR_RESPONSE, AUTHORIZATION_HEADER);
+    }
+
+    public static List<ComplianceRule> securityRules() {
+        return List.of(OPERATION_SECURITY_DEFINITION, HTTPS_SCHEME, CORS_HEADERS);
+    }
+
+    /**
+     * A rule for a single node type that reports at most one issue per node.
+     *
+     * @param finding returns the issue message for a non-compliant node, or {@code null}
+     */
+    private record SimpleRule(String id, Severity severity, NodeType nodeType, Function<SpecNode, String> finding)
+            implements ComplianceRule {
+
+        @Override
+        public Set<NodeType> nodeTypes() {
+            return EnumSet.of(nodeType);
+        }
+
+        @Override
+        public void check(SpecNode node, List<ComplianceIssue> issues) {
+            String message = finding.apply(node);
+            if (message != null) {
+                issues.add(issue(node, message));
+            }
+        }
+    }
+}
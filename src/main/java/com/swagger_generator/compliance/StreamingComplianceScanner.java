@@ -0,0 +1,259 @@
+package com.swagger_generator.compliance;
+
+import com.swagger_generator.util.YamlPool;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.error.Mark;
+import org.yaml.snakeyaml.error.MarkedYAMLException;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.*;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.reader.UnicodeReader;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.*;
+
+/**
+ * Checks a Swagger YAML document with a {@link ComplianceEngine} while it is being read, without
+ * ever loading the whole document.
+ *
+ * <p>The input goes through SnakeYAML's event parser. Only the operation currently being read is
+ * held in memory: it is built to {@code nodeDepth} levels, checked and released before the next one
+ * is read. Anything deeper, such as request and response schemas, is skipped event by event and
+ * appears to rules as an empty map or list. Path items are presented with their operations emptied
+ * the same way, and the document root with {@code paths} reduced to its keys. Document rules run
+ * once the end of the root mapping has been reached.
+ *
+ * <p>Scalars are resolved exactly as by {@link SafeConstructor}, so rules see the same values as
+ * when the document is loaded as a whole. Aliases are not followed and read as {@code null}.
+ *
+ * <p>Every issue carries the {@link SourceLocation} of the node it was reported for, and issues
+ * are returned in source order. A syntax error ends the scan: the issues found up to that point are
+ * returned together with a {@link ComplianceIssue#PARSE_ERROR} issue at the error.
+ *
+ * <p>Parsers and scalar constructors are reused per thread, so one instance can be used by several
+ * threads, but a thread can only run one scan at a time.
+ */
+public class StreamingComplianceScanner {
+
+    private static final Comparator<ComplianceIssue> SOURCE_ORDER = Comparator.comparing(ComplianceIssue::location,
+            Comparator.nullsFirst(Comparator.comparingInt(SourceLocation::line).thenComparingInt(SourceLocation::column)));
+
+    private final ComplianceEngine complianceEngine;
+    private final YamlPool yamlPool;
+    private final ThreadLocal<ScalarConstructor> scalarConstructors;
+    private final int nodeDepth;
+
+    /**
+     * @param nodeDepth how many levels of each node are built for the rules, e.g. {@code 2} for an
+     *                  operation holds its {@code responses} map and the status code keys in it
+     */
+    public StreamingComplianceScanner(ComplianceEngine complianceEngine, YamlPool yamlPool, int nodeDepth) {
+        if (nodeDepth < 1) {
+            throw new IllegalArgumentException("nodeDepth must be at least 1");
+        }
+        this.complianceEngine = complianceEngine;
+        this.yamlPool = yamlPool;
+        this.scalarConstructors = ThreadLocal.withInitial(() -> new ScalarConstructor(yamlPool.loaderOptions()));
+        this.nodeDepth = nodeDepth;
+    }
+
+    /**
+     * Scans a document in UTF-8, UTF-16 or UTF-32 as detected from its byte order mark.
+     * The stream is not closed.
+     */
+    public List<ComplianceIssue> scan(InputStream inputStream) {
+        return scan(new UnicodeReader(inputStream));
+    }
+
+    public List<ComplianceIssue> scan(Reader reader) {
+        return new Scan(reader).run();
+    }
+
+    private static SourceLocation location(Mark mark) {
+        return mark == null ? null : new SourceLocation(mark.getLine() + 1, mark.getColumn() + 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(Map<?, ?> map) {
+        return (Map<String, Object>) map;
+    }
+
+    /**
+     * The state of a single scan.
+     */
+    private final class Scan {
+
+        private final ScalarConstructor scalarConstructor = scalarConstructors.get();
+        private final Iterator<Event> events;
+        private final List<ComplianceIssue> issues = new ArrayList<>();
+        // Start of every container built for the node being checked, keyed by identity
+        private final Map<Object, SourceLocation> locations = new IdentityHashMap<>();
+        private Event peeked;
+
+        Scan(Reader reader) {
+            this.events = yamlPool.parse(reader).iterator();
+        }
+
+        List<ComplianceIssue> run() {
+            try {
+                scanDocument();
+            } catch (MarkedYAMLException e) {
+                issues.add(ComplianceIssue.parseError(e.getMessage(), location(e.getProblemMark())));
+            } catch (YAMLException e) {
+                issues.add(ComplianceIssue.parseError(e.getMessage(), null));
+            }
+            issues.sort(SOURCE_ORDER);
+            return issues;
+        }
+
+        private void scanDocument() {
+            next(); // StreamStartEvent
+            Event documentStart = next();
+            Event root = documentStart instanceof DocumentStartEvent ? next() : documentStart;
+            if (!(root instanceof MappingStartEvent)) {
+                issues.add(ComplianceIssue.parseError("the document is not a mapping", location(root.getStartMark())));
+                return;
+            }
+
+            Map<Object, Object> swaggerRoot = new LinkedHashMap<>();
+            while (!(peek() instanceof MappingEndEvent)) {
+                Object key = readNode(nodeDepth);
+                if ("paths".equals(key) && peek() instanceof MappingStartEvent) {
+                    swaggerRoot.put(key, scanPaths());
+                } else {
+                    swaggerRoot.put(key, readNode(nodeDepth));
+                }
+                locations.clear();
+            }
+            complianceEngine.visitDocument(asMap(swaggerRoot), location(root.getStartMark()), issues);
+        }
+
+        private Map<Object, Object> scanPaths() {
+            boolean visitPaths = complianceEngine.visitsPaths();
+            Map<Object, Object> paths = new LinkedHashMap<>();
+            next(); // MappingStartEvent
+            while (!(peek() instanceof MappingEndEvent)) {
+                Object path = readNode(0);
+                paths.put(path, new LinkedHashMap<>());
+                if (visitPaths && peek() instanceof MappingStartEvent) {
+                    scanPathItem(String.valueOf(path));
+                } else {
+                    readNode(0);
+                }
+            }
+            next();
+            return paths;
+        }
+
+        private void scanPathItem(String path) {
+            Event start = next();
+            Map<Object, Object> pathItem = new LinkedHashMap<>();
+            while (!(peek() instanceof MappingEndEvent)) {
+                Object key = readNode(0);
+                String method = String.valueOf(key);
+                if (ComplianceEngine.isHttpMethod(method) && peek() instanceof MappingStartEvent) {
+                    Map<?, ?> operation = (Map<?, ?>) readNode(nodeDepth);
+                    complianceEngine.visitOperation(path, method, asMap(operation), locations::get, issues);
+                    locations.clear();
+                    pathItem.put(key, new LinkedHashMap<>());
+                } else {
+                    pathItem.put(key, readNode(nodeDepth));
+                }
+            }
+            next();
+            complianceEngine.visitPath(path, asMap(pathItem), location(start.getStartMark()), issues);
+            locations.clear();
+        }
+
+        /**
+         * Reads the next node, building containers down to {@code depth} levels and skipping the rest.
+         */
+        private Object readNode(int depth) {
+            Event event = next();
+            if (event instanceof ScalarEvent scalar) {
+                return scalarConstructor.construct(scalar);
+            }
+            if (event instanceof MappingStartEvent) {
+                Map<Object, Object> mapping = new LinkedHashMap<>();
+                if (depth == 0) {
+                    skipContent();
+                    return mapping;
+                }
+                locations.put(mapping, location(event.getStartMark()));
+                while (!(peek() instanceof MappingEndEvent)) {
+                    Object key = readNode(depth - 1);
+                    mapping.put(key, readNode(depth - 1));
+                }
+                next();
+                return mapping;
+            }
+            if (event instanceof SequenceStartEvent) {
+                List<Object> sequence = new ArrayList<>();
+                if (depth == 0) {
+                    skipContent();
+                    return sequence;
+                }
+                locations.put(sequence, location(event.getStartMark()));
+                while (!(peek() instanceof SequenceEndEvent)) {
+                    sequence.add(readNode(depth - 1));
+                }
+                next();
+                return sequence;
+            }
+            return null;
+        }
+
+        // Consumes the rest of a container whose start event has just been read
+        private void skipContent() {
+            int open = 1;
+            while (open > 0) {
+                Event event = next();
+                if (event instanceof CollectionStartEvent) {
+                    open++;
+                } else if (event instanceof CollectionEndEvent) {
+                    open--;
+                }
+            }
+        }
+
+        private Event peek() {
+            if (peeked == null) {
+                peeked = events.next();
+            }
+            return peeked;
+        }
+
+        private Event next() {
+            Event event = peek();
+            peeked = null;
+            return event;
+        }
+    }
+
+    /**
+     * Constructs single scalars the way {@link SafeConstructor} does when loading a whole document.
+     */
+    private static final class ScalarConstructor extends SafeConstructor {
+
+        private final Resolver resolver = new Resolver();
+
+        ScalarConstructor(LoaderOptions loaderOptions) {
+            super(loaderOptions);
+        }
+
+        Object construct(ScalarEvent event) {
+            // Same tag resolution as org.yaml.snakeyaml.composer.Composer
+            Tag tag = event.getTag() == null || event.getTag().equals("!")
+                    ? resolver.resolve(NodeId.scalar, event.getValue(), event.getImplicit().canOmitTagInPlainScalar())
+                    : new Tag(event.getTag());
+            ScalarNode node = new ScalarNode(tag, event.getValue(), event.getStartMark(), event.getEndMark(), event.getScalarStyle());
+            // constructDocument releases the node afterwards, unlike constructObject
+            return constructDocument(node);
+        }
+    }
+}
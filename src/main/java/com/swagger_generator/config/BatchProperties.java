@@ -0,0 +1,65 @@
+package com.swagger_generator.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for {@code /api/swagger/generate/batch}, bound from {@code swagger.batch.*}.
+ *
+ * <p>Each service of a batch is a job on a fixed pool of batch threads. Jobs of all batch requests
+ * share {@link #maxPendingJobs} slots; a request that finds them all taken waits for one, and stops
+ * reading its input meanwhile, which holds back the client. A job that still has no slot after
+ * {@link #admissionTimeout} is rejected. Together with the per-service budgets this bounds the memory
+ * held by batches to roughly {@code maxPendingJobs * maxOutputBytesPerService}.
+ */
+@Data
+@ConfigurationProperties(prefix = "swagger.batch")
+public class BatchProperties {
+
+    /**
+     * Number of services generated at the same time; {@code 0} uses one per available processor.
+     */
+    private int concurrency = 0;
+
+    /**
+     * Number of services that may be running or waiting to run, across all batch requests.
+     */
+    private int maxPendingJobs = 64;
+
+    /**
+     * How long a service waits for a free slot before it is rejected.
+     */
+    private Duration admissionTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Services with more descriptors than this fail without being generated.
+     */
+    private int maxOperationsPerService = 10_000;
+
+    /**
+     * Services whose YAML grows beyond this many bytes fail.
+     */
+    private long maxOutputBytesPerService = 16L * 1024 * 1024;
+
+    /**
+     * Services that take longer than this to generate fail.
+     */
+    private Duration serviceTimeout = Duration.ofSeconds(60);
+
+    /**
+     * How long a whole batch request may run, in place of the default MVC async timeout of 30
+     * seconds, which a batch of a few slow services would exceed.
+     */
+    private Duration requestTimeout = Duration.ofMinutes(30);
+
+    /**
+     * The timeout of a batch request: {@link #requestTimeout}, but at least long enough for one
+     * service to wait for a slot and then run to its own timeout.
+     */
+    public Duration asyncTimeout() {
+        Duration serviceBudget = admissionTimeout.plus(serviceTimeout);
+        return requestTimeout.compareTo(serviceBudget) < 0 ? serviceBudget : requestTimeout;
+    }
+}
@@ -0,0 +1,29 @@
+package com.swagger_generator.config;
+
+import com.swagger_generator.compliance.ComplianceEngine;
+import com.swagger_generator.compliance.ComplianceRule;
+import com.swagger_generator.compliance.StandardRules;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configures the {@link ComplianceEngine} used by {@code /api/swagger/generate-with-compliance}.
+ *
+ * <p>The engine runs the {@link StandardRules#specRules() standard rules} followed by any
+ * {@link ComplianceRule} beans in the application context, so in-house rules are added by
+ * declaring them as beans. All rules share the engine's single pass over the document.
+ */
+@Configuration
+public class ComplianceConfig {
+
+    @Bean
+    public ComplianceEngine complianceEngine(ObjectProvider<ComplianceRule> additionalRules) {
+        List<ComplianceRule> rules = new ArrayList<>(StandardRules.specRules());
+        additionalRules.orderedStream().forEach(rules::add);
+        return new ComplianceEngine(rules);
+    }
+}
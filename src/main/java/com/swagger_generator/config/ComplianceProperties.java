@@ -0,0 +1,79 @@
+package com.swagger_generator.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * Settings for the compliance checks, bound from {@code swagger.compliance.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "swagger.compliance")
+public class ComplianceProperties {
+
+    /**
+     * Largest document accepted, in code points. SnakeYAML's own default of 3 MB is too small
+     * for large vendor specs.
+     */
+    private int maxCodePoints = 64 * 1024 * 1024;
+
+    /**
+     * Most aliases to collections a document may use when it is loaded as a whole. Documents from
+     * {@code /generate} alias the shared security scope list once per operation, so large generated
+     * specs need a higher limit than SnakeYAML's default of 50. A generated operation takes well
+     * over 64 code points, so the default allows one alias per operation up to the default
+     * {@link #maxCodePoints}. The streaming scanner does not follow aliases and ignores this.
+     */
+    private int maxAliases = 1024 * 1024;
+
+    /**
+     * How many levels of each node are built for the rules when a document is scanned as a stream.
+     * Deeper containers, such as schemas, are skipped and appear empty.
+     */
+    private int streamNodeDepth = 4;
+
+    /**
+     * Where the indexes of {@code /api/swagger/compliance/index} are kept.
+     */
+    private Index index = new Index();
+
+    /**
+     * Settings of the compliance index store, bound from {@code swagger.compliance.index.*}.
+     *
+     * <p>Every indexed document is checked once and its index kept on disk under the hash of its
+     * content, so it survives restarts. The oldest segments are dropped when the store reaches its
+     * size limit, after which those documents are parsed and checked again the next time they are
+     * indexed.
+     */
+    @Data
+    public static class Index {
+
+        /**
+         * Directory holding the index store. Only one application instance may use it at a time.
+         */
+        private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "swagger-generator", "compliance-index");
+
+        /**
+         * Size of each memory-mapped segment file, in bytes.
+         */
+        private int segmentBytes = 16 * 1024 * 1024;
+
+        /**
+         * Upper bound on the total size of the segment files, in bytes.
+         */
+        private long maxBytes = 256L * 1024 * 1024;
+
+        /**
+         * Upper bound on the stored size of the indexes kept loaded in memory, in bytes.
+         */
+        private long maxLoadedBytes = 32L * 1024 * 1024;
+
+        /**
+         * Whether documents checked by {@code /api/swagger/generate-with-compliance} are kept in the store
+         * as well. Off by default, so that only documents posted to {@code /api/swagger/compliance/index}
+         * are written to disk; checked ones stay in memory, within {@link #maxLoadedBytes}.
+         */
+        private boolean persistChecked = false;
+    }
+}
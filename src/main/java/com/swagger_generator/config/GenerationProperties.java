@@ -0,0 +1,74 @@
+package com.swagger_generator.config;
+
+import com.swagger_generator.util.SchemaLimits;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for parallel operation generation, bound from {@code swagger.generation.*}.
+ *
+ * <p>Converting the request and response schemas of an operation is independent of every other
+ * operation, so large batches are converted on a dedicated fork-join pool and reassembled in input
+ * order. Small batches stay on the calling thread, where the hand-off would cost more than it saves.
+ *
+ * <p>The {@code max-schema-*} limits bound the work a single example schema can cause. A schema
+ * over one of them fails its request with the path where the limit was reached.
+ */
+@Data
+@ConfigurationProperties(prefix = "swagger.generation")
+public class GenerationProperties {
+
+    /**
+     * Number of worker threads; {@code 0} uses one per available processor and {@code 1}
+     * disables parallel generation.
+     */
+    private int parallelism = 0;
+
+    /**
+     * Smallest number of operations that is generated in parallel.
+     */
+    private int parallelThreshold = 64;
+
+    /**
+     * Number of operations generated ahead of the writer when streaming, which bounds how many
+     * built operations are held in memory at once.
+     */
+    private int batchSize = 256;
+
+    /**
+     * Moves repeated object schemas into {@code components/schemas} and references them with
+     * {@code $ref} instead of inlining them at every use. The document describes the same API
+     * either way, but is no longer byte-for-byte the same.
+     */
+    private boolean deduplicateSchemas = false;
+
+    /**
+     * Deepest nesting of objects in an example schema. Arrays follow their first element and do not
+     * count a level of their own. Request bodies nested deeper than the parser allows for this, see
+     * {@link #maxNestingDepth()}, are rejected while they are read.
+     */
+    private int maxSchemaDepth = SchemaLimits.DEFAULT.maxDepth();
+
+    /**
+     * Most properties of a single object in an example schema.
+     */
+    private int maxSchemaProperties = SchemaLimits.DEFAULT.maxProperties();
+
+    /**
+     * Most values converted in one example schema, counting every object and property.
+     */
+    private int maxSchemaNodes = SchemaLimits.DEFAULT.maxNodes();
+
+    public SchemaLimits schemaLimits() {
+        return new SchemaLimits(maxSchemaDepth, maxSchemaProperties, maxSchemaNodes);
+    }
+
+    /**
+     * Deepest JSON nesting accepted while binding request bodies: an object and an array per level
+     * of {@link #getMaxSchemaDepth()}, plus the levels of the request around the schema, such as
+     * the service map, descriptor list and descriptor of {@code /generate/batch}.
+     */
+    public int maxNestingDepth() {
+        return 2 * maxSchemaDepth + 4;
+    }
+}
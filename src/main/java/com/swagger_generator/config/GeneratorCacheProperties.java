@@ -0,0 +1,32 @@
+package com.swagger_generator.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the caches used by {@code /api/swagger/generate}, bound from {@code swagger.cache.*}.
+ *
+ * <p>Generated specs are cached by a hash of the request list, so identical batches (such as
+ * repeated CI builds of an unchanged service) are answered without regenerating. Converted request
+ * and response schemas are cached separately by a hash of their JSON, which also helps batches
+ * that only share some of their schemas.
+ */
+@Data
+@ConfigurationProperties(prefix = "swagger.cache")
+public class GeneratorCacheProperties {
+
+    /**
+     * Whether generated specs and converted schemas are cached at all.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Upper bound on the total size of cached YAML documents, in bytes.
+     */
+    private long maxSpecBytes = 64L * 1024 * 1024;
+
+    /**
+     * Upper bound on the cached schemas, measured by the size of the JSON they were converted from.
+     */
+    private long maxSchemaBytes = 16L * 1024 * 1024;
+}
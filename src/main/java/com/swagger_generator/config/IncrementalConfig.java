@@ -0,0 +1,20 @@
+package com.swagger_generator.config;
+
+import com.swagger_generator.util.FragmentStore;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+/**
+ * Opens the {@link FragmentStore} used for incremental generation, see {@link IncrementalProperties}.
+ */
+@Configuration
+public class IncrementalConfig {
+
+    @Bean(destroyMethod = "close")
+    public FragmentStore fragmentStore(IncrementalProperties incrementalProperties) throws IOException {
+        return new FragmentStore(incrementalProperties.getDirectory(), incrementalProperties.getSegmentBytes(),
+                incrementalProperties.getMaxBytes());
+    }
+}
@@ -0,0 +1,34 @@
+package com.swagger_generator.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * Settings for incremental generation, bound from {@code swagger.incremental.*}.
+ *
+ * <p>Every operation generated through {@code /api/swagger/generate/incremental} is rendered once
+ * and kept on disk under a hash of its request, so a later patch only renders the operations that
+ * changed. The store survives restarts; the oldest segments are dropped when it reaches its size
+ * limit, after which specs that used them have to be generated in full again.
+ */
+@Data
+@ConfigurationProperties(prefix = "swagger.incremental")
+public class IncrementalProperties {
+
+    /**
+     * Directory holding the fragment store. Only one application instance may use it at a time.
+     */
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "swagger-generator", "fragments");
+
+    /**
+     * Size of each memory-mapped segment file, in bytes.
+     */
+    private int segmentBytes = 64 * 1024 * 1024;
+
+    /**
+     * Upper bound on the total size of the segment files, in bytes.
+     */
+    private long maxBytes = 1024L * 1024 * 1024;
+}
@@ -0,0 +1,37 @@
+package com.swagger_generator.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for inferring schemas from captured payloads, bound from {@code swagger.inference.*}.
+ *
+ * <p>Samples are folded into per-operation statistics on the generation pool, see
+ * {@link GenerationProperties#getParallelism()}, with different operations folded in parallel.
+ */
+@Data
+@ConfigurationProperties(prefix = "swagger.inference")
+public class InferenceProperties {
+
+    /**
+     * Number of operations folded at the same time; {@code 0} uses one per available processor.
+     */
+    private int shards = 0;
+
+    /**
+     * Samples of a shard handed to a worker at a time. Up to three batches per shard are held in
+     * memory at once.
+     */
+    private int batchSize = 256;
+
+    /**
+     * Most distinct values a string field may have to be inferred as an enum.
+     */
+    private int maxEnumValues = 10;
+
+    /**
+     * Fewest samples of a string field before it may be inferred as an enum, so that a handful of
+     * samples does not turn every string into one.
+     */
+    private int minEnumSamples = 20;
+}
@@ -0,0 +1,23 @@
+package com.swagger_generator.config;
+
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Applies the schema limits of {@link GenerationProperties} to the application's
+ * {@code ObjectMapper}, so that request bodies nested too deeply to convert are rejected while they
+ * are read rather than bound into a tree first.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer streamReadConstraints(GenerationProperties generationProperties) {
+        StreamReadConstraints constraints = StreamReadConstraints.builder()
+                .maxNestingDepth(generationProperties.maxNestingDepth())
+                .build();
+        return builder -> builder.postConfigurer(objectMapper -> objectMapper.getFactory().setStreamReadConstraints(constraints));
+    }
+}
@@ -0,0 +1,61 @@
+package com.swagger_generator.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for running requests on separate lanes, bound from {@code swagger.lanes.*}.
+ *
+ * <p>When enabled, {@code /generate}, {@code /generate/incremental} and
+ * {@code /generate-with-compliance} are taken off the servlet thread and run on one of two bounded
+ * worker pools, picked by the size of the request body. A few large documents then can no longer
+ * hold up the many small requests behind them. A lane whose workers are busy and whose queue is
+ * full rejects further requests with {@code 503 Service Unavailable}.
+ */
+@Data
+@ConfigurationProperties(prefix = "swagger.lanes")
+public class LaneProperties {
+
+    /**
+     * Whether requests run on the lanes; when disabled they run on the servlet thread.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Request bodies of at least this many bytes, or of unknown length, go to the large lane.
+     */
+    private long largeRequestBytes = 256 * 1024;
+
+    /**
+     * The lane for requests smaller than {@link #largeRequestBytes}.
+     */
+    private Lane small = new Lane(0, 256);
+
+    /**
+     * The lane for requests of at least {@link #largeRequestBytes}.
+     */
+    private Lane large = new Lane(2, 16);
+
+    @Data
+    public static class Lane {
+
+        /**
+         * Number of requests of this lane that run at the same time; {@code 0} uses one per
+         * available processor.
+         */
+        private int concurrency;
+
+        /**
+         * Number of requests that may wait for a worker before further ones are rejected.
+         */
+        private int queueCapacity;
+
+        public Lane() {
+        }
+
+        public Lane(int concurrency, int queueCapacity) {
+            this.concurrency = concurrency;
+            this.queueCapacity = queueCapacity;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.swagger_generator.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the request metrics, bound from {@code swagger.metrics.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "swagger.metrics")
+public class MetricsProperties {
+
+    /**
+     * Requests taking longer than this are logged with their stage breakdown and sizes.
+     * A zero or negative duration turns the log off.
+     */
+    private Duration slowRequestThreshold = Duration.ofSeconds(2);
+}
@@ -0,0 +1,23 @@
+package com.swagger_generator.config;
+
+import com.swagger_generator.util.YamlPool;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.yaml.snakeyaml.LoaderOptions;
+
+/**
+ * Configures the {@link YamlPool} shared by generation and the compliance checks.
+ *
+ * <p>Documents are loaded and parsed with the limits from {@link ComplianceProperties}.
+ */
+@Configuration
+public class YamlConfig {
+
+    @Bean
+    public YamlPool yamlPool(ComplianceProperties complianceProperties) {
+        LoaderOptions loaderOptions = new LoaderOptions();
+        loaderOptions.setCodePointLimit(complianceProperties.getMaxCodePoints());
+        loaderOptions.setMaxAliasesForCollections(complianceProperties.getMaxAliases());
+        return new YamlPool(loaderOptions);
+    }
+}
@@ -0,0 +1,46 @@
+package com.swagger_generator.controller;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+
+/**
+ * Measures how long binding a {@code @RequestBody} takes and exposes it to the handler as the
+ * {@link #BIND_NANOS} request attribute, to be reported as the request's bind stage.
+ */
+@ControllerAdvice(assignableTypes = SwaggerController.class)
+public class RequestBindingTimer extends RequestBodyAdviceAdapter {
+
+    public static final String BIND_NANOS = RequestBindingTimer.class.getName() + ".bindNanos";
+
+    private static final String BIND_START = RequestBindingTimer.class.getName() + ".bindStart";
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                           Class<? extends HttpMessageConverter<?>> converterType) {
+        RequestContextHolder.currentRequestAttributes().setAttribute(BIND_START, System.nanoTime(), RequestAttributes.SCOPE_REQUEST);
+        return inputMessage;
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                Class<? extends HttpMessageConverter<?>> converterType) {
+        RequestAttributes attributes = RequestContextHolder.currentRequestAttributes();
+        if (attributes.getAttribute(BIND_START, RequestAttributes.SCOPE_REQUEST) instanceof Long bindStart) {
+            attributes.setAttribute(BIND_NANOS, System.nanoTime() - bindStart, RequestAttributes.SCOPE_REQUEST);
+        }
+        return body;
+    }
+}
@@ -1,20 +1,57 @@
 package com.swagger_generator.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swagger_generator.compliance.ComplianceFilter;
+import com.swagger_generator.compliance.ComplianceIndex;
+import com.swagger_generator.compliance.ComplianceIssue;
+import com.swagger_generator.diff.SpecChange;
+import com.swagger_generator.entity.ComplianceIndexResponse;
+import com.swagger_generator.entity.SpecDiffRequest;
+import com.swagger_generator.entity.SpecDiffResponse;
 import com.swagger_generator.entity.SwaggerSchemaRequest;
 import com.swagger_generator.entity.SwaggerSchemaResponse;
-import com.swagger_generator.util.Utility;
+import com.swagger_generator.model.Operation;
+import com.swagger_generator.service.BatchGenerationService;
+import com.swagger_generator.service.ComplianceIndexService;
+import com.swagger_generator.service.ComplianceService;
+import com.swagger_generator.service.GeneratedSpec;
+import com.swagger_generator.service.IncrementalSpecService;
+import com.swagger_generator.service.IndexedSpec;
+import com.swagger_generator.service.OutputFormat;
+import com.swagger_generator.service.RequestLanes;
+import com.swagger_generator.service.RequestMetrics;
+import com.swagger_generator.service.SchemaInferenceService;
+import com.swagger_generator.service.SpecDiffService;
+import com.swagger_generator.service.SwaggerGeneratorService;
+import com.swagger_generator.service.SwaggerMetrics;
+import com.swagger_generator.util.LruCache;
+import com.swagger_generator.util.SchemaLimitExceededException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.yaml.snakeyaml.DumperOptions;
-import org.yaml.snakeyaml.LoaderOptions;
-import org.yaml.snakeyaml.Yaml;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @RestController
@@ -23,114 +60,473 @@ public class SwaggerController {
 
     private static final ObjectMapper objectMapper = new ObjectMapper();
 
+    private static final MediaType YAML_TEXT = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+
+    private final SwaggerGeneratorService swaggerGeneratorService;
+
+    private final ComplianceService complianceService;
+
+    private final IncrementalSpecService incrementalSpecService;
+
+    private final BatchGenerationService batchGenerationService;
+
+    private final SwaggerMetrics swaggerMetrics;
+
+    private final RequestLanes requestLanes;
+
+    private final SpecDiffService specDiffService;
+
+    private final SchemaInferenceService schemaInferenceService;
+
+    private final ComplianceIndexService complianceIndexService;
+
+    public SwaggerController(SwaggerGeneratorService swaggerGeneratorService, ComplianceService complianceService,
+                             IncrementalSpecService incrementalSpecService, BatchGenerationService batchGenerationService,
+                             SwaggerMetrics swaggerMetrics, RequestLanes requestLanes, SpecDiffService specDiffService,
+                             SchemaInferenceService schemaInferenceService, ComplianceIndexService complianceIndexService) {
+        this.swaggerGeneratorService = swaggerGeneratorService;
+        this.complianceService = complianceService;
+        this.incrementalSpecService = incrementalSpecService;
+        this.batchGenerationService = batchGenerationService;
+        this.swaggerMetrics = swaggerMetrics;
+        this.requestLanes = requestLanes;
+        this.specDiffService = specDiffService;
+        this.schemaInferenceService = schemaInferenceService;
+        this.complianceIndexService = complianceIndexService;
+    }
+
     @GetMapping("/health")
     public ResponseEntity<String> healthStatus() {
         return new ResponseEntity<>("healthy", HttpStatus.OK);
     }
 
+    // YAML unless Accept prefers JSON, Smile or CBOR; each format has its own ETag
     @PostMapping("/generate")
-    public ResponseEntity<String> generateSwaggerMulti(@RequestBody List<SwaggerSchemaRequest> swaggerSchemaRequests) {
+    public CompletableFuture<ResponseEntity<byte[]>> generateSwaggerMulti(@RequestBody List<SwaggerSchemaRequest> swaggerSchemaRequests,
+                                                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                                          @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        if (swaggerSchemaRequests == null || swaggerSchemaRequests.isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .contentType(YAML_TEXT)
+                    .body("Request data is missing or null.".getBytes(StandardCharsets.UTF_8)));
+        }
+        OutputFormat format = negotiateFormat(accept);
+        RequestMetrics metrics = startMetrics("generate");
+        return requestLanes.submit(requestLane(), () -> {
+            GeneratedSpec spec;
+            try {
+                spec = swaggerGeneratorService.generateCachedSwagger(swaggerSchemaRequests, format, metrics);
+            } finally {
+                metrics.finish();
+            }
+            String eTag = "\"" + spec.eTag() + "\"";
+            if (eTagMatches(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT).build();
+            }
+            return ResponseEntity.ok()
+                    .contentType(contentType(format))
+                    .eTag(eTag)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(spec.content());
+        });
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, LruCache.Stats>> cacheStats() {
+        Map<String, LruCache.Stats> stats = new LinkedHashMap<>(swaggerGeneratorService.cacheStats());
+        stats.put("complianceIndexes", complianceIndexService.stats());
+        return ResponseEntity.ok(stats);
+    }
+
+    // Same output as /generate, written to the response as each operation is generated
+    @PostMapping("/generate/stream")
+    public WebAsyncTask<ResponseEntity<byte[]>> generateSwaggerStream(@RequestBody List<SwaggerSchemaRequest> swaggerSchemaRequests,
+                                                                     @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                                     HttpServletResponse response) {
         if (swaggerSchemaRequests == null || swaggerSchemaRequests.isEmpty()) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body("Request data is missing or null.");
+            return new WebAsyncTask<>(() -> badRequest("Request data is missing or null."));
         }
-        String swaggerYamlContent = generateSwaggerYaml(swaggerSchemaRequests);
-        return ResponseEntity.ok(swaggerYamlContent);
+        OutputFormat format = negotiateFormat(accept);
+        RequestMetrics metrics = startMetrics("generate-stream");
+        return onLargeLane(() -> {
+            try {
+                response.setContentType(contentType(format).toString());
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                swaggerGeneratorService.writeSwagger(swaggerSchemaRequests, format, response.getOutputStream(), metrics);
+            } finally {
+                metrics.finish();
+            }
+            return null;
+        });
+    }
+
+    // Newline-delimited JSON variant of /generate: requests are bound and converted one at a time
+    @PostMapping(value = "/generate", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public WebAsyncTask<ResponseEntity<byte[]>> generateSwaggerFromNdjson(InputStream inputStream, HttpServletResponse response) {
+        RequestMetrics metrics = startMetrics("generate-ndjson");
+        return onLargeLane(() -> {
+            try {
+                Map<String, Map<String, Operation>> paths;
+                try {
+                    paths = swaggerGeneratorService.readOperations(inputStream, metrics);
+                } catch (JsonProcessingException e) {
+                    return badRequest("Invalid request data: " + e.getOriginalMessage());
+                }
+                if (paths.isEmpty()) {
+                    return badRequest("Request data is missing or null.");
+                }
+                response.setContentType(YAML_TEXT.toString());
+                swaggerGeneratorService.writeSwaggerYaml(paths, response.getOutputStream(), metrics);
+            } finally {
+                metrics.finish();
+            }
+            return null;
+        });
     }
 
-    // Modify the endpoint to accept a YAML input
+    // Infers the spec from captured request/response samples, one per NDJSON line, merging every sample
+    // of an operation into one schema
+    @PostMapping(value = "/generate/infer", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public WebAsyncTask<ResponseEntity<byte[]>> inferSwaggerFromSamples(InputStream inputStream, HttpServletResponse response) {
+        RequestMetrics metrics = startMetrics("generate-infer");
+        return onLargeLane(() -> {
+            try {
+                Map<String, Map<String, Operation>> paths;
+                try {
+                    paths = schemaInferenceService.inferOperations(inputStream, metrics);
+                } catch (JsonProcessingException e) {
+                    return badRequest("Invalid sample data: " + e.getOriginalMessage());
+                } catch (IllegalArgumentException e) {
+                    return badRequest(e.getMessage());
+                }
+                if (paths.isEmpty()) {
+                    return badRequest("Sample data is missing or null.");
+                }
+                response.setContentType(YAML_TEXT.toString());
+                swaggerGeneratorService.writeSwaggerYaml(paths, response.getOutputStream(), metrics);
+            } finally {
+                metrics.finish();
+            }
+            return null;
+        });
+    }
+
+    // Generates the specs of many services at once: the body maps service names to descriptor lists, and one
+    // NDJSON result line is streamed back per service as soon as it is done. The batch writes the response
+    // itself, on the batch service's executor and with its timeout, since a StreamingResponseBody would get
+    // the shared MVC executor and the default async timeout of 30 seconds. It stays off the request lanes:
+    // the batch service bounds its own jobs, and a batch would hold a large-lane worker for its whole upload
+    @PostMapping(value = "/generate/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public WebAsyncTask<Void> generateBatch(InputStream inputStream, HttpServletResponse response) {
+        RequestMetrics metrics = startMetrics("generate-batch");
+        return new WebAsyncTask<>(batchGenerationService.requestTimeout().toMillis(), batchGenerationService.requestExecutor(), () -> {
+            try {
+                response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+                batchGenerationService.generate(inputStream, response.getOutputStream(), metrics);
+            } finally {
+                metrics.finish();
+            }
+            return null;
+        });
+    }
+
+    // Generates from stored operation fragments; the ETag of the response is what PATCH applies changes to
+    @PostMapping("/generate/incremental")
+    public CompletableFuture<ResponseEntity<byte[]>> generateIncremental(@RequestBody List<SwaggerSchemaRequest> swaggerSchemaRequests) {
+        if (swaggerSchemaRequests == null || swaggerSchemaRequests.isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .contentType(YAML_TEXT)
+                    .body("Request data is missing or null.".getBytes(StandardCharsets.UTF_8)));
+        }
+        RequestMetrics metrics = startMetrics("generate-incremental");
+        return requestLanes.submit(requestLane(), () -> {
+            try {
+                return yamlResponse(incrementalSpecService.generate(swaggerSchemaRequests, metrics));
+            } finally {
+                metrics.finish();
+            }
+        });
+    }
+
+    // Applies only the changed operations to the spec named in If-Match and returns the full new spec
+    @PatchMapping("/generate/incremental")
+    public CompletableFuture<ResponseEntity<byte[]>> patchIncremental(@RequestBody List<SwaggerSchemaRequest> changes,
+                                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED)
+                    .contentType(YAML_TEXT)
+                    .body("If-Match must name the spec to patch.".getBytes(StandardCharsets.UTF_8)));
+        }
+        if (changes == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .contentType(YAML_TEXT)
+                    .body("Request data is missing or null.".getBytes(StandardCharsets.UTF_8)));
+        }
+        RequestMetrics metrics = startMetrics("patch-incremental");
+        return requestLanes.submit(requestLane(), () -> {
+            Optional<GeneratedSpec> spec;
+            try {
+                spec = incrementalSpecService.patch(unquoteETag(ifMatch), changes, metrics);
+            } finally {
+                metrics.finish();
+            }
+            if (spec.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                        .contentType(YAML_TEXT)
+                        .body("Unknown or expired spec; generate it again in full.".getBytes(StandardCharsets.UTF_8));
+            }
+            return yamlResponse(spec.get());
+        });
+    }
+
+    // Checks a YAML document through the compliance index, so content that has been checked before is
+    // answered from its stored index instead of being parsed again
     @PostMapping("/generate-with-compliance")
-    public ResponseEntity<SwaggerSchemaResponse> generateSwaggerWithCompliance(@RequestBody String swaggerYamlContent) {
+    public CompletableFuture<ResponseEntity<SwaggerSchemaResponse>> generateSwaggerWithCompliance(@RequestBody String swaggerYamlContent,
+                                                                                                  @RequestParam(defaultValue = "true") boolean echo) {
         if (swaggerYamlContent == null || swaggerYamlContent.isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null));
+        }
+
+        // Run all compliance rules in a single pass over the document, unless the same content has been indexed before
+        RequestMetrics metrics = startMetrics("compliance");
+        return requestLanes.submit(requestLane(), () -> {
+            List<ComplianceIssue> complianceIssues;
+            try {
+                complianceIssues = metrics.time(RequestMetrics.Stage.COMPLIANCE,
+                        () -> complianceIndexService.check(swaggerYamlContent).index().issues(ComplianceFilter.ALL));
+            } finally {
+                metrics.finish();
+            }
+
+            // Return the Swagger content along with compliance issues
+            return ResponseEntity.ok(complianceResponse(echo ? swaggerYamlContent : null, complianceIssues));
+        });
+    }
+
+    // Checks a document once and keeps its compliance index under the content hash returned as its id,
+    // for the filtered views below. Indexing the same content again only hashes it
+    @PostMapping("/compliance/index")
+    public CompletableFuture<ResponseEntity<ComplianceIndexResponse>> indexCompliance(@RequestBody String swaggerYamlContent) {
+        if (swaggerYamlContent == null || swaggerYamlContent.isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null));
+        }
+        RequestMetrics metrics = startMetrics("compliance-index");
+        return requestLanes.submit(requestLane(), () -> {
+            IndexedSpec indexed;
+            try {
+                indexed = metrics.time(RequestMetrics.Stage.COMPLIANCE, () -> complianceIndexService.index(swaggerYamlContent));
+            } finally {
+                metrics.finish();
+            }
+            return ResponseEntity.ok(new ComplianceIndexResponse(indexed.id(),
+                    indexed.index().operations().size(), indexed.index().issues().size()));
+        });
+    }
+
+    // The issues of an indexed document, optionally only those of a tag, a rule or paths under a prefix
+    @GetMapping("/compliance/index/{id}/issues")
+    public ResponseEntity<List<ComplianceIssue>> indexedIssues(@PathVariable String id,
+                                                               @RequestParam(required = false) String tag,
+                                                               @RequestParam(required = false) String rule,
+                                                               @RequestParam(required = false) String pathPrefix) {
+        ComplianceFilter filter = new ComplianceFilter(tag, rule, pathPrefix);
+        return complianceIndexService.find(id)
+                .map(index -> ResponseEntity.ok(index.issues(filter)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // The operations of an indexed document with their tags, security, parameters and response codes
+    @GetMapping("/compliance/index/{id}/operations")
+    public ResponseEntity<List<ComplianceIndex.IndexedOperation>> indexedOperations(@PathVariable String id,
+                                                                                    @RequestParam(required = false) String tag,
+                                                                                    @RequestParam(required = false) String rule,
+                                                                                    @RequestParam(required = false) String pathPrefix) {
+        ComplianceFilter filter = new ComplianceFilter(tag, rule, pathPrefix);
+        return complianceIndexService.find(id)
+                .map(index -> ResponseEntity.ok(index.operations(filter)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // Streaming variant of /generate-with-compliance for large documents: the YAML is checked as it is
+    // read, issues carry line/column locations, and the content is only echoed back when asked for
+    @PostMapping("/generate-with-compliance/stream")
+    public ResponseEntity<SwaggerSchemaResponse> checkComplianceStream(InputStream inputStream,
+                                                                       @RequestParam(defaultValue = "false") boolean echo) throws IOException {
+        PushbackInputStream body = new PushbackInputStream(inputStream);
+        int firstByte = body.read();
+        if (firstByte == -1) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null);
         }
+        body.unread(firstByte);
 
-        // Call the utility method to check compliance
-        List<String> complianceIssues = Utility.checkCompliance(swaggerYamlContent);
+        RequestMetrics metrics = startMetrics("compliance-stream");
+        try {
+            if (echo) {
+                byte[] swaggerYamlContent = metrics.time(RequestMetrics.Stage.BIND, () -> readAllBytes(body));
+                List<ComplianceIssue> complianceIssues = metrics.time(RequestMetrics.Stage.COMPLIANCE,
+                        () -> complianceService.checkCompliance(new ByteArrayInputStream(swaggerYamlContent)));
+                return ResponseEntity.ok(complianceResponse(new String(swaggerYamlContent, StandardCharsets.UTF_8), complianceIssues));
+            }
+            // Reading and scanning are interleaved, so the whole scan counts as the compliance stage
+            return ResponseEntity.ok(complianceResponse(null,
+                    metrics.time(RequestMetrics.Stage.COMPLIANCE, () -> complianceService.checkCompliance(body))));
+        } finally {
+            metrics.finish();
+        }
+    }
 
-        // Return the Swagger content along with compliance issues
-        SwaggerSchemaResponse response = new SwaggerSchemaResponse(
-                swaggerYamlContent,
-                complianceIssues.isEmpty() ? null : complianceIssues
-        );
-        return ResponseEntity.ok(response);
-    }
-
-    private String generateSwaggerYaml(List<SwaggerSchemaRequest> swaggerSchemaRequests) {
-        Map<String, Object> swaggerRoot = new LinkedHashMap<>();
-        swaggerRoot.put("openapi", "3.0.0");
-        swaggerRoot.put("info", Map.of(
-                "title", "Dynamic API",
-                "version", "1.0.0",
-                "description", "Dynamically generated API documentation"
-        ));
-
-        Map<String, Object> paths = new LinkedHashMap<>();
-        for (SwaggerSchemaRequest schemaRequest : swaggerSchemaRequests) {
-            String endpoint = schemaRequest.getEndpoint();
-            String httpMethod = schemaRequest.getHttpMethod().toLowerCase();
-            paths.putIfAbsent(endpoint, new LinkedHashMap<>());
-
-            Map<String, Object> methodMap = new LinkedHashMap<>();
-            methodMap.put("summary", Optional.ofNullable(schemaRequest.getDescription()).orElse("Generated endpoint description"));
-            methodMap.put("operationId", schemaRequest.getOperationId());
-
-            if (!httpMethod.equals("get") && !httpMethod.equals("delete")) {
-                methodMap.put("requestBody", Map.of(
-                        "required", true,
-                        "content", Map.of(
-                                "application/json", Map.of(
-                                        "schema", Utility.parseSchema(schemaRequest.getRequestSchema())
-                                )
-                        )
-                ));
-            }
-
-            methodMap.put("responses", Map.of(
-                    "200", Map.of(
-                            "description", "Successful response",
-                            "content", Map.of(
-                                    "application/json", Map.of(
-                                            "schema", Utility.parseResponseSchema(schemaRequest.getResponseSchema())
-                                    )
-                            )
-                    )
-            ));
-
-            if (schemaRequest.getParameters() != null) {
-                List<Map<String, Object>> parameters = schemaRequest.getParameters().stream()
-                        .filter(param -> !"Authorization".equals(param.get("name")))
-                        .collect(Collectors.toList());
-                if (!parameters.isEmpty()) {
-                    methodMap.put("parameters", parameters);
+    // Compares a new version of a spec with the previous one and lists what changed, flagging breaking changes
+    @PostMapping("/diff")
+    public CompletableFuture<ResponseEntity<SpecDiffResponse>> diffSpecs(@RequestBody SpecDiffRequest specDiffRequest) {
+        if (specDiffRequest == null || specDiffRequest.getPrevious() == null || specDiffRequest.getCurrent() == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new SpecDiffResponse(false, null, "Both the previous and the current spec are required.")));
+        }
+        RequestMetrics metrics = startMetrics("diff");
+        return requestLanes.submit(requestLane(), () -> {
+            List<SpecChange> changes;
+            try {
+                changes = specDiffService.diff(specDiffRequest.getPrevious(), specDiffRequest.getCurrent());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new SpecDiffResponse(false, null, e.getMessage()));
+            } finally {
+                metrics.finish();
+            }
+            return ResponseEntity.ok(new SpecDiffResponse(changes.stream().anyMatch(SpecChange::breaking), changes, null));
+        });
+    }
+
+    // A lane with a full queue turns requests away instead of letting them wait for longer than clients would
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<byte[]> laneFull() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .contentType(YAML_TEXT)
+                .body("Too many requests in progress; try again shortly.".getBytes(StandardCharsets.UTF_8));
+    }
+
+    // An example schema over the swagger.generation.max-schema-* limits fails its request, naming where it went over.
+    // Streamed responses that are already under way are cut off instead
+    @ExceptionHandler(SchemaLimitExceededException.class)
+    public ResponseEntity<byte[]> schemaTooLarge(SchemaLimitExceededException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .contentType(YAML_TEXT)
+                .body(e.getMessage().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // The acceptable format with the highest quality, first listed on a tie. Wildcards, YAML types and
+    // anything unsupported get YAML, as before other formats could be asked for
+    private static OutputFormat negotiateFormat(String accept) {
+        if (accept == null || accept.isBlank()) return OutputFormat.YAML;
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return OutputFormat.YAML;
+        }
+        OutputFormat best = OutputFormat.YAML;
+        double bestQuality = 0;
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.isWildcardType() || mediaType.isWildcardSubtype() || mediaType.getQualityValue() <= bestQuality) continue;
+            for (OutputFormat format : OutputFormat.values()) {
+                if (format != OutputFormat.YAML && mediaType.equalsTypeAndSubtype(MediaType.parseMediaType(format.getMediaType()))) {
+                    best = format;
+                    bestQuality = mediaType.getQualityValue();
                 }
             }
+            if (mediaType.getSubtype().contains("yaml") || mediaType.equalsTypeAndSubtype(MediaType.TEXT_PLAIN)) {
+                best = OutputFormat.YAML;
+                bestQuality = mediaType.getQualityValue();
+            }
+        }
+        return best;
+    }
 
-            methodMap.put("security", List.of(Map.of("bearerAuth", List.of())));
+    private static MediaType contentType(OutputFormat format) {
+        return format == OutputFormat.YAML ? YAML_TEXT : MediaType.parseMediaType(format.getMediaType());
+    }
 
-            if (schemaRequest.getTags() != null) {
-                methodMap.put("tags", schemaRequest.getTags());
+    // If-None-Match holds a comma-separated list of entity tags, compared weakly
+    private static boolean eTagMatches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
             }
+            if (candidate.equals("*") || candidate.equals(eTag)) return true;
+        }
+        return false;
+    }
 
-            ((Map<String, Object>) paths.get(endpoint)).put(httpMethod, methodMap);
+    // If-Match names a single spec here; weak tags are accepted since the content is deterministic
+    private static String unquoteETag(String eTag) {
+        String candidate = eTag.trim();
+        if (candidate.startsWith("W/")) {
+            candidate = candidate.substring(2);
+        }
+        if (candidate.length() >= 2 && candidate.startsWith("\"") && candidate.endsWith("\"")) {
+            candidate = candidate.substring(1, candidate.length() - 1);
         }
+        return candidate;
+    }
 
-        swaggerRoot.put("paths", paths);
-        swaggerRoot.put("components", Map.of(
-                "securitySchemes", Map.of(
-                        "bearerAuth", Map.of(
-                                "type", "http",
-                                "scheme", "bearer",
-                                "bearerFormat", "JWT"
-                        )
-                )
-        ));
-        swaggerRoot.put("security", List.of(Map.of("bearerAuth", List.of())));
+    private static ResponseEntity<byte[]> yamlResponse(GeneratedSpec spec) {
+        return ResponseEntity.ok()
+                .contentType(YAML_TEXT)
+                .eTag("\"" + spec.eTag() + "\"")
+                .body(spec.content());
+    }
+
+    // Requests are put on a lane by the size of their body, which has been bound by now
+    private RequestLanes.Lane requestLane() {
+        long contentLength = -1;
+        if (RequestContextHolder.currentRequestAttributes() instanceof ServletRequestAttributes servletAttributes) {
+            contentLength = servletAttributes.getRequest().getContentLengthLong();
+        }
+        return requestLanes.laneFor(contentLength);
+    }
+
+    // Picks up the bind time measured by RequestBindingTimer and the size of the request body
+    private RequestMetrics startMetrics(String endpoint) {
+        RequestAttributes attributes = RequestContextHolder.currentRequestAttributes();
+        RequestMetrics metrics = swaggerMetrics.start(endpoint,
+                (Long) attributes.getAttribute(RequestBindingTimer.BIND_NANOS, RequestAttributes.SCOPE_REQUEST));
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            long contentLength = servletAttributes.getRequest().getContentLengthLong();
+            if (contentLength >= 0) {
+                metrics.inputBytes(contentLength);
+            }
+        }
+        return metrics;
+    }
+
+    private static byte[] readAllBytes(InputStream inputStream) {
+        try {
+            return inputStream.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static SwaggerSchemaResponse complianceResponse(String swaggerYamlContent, List<ComplianceIssue> complianceIssues) {
+        return new SwaggerSchemaResponse(
+                swaggerYamlContent,
+                complianceIssues.isEmpty() ? null : complianceIssues.stream().map(ComplianceIssue::message).collect(Collectors.toList()),
+                complianceIssues.isEmpty() ? null : complianceIssues
+        );
+    }
+
+    // Streamed responses run on the large lane, since their size is not known up front. The task writes the
+    // response itself and returns null, or returns an error before it has written anything
+    private WebAsyncTask<ResponseEntity<byte[]>> onLargeLane(Callable<ResponseEntity<byte[]>> task) {
+        return new WebAsyncTask<>(null, requestLanes.executor(RequestLanes.Lane.LARGE), task);
+    }
 
-        DumperOptions dumperOptions = new DumperOptions();
-        dumperOptions.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
-        LoaderOptions loaderOptions = new LoaderOptions();
-        Yaml yaml = new Yaml(dumperOptions);
-        return yaml.dump(swaggerRoot);
+    private static ResponseEntity<byte[]> badRequest(String message) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .contentType(YAML_TEXT)
+                .body(message.getBytes(StandardCharsets.UTF_8));
     }
 }
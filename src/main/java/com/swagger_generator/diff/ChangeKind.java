@@ -0,0 +1,35 @@
+package com.swagger_generator.diff;
+
+/**
+ * What a {@link SpecChange} changed. Whether a change breaks clients depends on where it was
+ * made, e.g. a narrowed type breaks a request body but not a response, so that is reported on the
+ * change itself.
+ */
+public enum ChangeKind {
+    PATH_ADDED,
+    PATH_REMOVED,
+    OPERATION_ADDED,
+    OPERATION_REMOVED,
+    REQUEST_BODY_ADDED,
+    REQUEST_BODY_REMOVED,
+    REQUEST_BODY_REQUIRED,
+    MEDIA_TYPE_ADDED,
+    MEDIA_TYPE_REMOVED,
+    RESPONSE_ADDED,
+    RESPONSE_REMOVED,
+    PARAMETER_ADDED,
+    PARAMETER_REMOVED,
+    PARAMETER_REQUIRED,
+    PARAMETER_OPTIONAL,
+    PROPERTY_ADDED,
+    PROPERTY_REMOVED,
+    PROPERTY_REQUIRED,
+    PROPERTY_OPTIONAL,
+    TYPE_CHANGED,
+    TYPE_NARROWED,
+    TYPE_WIDENED,
+    ENUM_NARROWED,
+    ENUM_WIDENED,
+    NULLABLE_ADDED,
+    NULLABLE_REMOVED
+}
@@ -0,0 +1,14 @@
+package com.swagger_generator.diff;
+
+/**
+ * A single difference between two versions of a spec, found by {@link SpecDiffEngine}.
+ *
+ * @param kind     what changed
+ * @param breaking whether clients written against the previous version may fail against the current one
+ * @param pointer  JSON pointer (RFC 6901) to the changed node, in the current version if it is
+ *                 there and in the previous one otherwise, e.g. {@code /paths/~1users/get}. Nodes
+ *                 reached through a {@code $ref} are located where they are used.
+ * @param message  a human-readable description
+ */
+public record SpecChange(ChangeKind kind, boolean breaking, String pointer, String message) {
+}
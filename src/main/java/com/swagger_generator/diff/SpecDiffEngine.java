@@ -0,0 +1,347 @@
+package com.swagger_generator.diff;
+
+import com.swagger_generator.compliance.ComplianceEngine;
+
+import java.util.*;
+
+/**
+ * Compares two versions of a parsed Swagger document and reports what changed, flagging the
+ * changes that break existing clients.
+ *
+ * <p>Both documents are indexed by path and method, and every node compared is reduced to a
+ * {@link SpecIndex structural hash} first. Operations, bodies and schemas whose hashes differ are
+ * walked to find what changed; those whose hashes match are confirmed equal and skipped, so changes
+ * are only looked for where there are some.
+ *
+ * <p>Schemas are compared with the direction data flows in mind. Narrowing a type (e.g. to
+ * {@code integer} from {@code number}, or to any type from none), dropping enum values or
+ * requiring a property breaks request bodies and parameters; widening a type, adding enum values
+ * or dropping a property breaks responses. Removed paths, operations, responses and media types,
+ * and newly required request bodies and parameters, always break clients.
+ *
+ * <p>The engine holds no per-document state, so one instance can be shared between threads.
+ * Nodes of an unexpected shape are skipped rather than failing the whole diff.
+ */
+public class SpecDiffEngine {
+
+    private enum Direction {REQUEST, RESPONSE}
+
+    /**
+     * The changes from {@code previous} to {@code current}, in document order of {@code previous}
+     * followed by what was added in {@code current}.
+     */
+    public List<SpecChange> diff(Map<String, Object> previous, Map<String, Object> current) {
+        return new Comparison(new SpecIndex(previous), new SpecIndex(current)).run();
+    }
+
+    private static final class Comparison {
+
+        private final SpecIndex previous;
+        private final SpecIndex current;
+        private final List<SpecChange> changes = new ArrayList<>();
+        // Schema pairs on the current path, which stops recursive schemas from being walked forever
+        private final Set<NodePair> comparing = new HashSet<>();
+
+        Comparison(SpecIndex previous, SpecIndex current) {
+            this.previous = previous;
+            this.current = current;
+        }
+
+        List<SpecChange> run() {
+            Map<String, Map<String, Map<String, Object>>> currentPaths = current.operations();
+            previous.operations().forEach((path, previousMethods) -> {
+                String pathPointer = "/paths/" + ComplianceEngine.escape(path);
+                Map<String, Map<String, Object>> currentMethods = currentPaths.get(path);
+                if (currentMethods == null) {
+                    report(ChangeKind.PATH_REMOVED, true, pathPointer, "Path " + path + " was removed");
+                    return;
+                }
+                previousMethods.forEach((method, previousOperation) -> {
+                    String label = method.toUpperCase(Locale.ROOT) + " " + path;
+                    String operationPointer = pathPointer + "/" + method;
+                    Map<String, Object> currentOperation = currentMethods.get(method);
+                    if (currentOperation == null) {
+                        report(ChangeKind.OPERATION_REMOVED, true, operationPointer, label + " was removed");
+                    } else if (!previous.sameAs(previousOperation, current, currentOperation)) {
+                        compareOperation(previousOperation, currentOperation, operationPointer, label);
+                    }
+                });
+                currentMethods.keySet().stream().filter(method -> !previousMethods.containsKey(method)).forEach(method ->
+                        report(ChangeKind.OPERATION_ADDED, false, pathPointer + "/" + method,
+                                method.toUpperCase(Locale.ROOT) + " " + path + " was added"));
+            });
+            currentPaths.keySet().stream().filter(path -> !previous.operations().containsKey(path)).forEach(path ->
+                    report(ChangeKind.PATH_ADDED, false, "/paths/" + ComplianceEngine.escape(path), "Path " + path + " was added"));
+            return changes;
+        }
+
+        private void compareOperation(Map<String, Object> previousOperation, Map<String, Object> currentOperation,
+                                      String pointer, String label) {
+            compareRequestBody(previousOperation.get("requestBody"), currentOperation.get("requestBody"), pointer + "/requestBody", label);
+            compareParameters(previousOperation.get("parameters"), currentOperation.get("parameters"), pointer + "/parameters", label);
+            compareResponses(previousOperation.get("responses"), currentOperation.get("responses"), pointer + "/responses", label);
+        }
+
+        private void compareRequestBody(Object previousNode, Object currentNode, String pointer, String label) {
+            if (previous.sameAs(previousNode, current, currentNode)) return;
+            Map<?, ?> previousBody = previous.resolve(previousNode) instanceof Map<?, ?> map ? map : null;
+            Map<?, ?> currentBody = current.resolve(currentNode) instanceof Map<?, ?> map ? map : null;
+            String where = "The request body of " + label;
+            if (previousBody == null && currentBody == null) return;
+            if (previousBody == null) {
+                if (isTrue(currentBody.get("required"))) {
+                    report(ChangeKind.REQUEST_BODY_REQUIRED, true, pointer, label + " now requires a request body");
+                } else {
+                    report(ChangeKind.REQUEST_BODY_ADDED, false, pointer, label + " now accepts a request body");
+                }
+                return;
+            }
+            if (currentBody == null) {
+                report(ChangeKind.REQUEST_BODY_REMOVED, false, pointer, label + " no longer takes a request body");
+                return;
+            }
+            if (!isTrue(previousBody.get("required")) && isTrue(currentBody.get("required"))) {
+                report(ChangeKind.REQUEST_BODY_REQUIRED, true, pointer + "/required", where + " is now required");
+            }
+            compareContent(previousBody.get("content"), currentBody.get("content"), pointer + "/content", where, Direction.REQUEST);
+        }
+
+        private void compareParameters(Object previousNode, Object currentNode, String pointer, String label) {
+            if (previous.sameAs(previousNode, current, currentNode)) return;
+            Map<String, Parameter> previousParameters = parametersByKey(previous, previousNode);
+            Map<String, Parameter> currentParameters = parametersByKey(current, currentNode);
+
+            previousParameters.forEach((key, previousEntry) -> {
+                Parameter currentEntry = currentParameters.get(key);
+                String where = "Parameter " + key + " of " + label;
+                if (currentEntry == null) {
+                    report(ChangeKind.PARAMETER_REMOVED, false, pointer + "/" + previousEntry.index(), where + " was removed");
+                    return;
+                }
+                Map<?, ?> previousParameter = previousEntry.node();
+                Map<?, ?> currentParameter = currentEntry.node();
+                String parameterPointer = pointer + "/" + currentEntry.index();
+                boolean wasRequired = isTrue(previousParameter.get("required"));
+                boolean isRequired = isTrue(currentParameter.get("required"));
+                if (!wasRequired && isRequired) {
+                    report(ChangeKind.PARAMETER_REQUIRED, true, parameterPointer + "/required", where + " is now required");
+                } else if (wasRequired && !isRequired) {
+                    report(ChangeKind.PARAMETER_OPTIONAL, false, parameterPointer + "/required", where + " is now optional");
+                }
+                // Swagger 2 parameters carry their type inline, OpenAPI 3 ones under schema
+                Object previousSchema = previousParameter.containsKey("schema") ? previousParameter.get("schema") : previousParameter;
+                Object currentSchema = currentParameter.containsKey("schema") ? currentParameter.get("schema") : currentParameter;
+                compareSchema(previousSchema, currentSchema,
+                        currentParameter.containsKey("schema") ? parameterPointer + "/schema" : parameterPointer, where, Direction.REQUEST);
+            });
+            currentParameters.forEach((key, currentEntry) -> {
+                if (previousParameters.containsKey(key)) return;
+                boolean required = isTrue(currentEntry.node().get("required"));
+                report(ChangeKind.PARAMETER_ADDED, required, pointer + "/" + currentEntry.index(),
+                        (required ? "Required parameter " : "Optional parameter ") + key + " was added to " + label);
+            });
+        }
+
+        private void compareResponses(Object previousNode, Object currentNode, String pointer, String label) {
+            if (previous.sameAs(previousNode, current, currentNode)) return;
+            Map<?, ?> previousResponses = previous.resolve(previousNode) instanceof Map<?, ?> map ? map : Map.of();
+            Map<?, ?> currentResponses = current.resolve(currentNode) instanceof Map<?, ?> map ? map : Map.of();
+            for (Map.Entry<?, ?> entry : previousResponses.entrySet()) {
+                String status = String.valueOf(entry.getKey());
+                String responsePointer = pointer + "/" + ComplianceEngine.escape(status);
+                Object currentResponse = currentResponses.get(entry.getKey());
+                if (currentResponse == null) {
+                    report(ChangeKind.RESPONSE_REMOVED, true, responsePointer, "Response " + status + " of " + label + " was removed");
+                    continue;
+                }
+                if (previous.sameAs(entry.getValue(), current, currentResponse)) continue;
+                if (previous.resolve(entry.getValue()) instanceof Map<?, ?> previousResponse
+                        && current.resolve(currentResponse) instanceof Map<?, ?> response) {
+                    compareContent(previousResponse.get("content"), response.get("content"), responsePointer + "/content",
+                            "Response " + status + " of " + label, Direction.RESPONSE);
+                }
+            }
+            for (Object status : currentResponses.keySet()) {
+                if (!previousResponses.containsKey(status)) {
+                    report(ChangeKind.RESPONSE_ADDED, false, pointer + "/" + ComplianceEngine.escape(String.valueOf(status)),
+                            "Response " + status + " was added to " + label);
+                }
+            }
+        }
+
+        private void compareContent(Object previousNode, Object currentNode, String pointer, String where, Direction direction) {
+            if (previous.sameAs(previousNode, current, currentNode)) return;
+            Map<?, ?> previousContent = previous.resolve(previousNode) instanceof Map<?, ?> map ? map : Map.of();
+            Map<?, ?> currentContent = current.resolve(currentNode) instanceof Map<?, ?> map ? map : Map.of();
+            for (Map.Entry<?, ?> entry : previousContent.entrySet()) {
+                String mediaType = String.valueOf(entry.getKey());
+                String mediaTypePointer = pointer + "/" + ComplianceEngine.escape(mediaType);
+                Object currentMediaType = currentContent.get(entry.getKey());
+                if (currentMediaType == null) {
+                    report(ChangeKind.MEDIA_TYPE_REMOVED, true, mediaTypePointer, where + " is no longer available as " + mediaType);
+                } else if (previous.resolve(entry.getValue()) instanceof Map<?, ?> previousMedia
+                        && current.resolve(currentMediaType) instanceof Map<?, ?> currentMedia) {
+                    compareSchema(previousMedia.get("schema"), currentMedia.get("schema"), mediaTypePointer + "/schema", where, direction);
+                }
+            }
+            for (Object mediaType : currentContent.keySet()) {
+                if (!previousContent.containsKey(mediaType)) {
+                    report(ChangeKind.MEDIA_TYPE_ADDED, false, pointer + "/" + ComplianceEngine.escape(String.valueOf(mediaType)),
+                            where + " is now also available as " + mediaType);
+                }
+            }
+        }
+
+        private void compareSchema(Object previousNode, Object currentNode, String pointer, String where, Direction direction) {
+            if (previous.sameAs(previousNode, current, currentNode)) return;
+            if (!(previous.resolve(previousNode) instanceof Map<?, ?> previousSchema)
+                    || !(current.resolve(currentNode) instanceof Map<?, ?> currentSchema)) {
+                return;
+            }
+            NodePair pair = new NodePair(previousSchema, currentSchema);
+            if (!comparing.add(pair)) return;
+            try {
+                if (!compareType(previousSchema, currentSchema, pointer, where, direction)) return;
+                compareEnum(previousSchema, currentSchema, pointer, where, direction);
+                compareNullable(previousSchema, currentSchema, pointer, where, direction);
+                compareProperties(previousSchema, currentSchema, pointer, where, direction);
+                if (previousSchema.containsKey("items") || currentSchema.containsKey("items")) {
+                    compareSchema(previousSchema.get("items"), currentSchema.get("items"), pointer + "/items", where + "[]", direction);
+                }
+            } finally {
+                comparing.remove(pair);
+            }
+        }
+
+        // Returns whether the schemas are still comparable, i.e. the type did not change altogether
+        private boolean compareType(Map<?, ?> previousSchema, Map<?, ?> currentSchema, String pointer, String where, Direction direction) {
+            String previousType = typeOf(previousSchema);
+            String currentType = typeOf(currentSchema);
+            if (Objects.equals(previousType, currentType)) return true;
+            String description = where + " changed type from " + describeType(previousType) + " to " + describeType(currentType);
+            if (accepts(previousType, currentType)) {
+                report(ChangeKind.TYPE_NARROWED, direction == Direction.REQUEST, pointer + "/type", description);
+                return true;
+            }
+            if (accepts(currentType, previousType)) {
+                report(ChangeKind.TYPE_WIDENED, direction == Direction.RESPONSE, pointer, description);
+                return true;
+            }
+            report(ChangeKind.TYPE_CHANGED, true, pointer + "/type", description);
+            return false;
+        }
+
+        private void compareEnum(Map<?, ?> previousSchema, Map<?, ?> currentSchema, String pointer, String where, Direction direction) {
+            List<?> previousValues = previousSchema.get("enum") instanceof List<?> list ? list : null;
+            List<?> currentValues = currentSchema.get("enum") instanceof List<?> list ? list : null;
+            if (previousValues == null && currentValues == null) return;
+            // No enum allows every value
+            boolean narrowed = currentValues != null && (previousValues == null || !currentValues.containsAll(previousValues));
+            boolean widened = previousValues != null && (currentValues == null || !previousValues.containsAll(currentValues));
+            if (narrowed) {
+                report(ChangeKind.ENUM_NARROWED, direction == Direction.REQUEST, pointer + "/enum", where + " allows fewer values");
+            }
+            if (widened) {
+                report(ChangeKind.ENUM_WIDENED, direction == Direction.RESPONSE, pointer + (currentValues != null ? "/enum" : ""),
+                        where + " allows more values");
+            }
+        }
+
+        private void compareNullable(Map<?, ?> previousSchema, Map<?, ?> currentSchema, String pointer, String where, Direction direction) {
+            boolean wasNullable = isTrue(previousSchema.get("nullable"));
+            boolean isNullable = isTrue(currentSchema.get("nullable"));
+            if (!wasNullable && isNullable) {
+                report(ChangeKind.NULLABLE_ADDED, direction == Direction.RESPONSE, pointer + "/nullable", where + " may now be null");
+            } else if (wasNullable && !isNullable) {
+                report(ChangeKind.NULLABLE_REMOVED, direction == Direction.REQUEST, pointer, where + " may no longer be null");
+            }
+        }
+
+        private void compareProperties(Map<?, ?> previousSchema, Map<?, ?> currentSchema, String pointer, String where, Direction direction) {
+            Map<?, ?> previousProperties = previousSchema.get("properties") instanceof Map<?, ?> map ? map : Map.of();
+            Map<?, ?> currentProperties = currentSchema.get("properties") instanceof Map<?, ?> map ? map : Map.of();
+            Set<?> previousRequired = previousSchema.get("required") instanceof List<?> list ? new HashSet<>(list) : Set.of();
+            Set<?> currentRequired = currentSchema.get("required") instanceof List<?> list ? new HashSet<>(list) : Set.of();
+            String propertiesPointer = pointer + "/properties/";
+
+            for (Map.Entry<?, ?> entry : previousProperties.entrySet()) {
+                Object name = entry.getKey();
+                String propertyPointer = propertiesPointer + ComplianceEngine.escape(String.valueOf(name));
+                String property = where + " property " + name;
+                if (!currentProperties.containsKey(name)) {
+                    report(ChangeKind.PROPERTY_REMOVED, direction == Direction.RESPONSE, propertyPointer, property + " was removed");
+                    continue;
+                }
+                boolean wasRequired = previousRequired.contains(name);
+                boolean isRequired = currentRequired.contains(name);
+                if (!wasRequired && isRequired) {
+                    report(ChangeKind.PROPERTY_REQUIRED, direction == Direction.REQUEST, pointer + "/required", property + " is now required");
+                } else if (wasRequired && !isRequired) {
+                    report(ChangeKind.PROPERTY_OPTIONAL, direction == Direction.RESPONSE, pointer, property + " is now optional");
+                }
+                compareSchema(entry.getValue(), currentProperties.get(name), propertyPointer, property, direction);
+            }
+            for (Object name : currentProperties.keySet()) {
+                if (previousProperties.containsKey(name)) continue;
+                boolean required = currentRequired.contains(name);
+                report(ChangeKind.PROPERTY_ADDED, required && direction == Direction.REQUEST,
+                        propertiesPointer + ComplianceEngine.escape(String.valueOf(name)),
+                        where + (required ? " has a new required property " : " has a new property ") + name);
+            }
+        }
+
+        // Parameters are identified by name and location, e.g. "id (path)"
+        private Map<String, Parameter> parametersByKey(SpecIndex index, Object node) {
+            Map<String, Parameter> parameters = new LinkedHashMap<>();
+            if (index.resolve(node) instanceof List<?> list) {
+                for (int i = 0; i < list.size(); i++) {
+                    if (index.resolve(list.get(i)) instanceof Map<?, ?> parameter && parameter.get("name") != null) {
+                        parameters.put(parameter.get("name") + " (" + parameter.get("in") + ")", new Parameter(i, parameter));
+                    }
+                }
+            }
+            return parameters;
+        }
+
+        private void report(ChangeKind kind, boolean breaking, String pointer, String message) {
+            changes.add(new SpecChange(kind, breaking, pointer, message));
+        }
+    }
+
+    // Whether every value of type b is also a value of type a; a missing type allows anything
+    private static boolean accepts(String a, String b) {
+        return a == null || ("number".equals(a) && "integer".equals(b));
+    }
+
+    private static String typeOf(Map<?, ?> schema) {
+        if (schema.get("type") instanceof String type) return type;
+        // Schemas written without a type but with properties or items are still objects and arrays
+        if (schema.containsKey("properties")) return "object";
+        if (schema.containsKey("items")) return "array";
+        return null;
+    }
+
+    private static String describeType(String type) {
+        return type != null ? type : "any";
+    }
+
+    private static boolean isTrue(Object value) {
+        return Boolean.TRUE.equals(value) || "true".equals(value);
+    }
+
+    private record Parameter(int index, Map<?, ?> node) {
+    }
+
+    private record NodePair(Object previous, Object current) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof NodePair pair && pair.previous == previous && pair.current == current;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(previous) * 31 + System.identityHashCode(current);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.swagger_generator.diff;
+
+import com.swagger_generator.compliance.ComplianceEngine;
+
+import java.util.*;
+
+/**
+ * One side of a diff: the operations of a parsed document by path and method, and the structural
+ * hash of any node in it.
+ *
+ * <p>The hash of a mapping does not depend on the order of its keys, and a {@code $ref} hashes as
+ * the node it points to, so two subtrees laid out differently but describing the same thing hash
+ * alike. Different subtrees can share a hash too ({@code "Aa"} and {@code "BB"} do), so only a
+ * different hash settles a comparison; {@link #sameAs} confirms equal ones by walking both nodes.
+ * Hashes are computed when a node is compared; those of reference targets are kept, so a
+ * component used in many places is only walked once. A reference cycle hashes by the name of the
+ * reference that closes it.
+ */
+final class SpecIndex {
+
+    private static final long NULL_HASH = 0x9E3779B97F4A7C15L;
+    private static final long MAP_SEED = 0xC2B2AE3D27D4EB4FL;
+    private static final long LIST_SEED = 0x165667B19E3779F9L;
+    private static final int MAX_REF_HOPS = 32;
+
+    private final Map<String, Object> root;
+    private final Map<String, Map<String, Map<String, Object>>> operations = new LinkedHashMap<>();
+    private final Map<Object, Long> hashes = new IdentityHashMap<>();
+    private final Set<Object> hashing = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    SpecIndex(Map<String, Object> root) {
+        this.root = root;
+        if (!(root.get("paths") instanceof Map<?, ?> paths)) return;
+        for (Map.Entry<?, ?> pathEntry : paths.entrySet()) {
+            if (!(resolve(pathEntry.getValue()) instanceof Map<?, ?> pathItem)) continue;
+            Map<String, Map<String, Object>> methods = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> methodEntry : pathItem.entrySet()) {
+                String method = String.valueOf(methodEntry.getKey());
+                if (ComplianceEngine.isHttpMethod(method) && methodEntry.getValue() instanceof Map<?, ?> operation) {
+                    methods.put(method.toLowerCase(Locale.ROOT), asMap(operation));
+                }
+            }
+            operations.put(String.valueOf(pathEntry.getKey()), methods);
+        }
+    }
+
+    /**
+     * The operations of every path item, by lower-case HTTP method, in document order.
+     */
+    Map<String, Map<String, Map<String, Object>>> operations() {
+        return operations;
+    }
+
+    /**
+     * The node {@code node} refers to if it is a local {@code $ref}, or {@code node} itself.
+     * References that cannot be resolved are returned as they are.
+     */
+    Object resolve(Object node) {
+        for (int hop = 0; hop < MAX_REF_HOPS; hop++) {
+            Object target = target(node);
+            if (target == null) return node;
+            node = target;
+        }
+        return node;
+    }
+
+    /**
+     * The structural hash of {@code node}.
+     */
+    long hash(Object node) {
+        if (node == null) return NULL_HASH;
+        if (!(node instanceof Map<?, ?>) && !(node instanceof List<?>)) {
+            return mix(node.getClass().hashCode() * 31L + node.hashCode());
+        }
+        Object target = target(node);
+        if (target != null) {
+            Long known = hashes.get(target);
+            if (known != null) return known;
+            if (!hashing.add(target)) {
+                return mix(String.valueOf(((Map<?, ?>) node).get("$ref")).hashCode());
+            }
+            long hash = hash(target);
+            hashing.remove(target);
+            hashes.put(target, hash);
+            return hash;
+        }
+
+        long hash;
+        if (node instanceof Map<?, ?> map) {
+            hash = MAP_SEED + map.size();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                hash += mix(Objects.hashCode(entry.getKey()) * 0x9E3779B97F4A7C15L + hash(entry.getValue()));
+            }
+        } else {
+            hash = LIST_SEED;
+            for (Object element : (List<?>) node) {
+                hash = hash * 31 + hash(element);
+            }
+            hash = mix(hash);
+        }
+        return hash;
+    }
+
+    /**
+     * Whether {@code node} describes the same thing as {@code otherNode} of {@code other}: equal once
+     * references are resolved, with mappings compared regardless of the order of their keys.
+     */
+    boolean sameAs(Object node, SpecIndex other, Object otherNode) {
+        return hash(node) == other.hash(otherNode) && equal(node, other, otherNode, new HashSet<>());
+    }
+
+    // Mapping pairs already compared, or being compared further up, count as equal: a difference found
+    // anywhere fails the whole comparison, and it also stops reference cycles from being walked forever
+    private boolean equal(Object node, SpecIndex other, Object otherNode, Set<NodePair> compared) {
+        node = resolve(node);
+        otherNode = other.resolve(otherNode);
+        if (node instanceof Map<?, ?> map) {
+            if (!(otherNode instanceof Map<?, ?> otherMap) || map.size() != otherMap.size()) return false;
+            if (!compared.add(new NodePair(map, otherMap))) return true;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!otherMap.containsKey(entry.getKey())
+                        || !equal(entry.getValue(), other, otherMap.get(entry.getKey()), compared)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (node instanceof List<?> list) {
+            if (!(otherNode instanceof List<?> otherList) || list.size() != otherList.size()) return false;
+            for (int i = 0; i < list.size(); i++) {
+                if (!equal(list.get(i), other, otherList.get(i), compared)) return false;
+            }
+            return true;
+        }
+        return Objects.equals(node, otherNode);
+    }
+
+    // The node a {"$ref": "#/..."} mapping points to, or null if node is not one or it does not resolve
+    private Object target(Object node) {
+        if (!(node instanceof Map<?, ?> map) || !(map.get("$ref") instanceof String ref) || !ref.startsWith("#/")) {
+            return null;
+        }
+        Object current = root;
+        for (String token : ref.substring(2).split("/", -1)) {
+            if (!(current instanceof Map<?, ?> container)) return null;
+            current = container.get(token.replace("~1", "/").replace("~0", "~"));
+        }
+        return current;
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> asMap(Map<?, ?> map) {
+        return (Map<String, Object>) map;
+    }
+
+    private record NodePair(Object node, Object otherNode) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof NodePair pair && pair.node == node && pair.otherNode == otherNode;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(node) * 31 + System.identityHashCode(otherNode);
+        }
+    }
+
+    // Finalizer of MurmurHash3, spreading every input bit over the whole hash
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB93FE1A85EC3L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
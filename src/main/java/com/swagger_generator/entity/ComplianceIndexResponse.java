@@ -0,0 +1,24 @@
+package com.swagger_generator.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ComplianceIndexResponse {
+
+    /**
+     * The content hash of the document, used to query its index.
+     */
+    private String id;
+
+    /**
+     * Number of operations in the document.
+     */
+    private int operations;
+
+    /**
+     * Number of compliance issues found in the document.
+     */
+    private int issues;
+}
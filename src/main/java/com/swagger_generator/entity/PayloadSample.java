@@ -0,0 +1,34 @@
+package com.swagger_generator.entity;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+
+/**
+ * One captured exchange of an API endpoint, used to infer its schemas.
+ *
+ * <p>Unlike the example schemas of a {@link SwaggerSchemaRequest}, the bodies are real payloads:
+ * a value of {@code "number"} is a string, and every element of an array is taken into account.
+ */
+@Data
+public class PayloadSample {
+
+    /**
+     * The endpoint path, e.g. "/api/v1/resource".
+     */
+    private String endpoint;
+
+    /**
+     * The HTTP method, e.g. "GET" or "POST".
+     */
+    private String httpMethod;
+
+    /**
+     * The request body as sent, if captured.
+     */
+    private JsonNode request;
+
+    /**
+     * The response body as received, if captured.
+     */
+    private JsonNode response;
+}
@@ -0,0 +1,20 @@
+package com.swagger_generator.entity;
+
+import lombok.Data;
+
+/**
+ * Two versions of a Swagger document to compare, as YAML or JSON.
+ */
+@Data
+public class SpecDiffRequest {
+
+    /**
+     * The version clients were written against.
+     */
+    private String previous;
+
+    /**
+     * The version that replaces it, e.g. the output of {@code /generate} for the latest descriptors.
+     */
+    private String current;
+}
@@ -0,0 +1,26 @@
+package com.swagger_generator.entity;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.swagger_generator.diff.SpecChange;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SpecDiffResponse {
+
+    /**
+     * Whether any of the {@link #changes} breaks existing clients.
+     */
+    private boolean breaking;
+
+    private List<SpecChange> changes;
+
+    /**
+     * Why the documents could not be compared; only set on {@code 400} responses.
+     */
+    private String error;
+}
@@ -1,5 +1,6 @@
 package com.swagger_generator.entity;
 
+import com.swagger_generator.compliance.ComplianceIssue;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.Getter;
@@ -15,4 +16,9 @@ public class SwaggerSchemaResponse {
 
     private String yamlContent;
     private List<String> complianceIssues;
+
+    /**
+     * The same issues as {@link #complianceIssues}, with the rule, severity and JSON pointer of each.
+     */
+    private List<ComplianceIssue> complianceDetails;
 }
@@ -0,0 +1,63 @@
+package com.swagger_generator.inference;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.swagger_generator.model.Operation;
+import com.swagger_generator.util.SwaggerDocumentBuilder;
+
+/**
+ * The statistics of the request and response bodies captured for one operation.
+ */
+public final class EndpointStats {
+
+    private final String httpMethod;
+    private final FieldStats request;
+    private final FieldStats response;
+    private long samples;
+
+    /**
+     * @param httpMethod the lower-case HTTP method of the operation
+     */
+    EndpointStats(String httpMethod, InferenceSettings settings) {
+        this.httpMethod = httpMethod;
+        this.request = new FieldStats(settings);
+        this.response = new FieldStats(settings);
+    }
+
+    /**
+     * Folds in one captured exchange; a missing body is not counted for that side.
+     */
+    public void add(JsonNode requestBody, JsonNode responseBody) {
+        samples++;
+        if (requestBody != null && !requestBody.isMissingNode()) {
+            request.add(requestBody);
+        }
+        if (responseBody != null && !responseBody.isMissingNode()) {
+            response.add(responseBody);
+        }
+    }
+
+    public long samples() {
+        return samples;
+    }
+
+    public FieldStats request() {
+        return request;
+    }
+
+    public FieldStats response() {
+        return response;
+    }
+
+    /**
+     * The operation the samples describe, with the same layout as a generated one.
+     */
+    public Operation toOperation() {
+        return new Operation(
+                "Inferred from " + samples + (samples == 1 ? " sample" : " samples"),
+                null,
+                SwaggerDocumentBuilder.hasRequestBody(httpMethod) ? request.toSchema() : null,
+                response.toSchema(),
+                null,
+                null);
+    }
+}
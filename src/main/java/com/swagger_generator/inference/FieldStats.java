@@ -0,0 +1,153 @@
+package com.swagger_generator.inference;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.swagger_generator.model.*;
+
+import java.util.*;
+
+/**
+ * What has been seen of one value across many samples: how often it held each JSON type or
+ * {@code null}, the statistics of its properties and array elements, and its distinct string
+ * values while there are few of them.
+ *
+ * <p>Samples are folded in one at a time and only these counts are kept, so the size of the
+ * statistics depends on the number of distinct fields, not on the number of samples. Instances
+ * are not thread-safe; {@link SchemaInferrer} gives every endpoint to a single thread.
+ */
+public final class FieldStats {
+
+    private final InferenceSettings settings;
+
+    private long present;
+    private long nulls;
+    private long strings;
+    private long integers;
+    private long decimals;
+    private long booleans;
+    private long objects;
+    private long arrays;
+    private Map<String, FieldStats> properties;
+    private FieldStats items;
+    // Distinct string values, dropped once there are more than maxEnumValues
+    private Set<String> stringValues = new HashSet<>();
+
+    FieldStats(InferenceSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Folds in one occurrence of the value. Every element of an array is folded into the
+     * statistics of its items.
+     */
+    public void add(JsonNode value) {
+        present++;
+        if (value == null || value.isNull() || value.isMissingNode()) {
+            nulls++;
+        } else if (value.isObject()) {
+            objects++;
+            if (properties == null) {
+                properties = new HashMap<>();
+            }
+            Iterator<Map.Entry<String, JsonNode>> fields = value.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                properties.computeIfAbsent(field.getKey(), name -> new FieldStats(settings)).add(field.getValue());
+            }
+        } else if (value.isArray()) {
+            arrays++;
+            if (items == null) {
+                items = new FieldStats(settings);
+            }
+            for (JsonNode element : value) {
+                items.add(element);
+            }
+        } else if (value.isIntegralNumber()) {
+            integers++;
+        } else if (value.isNumber()) {
+            decimals++;
+        } else if (value.isBoolean()) {
+            booleans++;
+        } else {
+            strings++;
+            if (stringValues != null && stringValues.add(value.asText()) && stringValues.size() > settings.maxEnumValues()) {
+                stringValues = null;
+            }
+        }
+    }
+
+    /**
+     * Number of samples the value was present in, {@code null} included.
+     */
+    public long present() {
+        return present;
+    }
+
+    /**
+     * Number of samples in which the value was {@code null}.
+     */
+    public long nulls() {
+        return nulls;
+    }
+
+    /**
+     * The schema that describes every value seen:
+     * <ul>
+     *     <li>each JSON type seen becomes an alternative of a {@link UnionSchema}, unless there is only one;
+     *     numbers are {@code integer} if none had a fraction</li>
+     *     <li>objects require the properties present in all of them</li>
+     *     <li>strings with at most {@code maxEnumValues} distinct values over at least
+     *     {@code minEnumSamples} samples become an {@link EnumSchema}</li>
+     *     <li>values that were ever {@code null} are {@link NullableSchema nullable}</li>
+     * </ul>
+     * A value that was never seen, or only as {@code null}, has the empty schema.
+     */
+    public Schema toSchema() {
+        List<Schema> alternatives = new ArrayList<>(4);
+        if (objects > 0) {
+            alternatives.add(objectSchema());
+        }
+        if (arrays > 0) {
+            alternatives.add(ArraySchema.of(items != null ? items.toSchema() : LeafSchema.EMPTY));
+        }
+        if (strings > 0) {
+            alternatives.add(stringSchema());
+        }
+        if (integers + decimals > 0) {
+            alternatives.add(decimals > 0 ? LeafSchema.NUMBER : LeafSchema.INTEGER);
+        }
+        if (booleans > 0) {
+            alternatives.add(LeafSchema.BOOLEAN);
+        }
+
+        Schema schema = switch (alternatives.size()) {
+            case 0 -> LeafSchema.EMPTY;
+            case 1 -> alternatives.get(0);
+            default -> new UnionSchema(alternatives);
+        };
+        return nulls > 0 ? new NullableSchema(schema) : schema;
+    }
+
+    private Schema objectSchema() {
+        if (properties == null || properties.isEmpty()) return ObjectSchema.NO_PROPERTIES;
+        String[] names = new String[properties.size()];
+        Schema[] schemas = new Schema[names.length];
+        List<String> required = new ArrayList<>();
+        int i = 0;
+        // Samples have no one field order between them, so inferred properties are listed by name
+        for (Map.Entry<String, FieldStats> property : new TreeMap<>(properties).entrySet()) {
+            names[i] = property.getKey();
+            schemas[i++] = property.getValue().toSchema();
+            if (property.getValue().present == objects) {
+                required.add(property.getKey());
+            }
+        }
+        return ObjectSchema.of(names, schemas).withRequired(required);
+    }
+
+    private Schema stringSchema() {
+        if (stringValues == null || strings < settings.minEnumSamples()) return LeafSchema.STRING;
+        List<String> values = new ArrayList<>(stringValues);
+        Collections.sort(values);
+        return new EnumSchema(LeafSchema.STRING, values);
+    }
+}
@@ -0,0 +1,10 @@
+package com.swagger_generator.inference;
+
+/**
+ * How {@link FieldStats} turn into schemas.
+ *
+ * @param maxEnumValues  most distinct values a string field may have to be inferred as an enum
+ * @param minEnumSamples fewest samples of a string field before it may be inferred as an enum
+ */
+public record InferenceSettings(int maxEnumValues, int minEnumSamples) {
+}
@@ -0,0 +1,126 @@
+package com.swagger_generator.inference;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.swagger_generator.model.Operation;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Folds a stream of captured request/response samples for many operations into one
+ * {@link EndpointStats} per operation, folding different operations in parallel.
+ *
+ * <p>Operations are spread over a fixed number of shards by path and method. The caller's thread
+ * only sorts samples into per-shard batches; a full batch is folded on the executor, after the
+ * previous batch of the same shard, so the statistics of a shard are only ever touched by one
+ * thread at a time and need no locking. At most two batches per shard are pending at once;
+ * beyond that {@link #add} waits, so memory stays bounded however long the input is.
+ *
+ * <p>Instances infer a single corpus: samples are added from one thread, then {@link #finish()}
+ * is called once.
+ */
+public final class SchemaInferrer {
+
+    private final InferenceSettings settings;
+    private final Executor executor;
+    private final int batchSize;
+    private final Shard[] shards;
+    private final Semaphore pendingBatches;
+    // Paths and methods in order of their first sample, so that the document follows the input
+    private final Map<String, Set<String>> firstSeen = new LinkedHashMap<>();
+
+    /**
+     * @param executor  folds batches; a direct executor folds on the calling thread
+     * @param shards    number of shards, i.e. the most operations folded at the same time
+     * @param batchSize samples per operation shard handed to the executor at a time
+     */
+    public SchemaInferrer(InferenceSettings settings, Executor executor, int shards, int batchSize) {
+        this.settings = settings;
+        this.executor = executor;
+        this.batchSize = Math.max(1, batchSize);
+        this.shards = new Shard[Math.max(1, shards)];
+        Arrays.setAll(this.shards, i -> new Shard());
+        this.pendingBatches = new Semaphore(2 * this.shards.length);
+    }
+
+    /**
+     * Adds one sample of {@code httpMethod endpoint}. Either body may be {@code null} if the
+     * sample did not capture it.
+     *
+     * @throws InterruptedException if interrupted while waiting for pending batches to be folded
+     */
+    public void add(String endpoint, String httpMethod, JsonNode requestBody, JsonNode responseBody) throws InterruptedException {
+        String method = httpMethod.toLowerCase(Locale.ROOT);
+        firstSeen.computeIfAbsent(endpoint, path -> new LinkedHashSet<>()).add(method);
+
+        Shard shard = shards[Math.floorMod(Objects.hash(endpoint, method), shards.length)];
+        shard.batch.add(new Sample(endpoint, method, requestBody, responseBody));
+        if (shard.batch.size() >= batchSize) {
+            submit(shard);
+        }
+    }
+
+    /**
+     * Folds the remaining samples and returns the inferred operations by path and lower-case
+     * method, in the order they first appeared.
+     */
+    public Map<String, Map<String, Operation>> finish() throws InterruptedException {
+        for (Shard shard : shards) {
+            if (!shard.batch.isEmpty()) {
+                submit(shard);
+            }
+        }
+        try {
+            CompletableFuture.allOf(Arrays.stream(shards).map(shard -> shard.tail).toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+        }
+
+        Map<String, Map<String, Operation>> paths = new LinkedHashMap<>();
+        firstSeen.forEach((endpoint, methods) -> {
+            Map<String, Operation> operations = new LinkedHashMap<>();
+            for (String method : methods) {
+                Shard shard = shards[Math.floorMod(Objects.hash(endpoint, method), shards.length)];
+                operations.put(method, shard.stats.get(key(endpoint, method)).toOperation());
+            }
+            paths.put(endpoint, operations);
+        });
+        return paths;
+    }
+
+    private void submit(Shard shard) throws InterruptedException {
+        pendingBatches.acquire();
+        List<Sample> batch = shard.batch;
+        shard.batch = new ArrayList<>(batchSize);
+        shard.tail = shard.tail.handleAsync((ignored, failure) -> {
+            try {
+                // Once a batch failed, the shard is not folded any further
+                if (failure != null) throw new CompletionException(failure);
+                for (Sample sample : batch) {
+                    shard.stats.computeIfAbsent(key(sample.endpoint(), sample.method()), key -> new EndpointStats(sample.method(), settings))
+                            .add(sample.requestBody(), sample.responseBody());
+                }
+                return null;
+            } finally {
+                pendingBatches.release();
+            }
+        }, executor);
+    }
+
+    private static String key(String endpoint, String method) {
+        return method + " " + endpoint;
+    }
+
+    private record Sample(String endpoint, String method, JsonNode requestBody, JsonNode responseBody) {
+    }
+
+    private final class Shard {
+
+        private final Map<String, EndpointStats> stats = new HashMap<>();
+        private List<Sample> batch = new ArrayList<>(batchSize);
+        private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+    }
+}
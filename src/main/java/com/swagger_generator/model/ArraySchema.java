@@ -0,0 +1,36 @@
+package com.swagger_generator.model;
+
+import com.swagger_generator.util.EntryWriter;
+
+import java.io.IOException;
+
+/**
+ * {@code {type: array, items: ...}}
+ */
+public record ArraySchema(Schema items) implements Schema {
+
+    private static final ArraySchema OF_EMPTY = new ArraySchema(LeafSchema.EMPTY);
+    private static final ArraySchema OF_STRING = new ArraySchema(LeafSchema.STRING);
+    private static final ArraySchema OF_NUMBER = new ArraySchema(LeafSchema.NUMBER);
+
+    /**
+     * An array of {@code items}, shared for leaf items.
+     */
+    public static ArraySchema of(Schema items) {
+        if (items == LeafSchema.EMPTY) return OF_EMPTY;
+        if (items == LeafSchema.STRING) return OF_STRING;
+        if (items == LeafSchema.NUMBER) return OF_NUMBER;
+        return new ArraySchema(items);
+    }
+
+    @Override
+    public int depth() {
+        return items.depth();
+    }
+
+    @Override
+    public void writeEntries(EntryWriter writer) throws IOException {
+        writer.writeEntry("type", "array");
+        writer.writeEntry("items", items);
+    }
+}
@@ -0,0 +1,29 @@
+package com.swagger_generator.model;
+
+import com.swagger_generator.util.EntryWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code {type: string, enum: [...]}}: a leaf type restricted to a known set of values.
+ */
+public record EnumSchema(LeafSchema type, List<String> values) implements Schema {
+
+    public EnumSchema {
+        values = List.copyOf(values);
+    }
+
+    @Override
+    public int depth() {
+        return 0;
+    }
+
+    @Override
+    public void writeEntries(EntryWriter writer) throws IOException {
+        type.writeEntries(writer);
+        // A new list every time, so YAML never writes the same one twice as an alias
+        writer.writeEntry("enum", new ArrayList<>(values));
+    }
+}
@@ -0,0 +1,55 @@
+package com.swagger_generator.model;
+
+import com.swagger_generator.util.EntryWriter;
+
+import java.io.IOException;
+
+/**
+ * The schemas without any nested schema: a primitive type, or the empty schema written for a
+ * missing body or an empty example array. There is one instance of each.
+ */
+public final class LeafSchema implements Schema {
+
+    /**
+     * {@code {}}
+     */
+    public static final LeafSchema EMPTY = new LeafSchema(null);
+
+    public static final LeafSchema STRING = new LeafSchema("string");
+
+    public static final LeafSchema NUMBER = new LeafSchema("number");
+
+    public static final LeafSchema INTEGER = new LeafSchema("integer");
+
+    public static final LeafSchema BOOLEAN = new LeafSchema("boolean");
+
+    private final String type;
+
+    private LeafSchema(String type) {
+        this.type = type;
+    }
+
+    /**
+     * The type name, or {@code null} for {@link #EMPTY}.
+     */
+    public String type() {
+        return type;
+    }
+
+    @Override
+    public int depth() {
+        return 0;
+    }
+
+    @Override
+    public void writeEntries(EntryWriter writer) throws IOException {
+        if (type != null) {
+            writer.writeEntry("type", type);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return type == null ? "{}" : type;
+    }
+}
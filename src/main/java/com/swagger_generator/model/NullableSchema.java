@@ -0,0 +1,22 @@
+package com.swagger_generator.model;
+
+import com.swagger_generator.util.EntryWriter;
+
+import java.io.IOException;
+
+/**
+ * {@code schema} with {@code nullable: true}, for values that are sometimes {@code null}.
+ */
+public record NullableSchema(Schema schema) implements Schema {
+
+    @Override
+    public int depth() {
+        return schema.depth();
+    }
+
+    @Override
+    public void writeEntries(EntryWriter writer) throws IOException {
+        schema.writeEntries(writer);
+        writer.writeEntry("nullable", true);
+    }
+}
@@ -0,0 +1,197 @@
+package com.swagger_generator.model;
+
+import com.swagger_generator.util.EntryWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * {@code {type: object, properties: {...}, required: [...]}}, with the properties held in two
+ * parallel arrays in the order they were declared.
+ *
+ * <p>Properties are written in that order, as the example listed them. A separate index of the
+ * properties sorted by name lets two objects with the same properties compare equal however they
+ * were written. Schemas converted from a single example have no required properties; inferred ones
+ * mark those every sample had.
+ */
+public final class ObjectSchema implements Schema {
+
+    /**
+     * An object without properties, as converted from {@code {}} or a non-object array item.
+     */
+    public static final ObjectSchema NO_PROPERTIES = new ObjectSchema(new String[0], new Schema[0], new int[0], new String[0]);
+
+    // Arrays this small are sorted by insertion rather than through a boxed comparator
+    private static final int INSERTION_SORT_LIMIT = 16;
+
+    private final String[] names;
+    private final Schema[] schemas;
+    // Positions of the properties in order of their names
+    private final int[] byName;
+    // Sorted names of the required properties, usually none
+    private final String[] required;
+    private final int hashCode;
+    // Taken from the properties on construction, so that asking never walks the schema
+    private final int depth;
+
+    private ObjectSchema(String[] names, Schema[] schemas, int[] byName, String[] required) {
+        this.names = names;
+        this.schemas = schemas;
+        this.byName = byName;
+        this.required = required;
+        int hash = 1;
+        int deepest = 0;
+        for (int i : byName) {
+            hash = 31 * (31 * hash + names[i].hashCode()) + schemas[i].hashCode();
+        }
+        for (Schema schema : schemas) {
+            deepest = Math.max(deepest, schema.depth());
+        }
+        this.hashCode = 31 * hash + Arrays.hashCode(required);
+        this.depth = deepest + 1;
+    }
+
+    /**
+     * An object with the property {@code names[i]} of schema {@code schemas[i]} for every
+     * {@code i}, in that order. Takes ownership of both arrays.
+     */
+    public static ObjectSchema of(String[] names, Schema[] schemas) {
+        if (names.length != schemas.length) {
+            throw new IllegalArgumentException("Got " + names.length + " property names for " + schemas.length + " schemas");
+        }
+        if (names.length == 0) return NO_PROPERTIES;
+        return new ObjectSchema(names, schemas, sortByName(names), NO_PROPERTIES.required);
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public String name(int index) {
+        return names[index];
+    }
+
+    public Schema schema(int index) {
+        return schemas[index];
+    }
+
+    /**
+     * Whether the property at {@code index} is listed as required.
+     */
+    public boolean isRequired(int index) {
+        return Arrays.binarySearch(required, names[index]) >= 0;
+    }
+
+    /**
+     * The same properties, of which those named in {@code required} are required. Names of
+     * properties the object does not have are ignored.
+     */
+    public ObjectSchema withRequired(Collection<String> required) {
+        String[] requiredNames = required.stream()
+                .filter(name -> indexOf(name) >= 0)
+                .distinct()
+                .sorted()
+                .toArray(String[]::new);
+        return Arrays.equals(requiredNames, this.required) ? this : new ObjectSchema(names, schemas, byName, requiredNames);
+    }
+
+    /**
+     * The same properties with {@code schemas} in place of their schemas, in the same order.
+     */
+    public ObjectSchema withSchemas(Schema[] schemas) {
+        if (schemas.length != names.length) {
+            throw new IllegalArgumentException("Got " + schemas.length + " schemas for " + names.length + " properties");
+        }
+        return names.length == 0 ? this : new ObjectSchema(names, schemas, byName, required);
+    }
+
+    @Override
+    public int depth() {
+        return depth;
+    }
+
+    @Override
+    public void writeEntries(EntryWriter writer) throws IOException {
+        writer.writeEntry("type", "object");
+        writer.startMapping("properties");
+        for (int i = 0; i < names.length; i++) {
+            writer.writeEntry(names[i], schemas[i]);
+        }
+        writer.endMapping();
+        if (required.length > 0) {
+            // A new list every time, so YAML never writes the same one twice as an alias
+            writer.writeEntry("required", new ArrayList<>(Arrays.asList(required)));
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (other == this) return true;
+        if (!(other instanceof ObjectSchema object) || hashCode != object.hashCode || names.length != object.names.length
+                || !Arrays.equals(required, object.required)) {
+            return false;
+        }
+        for (int k = 0; k < byName.length; k++) {
+            int i = byName[k];
+            int j = object.byName[k];
+            if (!names[i].equals(object.names[j]) || !schemas[i].equals(object.schemas[j])) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder string = new StringBuilder("{");
+        for (int i = 0; i < names.length; i++) {
+            string.append(i == 0 ? "" : ", ").append(names[i]).append(isRequired(i) ? "*: " : ": ").append(schemas[i]);
+        }
+        return string.append('}').toString();
+    }
+
+    // Position of the property called name, or a negative number if there is none
+    private int indexOf(String name) {
+        int low = 0;
+        int high = byName.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = names[byName[middle]].compareTo(name);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return byName[middle];
+            }
+        }
+        return -1;
+    }
+
+    private static int[] sortByName(String[] names) {
+        int[] order = new int[names.length];
+        if (names.length <= INSERTION_SORT_LIMIT) {
+            for (int i = 0; i < names.length; i++) {
+                int j = i - 1;
+                for (; j >= 0 && names[order[j]].compareTo(names[i]) > 0; j--) {
+                    order[j + 1] = order[j];
+                }
+                order[j + 1] = i;
+            }
+            return order;
+        }
+        Integer[] boxed = new Integer[names.length];
+        Arrays.setAll(boxed, i -> i);
+        Arrays.sort(boxed, Comparator.comparing(i -> names[i]));
+        for (int i = 0; i < boxed.length; i++) {
+            order[i] = boxed[i];
+        }
+        return order;
+    }
+}
@@ -0,0 +1,75 @@
+package com.swagger_generator.model;
+
+import com.swagger_generator.util.EntryWriter;
+import com.swagger_generator.util.MappingValue;
+import com.swagger_generator.util.SwaggerDocumentBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A generated operation, written as
+ *
+ * <pre>
+ * summary: ...
+ * operationId: ...
+ * requestBody: {required: true, content: {application/json: {schema: ...}}}
+ * responses: {'200': {description: ..., content: {application/json: {schema: ...}}}}
+ * parameters: [...]
+ * security: [{bearerAuth: []}]
+ * tags: [...]
+ * </pre>
+ *
+ * <p>The parts that are the same for every operation are not held, only written.
+ *
+ * @param requestSchema the request body schema, or {@code null} if the method has no body
+ * @param parameters    the parameters as given in the request, or {@code null} to leave them out
+ * @param tags          or {@code null} to leave them out
+ */
+public record Operation(String summary, String operationId, Schema requestSchema, Schema responseSchema,
+                        List<Map<String, Object>> parameters, List<String> tags) implements MappingValue {
+
+    /**
+     * This operation with its body schemas replaced.
+     */
+    public Operation withSchemas(Schema requestSchema, Schema responseSchema) {
+        return new Operation(summary, operationId, requestSchema, responseSchema, parameters, tags);
+    }
+
+    @Override
+    public void writeEntries(EntryWriter writer) throws IOException {
+        writer.writeEntry("summary", summary);
+        writer.writeEntry("operationId", operationId);
+
+        if (requestSchema != null) {
+            writer.startMapping("requestBody");
+            writer.writeEntry("required", true);
+            writeContent(writer, requestSchema);
+            writer.endMapping();
+        }
+
+        writer.startMapping("responses");
+        writer.startMapping("200");
+        writer.writeEntry("description", "Successful response");
+        writeContent(writer, responseSchema);
+        writer.endMapping();
+        writer.endMapping();
+
+        if (parameters != null) {
+            writer.writeEntry("parameters", parameters);
+        }
+        writer.writeEntry("security", SwaggerDocumentBuilder.buildSecurity());
+        if (tags != null) {
+            writer.writeEntry("tags", tags);
+        }
+    }
+
+    private static void writeContent(EntryWriter writer, Schema schema) throws IOException {
+        writer.startMapping("content");
+        writer.startMapping("application/json");
+        writer.writeEntry("schema", schema);
+        writer.endMapping();
+        writer.endMapping();
+    }
+}
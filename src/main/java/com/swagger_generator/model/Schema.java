@@ -0,0 +1,20 @@
+package com.swagger_generator.model;
+
+import com.swagger_generator.util.MappingValue;
+
+/**
+ * A schema of the generated document, as converted from the example bodies of a request or
+ * inferred from captured payloads.
+ *
+ * <p>Schemas are immutable and compare by value, so they can be cached and shared between
+ * operations. Leaf schemas are interned, see {@link LeafSchema}.
+ */
+public sealed interface Schema extends MappingValue
+        permits LeafSchema, ArraySchema, ObjectSchema, SchemaRef, EnumSchema, NullableSchema, UnionSchema {
+
+    /**
+     * Nesting depth as the example converter counts it against {@code SchemaLimits}: every object
+     * is a level, while arrays and the other wrappers add none. Leaves and references are 0.
+     */
+    int depth();
+}
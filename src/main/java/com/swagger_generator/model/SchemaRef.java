@@ -0,0 +1,23 @@
+package com.swagger_generator.model;
+
+import com.swagger_generator.util.EntryWriter;
+
+import java.io.IOException;
+
+/**
+ * {@code {$ref: '#/components/schemas/<name>'}}, a reference to a schema under {@code components}.
+ */
+public record SchemaRef(String name) implements Schema {
+
+    private static final String COMPONENTS_PREFIX = "#/components/schemas/";
+
+    @Override
+    public int depth() {
+        return 0;
+    }
+
+    @Override
+    public void writeEntries(EntryWriter writer) throws IOException {
+        writer.writeEntry("$ref", COMPONENTS_PREFIX + name);
+    }
+}
@@ -0,0 +1,33 @@
+package com.swagger_generator.model;
+
+import com.swagger_generator.util.EntryWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@code {oneOf: [...]}}: a value of one of several schemas, e.g. a field that holds a string in
+ * some payloads and an object in others.
+ */
+public record UnionSchema(List<Schema> alternatives) implements Schema {
+
+    public UnionSchema {
+        alternatives = List.copyOf(alternatives);
+    }
+
+    @Override
+    public int depth() {
+        int deepest = 0;
+        for (Schema alternative : alternatives) {
+            deepest = Math.max(deepest, alternative.depth());
+        }
+        return deepest;
+    }
+
+    @Override
+    public void writeEntries(EntryWriter writer) throws IOException {
+        // A new list every time, so YAML never writes the same one twice as an alias
+        writer.writeEntry("oneOf", new ArrayList<>(alternatives));
+    }
+}
@@ -0,0 +1,311 @@
+package com.swagger_generator.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.swagger_generator.config.BatchProperties;
+import com.swagger_generator.entity.SwaggerSchemaRequest;
+import com.swagger_generator.util.ContentHash;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates the specs of many services from a single request.
+ *
+ * <p>The input is a JSON object mapping service names to their descriptor lists, the same lists
+ * {@code /generate} takes. It is read one service at a time, and each service is handed to a fixed
+ * pool of batch threads as soon as it has been bound. Results are written as NDJSON
+ * {@link BatchResult} lines in the order the services finish, while later services are still being
+ * read.
+ *
+ * <p>Admission is bounded as described in {@link BatchProperties}: while no slot is free, the input
+ * is not read any further. Every service is generated with budgets for its number of descriptors,
+ * its output size and its run time; a service that exceeds one fails on its own without affecting
+ * the rest of the batch.
+ *
+ * <p>The requests themselves run on {@link #requestExecutor()}, one thread each, rather than on the
+ * executor shared by all async MVC requests, and with {@link BatchProperties#asyncTimeout()} as
+ * their timeout.
+ */
+@Service
+public class BatchGenerationService implements DisposableBean {
+
+    // How often a request waiting for a slot checks for finished services to write
+    private static final long ADMISSION_POLL_MILLIS = 50;
+
+    private final JsonFactory jsonFactory;
+    private final ObjectReader requestReader;
+    private final ObjectWriter resultWriter;
+    private final SwaggerGeneratorService swaggerGeneratorService;
+    private final ThreadPoolExecutor executor;
+    private final SimpleAsyncTaskExecutor requestExecutor;
+    private final Duration requestTimeout;
+    private final Semaphore slots;
+    private final long admissionTimeoutNanos;
+    private final int maxOperations;
+    private final long maxOutputBytes;
+    private final long serviceTimeoutNanos;
+
+    public BatchGenerationService(ObjectMapper objectMapper, SwaggerGeneratorService swaggerGeneratorService,
+                                  BatchProperties batchProperties) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.requestReader = objectMapper.readerFor(SwaggerSchemaRequest.class);
+        this.resultWriter = objectMapper.writerFor(BatchResult.class);
+        this.swaggerGeneratorService = swaggerGeneratorService;
+
+        int concurrency = batchProperties.getConcurrency() > 0
+                ? batchProperties.getConcurrency()
+                : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        // The queue never holds more than maxPendingJobs tasks, since every task needs a slot first
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "swagger-batch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // A batch request mostly waits on its client and its jobs, so it gets a thread of its own
+        this.requestExecutor = new SimpleAsyncTaskExecutor("swagger-batch-request-");
+        this.requestExecutor.setDaemon(true);
+        this.requestTimeout = batchProperties.asyncTimeout();
+        this.slots = new Semaphore(Math.max(1, batchProperties.getMaxPendingJobs()), true);
+        this.admissionTimeoutNanos = batchProperties.getAdmissionTimeout().toNanos();
+        this.maxOperations = batchProperties.getMaxOperationsPerService();
+        this.maxOutputBytes = batchProperties.getMaxOutputBytesPerService();
+        this.serviceTimeoutNanos = batchProperties.getServiceTimeout().toNanos();
+    }
+
+    /**
+     * Reads the services from {@code inputStream} and writes a result line for each to
+     * {@code outputStream}, flushing after every line. Returns once all services have been written.
+     * A malformed input ends the batch with a {@link BatchResult.Status#FAILED} line without a
+     * service name, after the results of the services read up to that point.
+     */
+    public void generate(InputStream inputStream, OutputStream outputStream, RequestMetrics metrics) throws IOException {
+        new Batch(outputStream, metrics).run(inputStream);
+    }
+
+    /**
+     * The executor to run {@link #generate} on for a web request.
+     */
+    public AsyncTaskExecutor requestExecutor() {
+        return requestExecutor;
+    }
+
+    /**
+     * How long a web request may spend in {@link #generate}.
+     */
+    public Duration requestTimeout() {
+        return requestTimeout;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private BatchResult generateService(String service, List<SwaggerSchemaRequest> requests) {
+        long deadline = System.nanoTime() + serviceTimeoutNanos;
+        ByteArrayOutputStream yaml = new ByteArrayOutputStream();
+        try {
+            swaggerGeneratorService.writeSwaggerYaml(requests, new BudgetedOutputStream(yaml, maxOutputBytes, deadline));
+        } catch (BudgetExceededException e) {
+            return BatchResult.failed(service, e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            return BatchResult.failed(service, "Generation failed: " + e.getMessage());
+        }
+        byte[] bytes = yaml.toByteArray();
+        return BatchResult.ok(service, requests.size(), ContentHash.of(bytes).value(), new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The state of a single batch request. Everything but the jobs runs on the request's thread,
+     * which is also the only one writing to the response.
+     */
+    private final class Batch {
+
+        private final OutputStream outputStream;
+        private final RequestMetrics metrics;
+        private final BlockingQueue<BatchResult> finished = new LinkedBlockingQueue<>();
+        private int pending;
+        private int operations;
+        private long outputBytes;
+
+        Batch(OutputStream outputStream, RequestMetrics metrics) {
+            this.outputStream = outputStream;
+            this.metrics = metrics;
+        }
+
+        void run(InputStream inputStream) throws IOException {
+            try (JsonParser parser = jsonFactory.createParser(inputStream)) {
+                readServices(parser);
+            } catch (JsonProcessingException e) {
+                awaitPending();
+                write(BatchResult.failed(null, "Invalid request data: " + e.getOriginalMessage()));
+            } finally {
+                awaitPending();
+                metrics.operations(operations);
+                metrics.outputBytes(outputBytes);
+            }
+        }
+
+        private void readServices(JsonParser parser) throws IOException {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected an object mapping service names to descriptor lists");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String service = parser.currentName();
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new JsonParseException(parser, "The descriptors of service '" + service + "' are not a list");
+                }
+
+                List<SwaggerSchemaRequest> requests = new ArrayList<>();
+                int count = 0;
+                for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                    if (token == null) {
+                        throw new JsonParseException(parser, "Unexpected end of input in service '" + service + "'");
+                    }
+                    // Past the budget, descriptors are skipped rather than bound
+                    if (++count > maxOperations) {
+                        parser.skipChildren();
+                    } else {
+                        requests.add(requestReader.readValue(parser));
+                    }
+                }
+                operations += Math.min(count, maxOperations);
+
+                if (count > maxOperations) {
+                    write(BatchResult.failed(service, "Service has " + count + " descriptors, more than the limit of " + maxOperations));
+                } else if (requests.isEmpty()) {
+                    write(BatchResult.failed(service, "Request data is missing or null."));
+                } else {
+                    submit(service, requests);
+                }
+                writeFinished();
+            }
+        }
+
+        private void submit(String service, List<SwaggerSchemaRequest> requests) throws IOException {
+            long waitStart = System.nanoTime();
+            try {
+                while (!slots.tryAcquire(ADMISSION_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    writeFinished();
+                    if (System.nanoTime() - waitStart > admissionTimeoutNanos) {
+                        write(BatchResult.rejected(service, "Too many services are being generated; try again later"));
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting to generate " + service);
+            }
+
+            try {
+                executor.execute(() -> {
+                    // Every submitted service must report back, or the request would wait for it forever
+                    BatchResult result = BatchResult.failed(service, "Generation failed");
+                    try {
+                        result = generateService(service, requests);
+                    } finally {
+                        finished.add(result);
+                        slots.release();
+                    }
+                });
+                pending++;
+            } catch (RejectedExecutionException e) {
+                slots.release();
+                write(BatchResult.rejected(service, "The server is shutting down"));
+            }
+        }
+
+        private void writeFinished() throws IOException {
+            BatchResult result;
+            while ((result = finished.poll()) != null) {
+                pending--;
+                write(result);
+            }
+        }
+
+        private void awaitPending() throws IOException {
+            try {
+                while (pending > 0) {
+                    BatchResult result = finished.take();
+                    pending--;
+                    write(result);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for generated services");
+            }
+        }
+
+        // One line per result; the writer would otherwise close the response stream
+        private void write(BatchResult result) throws IOException {
+            byte[] line = resultWriter.writeValueAsBytes(result);
+            outputStream.write(line);
+            outputStream.write('\n');
+            outputStream.flush();
+            outputBytes += line.length + 1;
+        }
+    }
+
+    /**
+     * Fails writes that go beyond a size or past a deadline, so that a service over budget stops
+     * at its next write instead of running to the end.
+     */
+    private static final class BudgetedOutputStream extends FilterOutputStream {
+
+        private final long maxBytes;
+        private final long deadline;
+        private long count;
+
+        BudgetedOutputStream(OutputStream outputStream, long maxBytes, long deadline) {
+            super(outputStream);
+            this.maxBytes = maxBytes;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            checkBudget(1);
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            checkBudget(len);
+            out.write(b, off, len);
+        }
+
+        private void checkBudget(int len) throws BudgetExceededException {
+            count += len;
+            if (count > maxBytes) {
+                throw new BudgetExceededException("Generated YAML exceeds the limit of " + maxBytes + " bytes");
+            }
+            if (System.nanoTime() - deadline > 0) {
+                throw new BudgetExceededException("Generation exceeded its time limit");
+            }
+        }
+    }
+
+    private static final class BudgetExceededException extends IOException {
+
+        BudgetExceededException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.swagger_generator.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * The outcome of generating one service of a batch, written as one line of the NDJSON response.
+ *
+ * @param service    the name the service was submitted under, or {@code null} for an error in the
+ *                   batch itself
+ * @param operations the number of descriptors of the service
+ * @param eTag       the entity tag of {@code yaml}, as returned by {@code /generate}
+ * @param error      why the service was not generated
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchResult(String service, Status status, Integer operations, String eTag, String yaml, String error) {
+
+    public enum Status {
+        OK,
+        /**
+         * The service could not be generated, or exceeded one of its budgets.
+         */
+        FAILED,
+        /**
+         * The node was too busy to accept the service; it can be submitted again later.
+         */
+        REJECTED
+    }
+
+    static BatchResult ok(String service, int operations, String eTag, String yaml) {
+        return new BatchResult(service, Status.OK, operations, eTag, yaml, null);
+    }
+
+    static BatchResult failed(String service, String error) {
+        return new BatchResult(service, Status.FAILED, null, null, null, error);
+    }
+
+    static BatchResult rejected(String service, String error) {
+        return new BatchResult(service, Status.REJECTED, null, null, null, error);
+    }
+}
@@ -0,0 +1,201 @@
+package com.swagger_generator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.swagger_generator.compliance.ComplianceEngine;
+import com.swagger_generator.compliance.ComplianceIndex;
+import com.swagger_generator.compliance.ComplianceIssue;
+import com.swagger_generator.compliance.StandardRules;
+import com.swagger_generator.config.ComplianceProperties;
+import com.swagger_generator.util.ContentHash;
+import com.swagger_generator.util.FragmentStore;
+import com.swagger_generator.util.LruCache;
+import com.swagger_generator.util.YamlPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Service;
+import org.yaml.snakeyaml.error.MarkedYAMLException;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Checks documents once and keeps the result as a {@link ComplianceIndex}, so that repeated audits
+ * of the same document are answered without parsing or checking it again.
+ *
+ * <p>Indexes are keyed by the SHA-256 hash of the document's content. They are written to a
+ * {@link FragmentStore} in Smile, which survives restarts, and loaded from it when first asked
+ * for; recently used ones stay in memory. The store key also covers the configured rules and
+ * {@link StandardRules#VERSION}, so an index is never served for a different rule set than it was
+ * built with.
+ *
+ * <p>Documents that are only {@link #check checked} are kept in memory, and written to the store
+ * only if {@code swagger.compliance.index.persist-checked} is set.
+ */
+@Service
+public class ComplianceIndexService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ComplianceIndexService.class);
+
+    // Bump when the index layout changes, so that old indexes are ignored
+    private static final int FORMAT_VERSION = 1;
+    private static final Pattern ID = Pattern.compile("[0-9a-f]{64}");
+
+    private final ComplianceEngine complianceEngine;
+    private final YamlPool yamlPool;
+    private final FragmentStore store;
+    private final LruCache<String, LoadedIndex> loaded;
+    private final ObjectReader indexReader;
+    private final ObjectWriter indexWriter;
+    private final String keyPrefix;
+    private final boolean persistChecked;
+
+    /**
+     * @param yamlPool loads documents, with the limits of {@link ComplianceProperties}
+     */
+    public ComplianceIndexService(ComplianceEngine complianceEngine, YamlPool yamlPool,
+                                  ComplianceProperties complianceProperties) throws IOException {
+        ComplianceProperties.Index indexProperties = complianceProperties.getIndex();
+        this.complianceEngine = complianceEngine;
+        this.yamlPool = yamlPool;
+        this.store = new FragmentStore(indexProperties.getDirectory(), indexProperties.getSegmentBytes(), indexProperties.getMaxBytes());
+        this.loaded = new LruCache<>(indexProperties.getMaxLoadedBytes(), LoadedIndex::bytes);
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+        this.indexReader = smileMapper.readerFor(ComplianceIndex.class);
+        this.indexWriter = smileMapper.writerFor(ComplianceIndex.class);
+        String rules = complianceEngine.rules().stream()
+                .map(rule -> rule.id() + "=" + rule.severity())
+                .collect(Collectors.joining(","));
+        this.keyPrefix = "index:" + FORMAT_VERSION + ":" + StandardRules.VERSION + ":"
+                + ContentHash.of(rules.getBytes(StandardCharsets.UTF_8)).value() + ":";
+        this.persistChecked = indexProperties.isPersistChecked();
+    }
+
+    /**
+     * Returns the index of the document, building and storing it unless the same content has been
+     * indexed before. A document that cannot be parsed is indexed with a single {@code yaml-parse}
+     * issue, like {@link ComplianceService#checkCompliance(String)} reports it.
+     *
+     * <p>A document over one of the configured loader limits, such as its size or number of aliases,
+     * gets the same issue but is not stored, since raising the limit has to make it indexable.
+     */
+    public IndexedSpec index(String swaggerYamlContent) {
+        return index(swaggerYamlContent, true);
+    }
+
+    /**
+     * Like {@link #index(String)}, for a document that is only checked. Its index is kept in memory,
+     * where it is not found by {@link #find}, and only stored if configured to.
+     */
+    public IndexedSpec check(String swaggerYamlContent) {
+        return index(swaggerYamlContent, persistChecked);
+    }
+
+    private IndexedSpec index(String swaggerYamlContent, boolean persist) {
+        String id = ContentHash.of(swaggerYamlContent.getBytes(StandardCharsets.UTF_8)).value();
+        LoadedIndex cached = loaded.get(id);
+        ComplianceIndex index = cached != null ? cached.index() : read(id);
+        // An index that was only checked is stored once the same content is indexed
+        if (index != null && (cached == null || !cached.checkedOnly() || !persist)) {
+            return new IndexedSpec(id, index);
+        }
+        if (index == null) {
+            try {
+                index = build(swaggerYamlContent);
+            } catch (YAMLException e) {
+                return new IndexedSpec(id, ComplianceIndex.unparsable(ComplianceIssue.parseError(e.getMessage(), null)));
+            }
+        }
+        byte[] bytes;
+        try {
+            bytes = indexWriter.writeValueAsBytes(index);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (persist) {
+            try {
+                store.put(keyPrefix + id, bytes);
+            } catch (IOException e) {
+                // The index is still served from memory; only its persistence is lost
+                log.warn("Could not store the compliance index {}", id, e);
+            }
+        }
+        loaded.put(id, new LoadedIndex(index, bytes.length, !persist));
+        return new IndexedSpec(id, index);
+    }
+
+    /**
+     * The index with the id returned by {@link #index(String)}, or nothing if it is unknown or has
+     * been evicted from the store.
+     */
+    public Optional<ComplianceIndex> find(String id) {
+        if (id == null || !ID.matcher(id).matches()) return Optional.empty();
+        LoadedIndex cached = loaded.get(id);
+        if (cached != null) return cached.checkedOnly() ? Optional.empty() : Optional.of(cached.index());
+        return Optional.ofNullable(read(id));
+    }
+
+    // The stored index with the id, loaded into memory, or null if there is none
+    private ComplianceIndex read(String id) {
+        ByteBuffer stored = store.get(keyPrefix + id);
+        if (stored == null) return null;
+        int bytes = stored.remaining();
+        ComplianceIndex index;
+        try {
+            index = indexReader.readValue(new ByteBufferBackedInputStream(stored));
+        } catch (IOException e) {
+            log.warn("Could not read the compliance index {}; it will be rebuilt", id, e);
+            return null;
+        }
+        loaded.put(id, new LoadedIndex(index, bytes, false));
+        return index;
+    }
+
+    public LruCache.Stats stats() {
+        return loaded.stats();
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        store.close();
+    }
+
+    /**
+     * @throws YAMLException if the document is over one of the loader limits. Syntax and
+     *                       construction errors, which only depend on the content, give an
+     *                       unparsable index instead.
+     */
+    private ComplianceIndex build(String swaggerYamlContent) {
+        Object parsedYaml;
+        try {
+            parsedYaml = yamlPool.load(swaggerYamlContent);
+        } catch (MarkedYAMLException e) {
+            return ComplianceIndex.unparsable(ComplianceIssue.parseError(e.getMessage(), null));
+        } catch (YAMLException e) {
+            throw e;
+        } catch (Exception e) {
+            return ComplianceIndex.unparsable(ComplianceIssue.parseError(e.getMessage(), null));
+        }
+        if (!(parsedYaml instanceof Map)) {
+            return ComplianceIndex.unparsable(ComplianceIssue.parseError("the document is not a mapping", null));
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> swaggerRoot = (Map<String, Object>) parsedYaml;
+        return ComplianceIndex.build(swaggerRoot, complianceEngine);
+    }
+
+    private record LoadedIndex(ComplianceIndex index, long bytes, boolean checkedOnly) {
+    }
+}
@@ -0,0 +1,65 @@
+package com.swagger_generator.service;
+
+import com.swagger_generator.compliance.ComplianceEngine;
+import com.swagger_generator.compliance.ComplianceIssue;
+import com.swagger_generator.compliance.StreamingComplianceScanner;
+import com.swagger_generator.config.ComplianceProperties;
+import com.swagger_generator.util.YamlPool;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks Swagger YAML documents with the configured {@link ComplianceEngine}.
+ *
+ * <p>{@link #checkCompliance(String)} loads the document as a whole. {@link #checkCompliance(InputStream)}
+ * scans it with a {@link StreamingComplianceScanner} instead, which suits large documents and reports
+ * the source location of every issue.
+ */
+@Service
+public class ComplianceService {
+
+    private final ComplianceEngine complianceEngine;
+    private final YamlPool yamlPool;
+    private final StreamingComplianceScanner streamingScanner;
+
+    /**
+     * @param yamlPool loads documents, with the limits of {@link ComplianceProperties}
+     */
+    public ComplianceService(ComplianceEngine complianceEngine, YamlPool yamlPool, ComplianceProperties complianceProperties) {
+        this.complianceEngine = complianceEngine;
+        this.yamlPool = yamlPool;
+        this.streamingScanner = new StreamingComplianceScanner(complianceEngine, yamlPool,
+                complianceProperties.getStreamNodeDepth());
+    }
+
+    /**
+     * Parses the document and returns its compliance issues, empty if it is compliant. A document
+     * that cannot be parsed is reported as a single {@code yaml-parse} issue.
+     */
+    public List<ComplianceIssue> checkCompliance(String swaggerYamlContent) {
+        Object parsedYaml;
+        try {
+            parsedYaml = yamlPool.load(swaggerYamlContent);
+        } catch (Exception e) {
+            return List.of(ComplianceIssue.parseError(e.getMessage(), null));
+        }
+        if (!(parsedYaml instanceof Map)) {
+            return List.of(ComplianceIssue.parseError("the document is not a mapping", null));
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> swaggerRoot = (Map<String, Object>) parsedYaml;
+        return complianceEngine.check(swaggerRoot);
+    }
+
+    /**
+     * Scans the document as it is read and returns its compliance issues in source order. The
+     * stream is not closed.
+     */
+    public List<ComplianceIssue> checkCompliance(InputStream inputStream) {
+        return streamingScanner.scan(inputStream);
+    }
+}
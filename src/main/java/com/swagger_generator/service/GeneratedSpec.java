@@ -0,0 +1,8 @@
+package com.swagger_generator.service;
+
+/**
+ * A generated Swagger document, in one of the {@link OutputFormat}s (UTF-8 for the text formats),
+ * and the entity tag identifying its content.
+ */
+public record GeneratedSpec(byte[] content, String eTag) {
+}
@@ -0,0 +1,119 @@
+package com.swagger_generator.service;
+
+import com.swagger_generator.config.GenerationProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Applies a function to every element of a list, in parallel once the list is large enough,
+ * and returns the results in the order of the input.
+ *
+ * <p>Work is split recursively on a dedicated {@link ForkJoinPool}, sized by
+ * {@link GenerationProperties#getParallelism()}, so generation never competes with other users
+ * of the common pool. Lists shorter than {@link GenerationProperties#getParallelThreshold()}
+ * are mapped on the calling thread.
+ */
+@Component
+public class GenerationExecutor implements DisposableBean {
+
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+    private final int batchSize;
+
+    public GenerationExecutor(GenerationProperties generationProperties) {
+        int parallelism = generationProperties.getParallelism() > 0
+                ? generationProperties.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        this.pool = parallelism > 1 ? new ForkJoinPool(parallelism, this::newWorkerThread, null, false) : null;
+        this.parallelThreshold = Math.max(1, generationProperties.getParallelThreshold());
+        this.batchSize = Math.max(1, generationProperties.getBatchSize());
+    }
+
+    public <T, R> List<R> mapOrdered(List<T> items, Function<? super T, ? extends R> mapper) {
+        if (pool == null || items.size() < parallelThreshold) {
+            List<R> results = new ArrayList<>(items.size());
+            for (T item : items) {
+                results.add(mapper.apply(item));
+            }
+            return results;
+        }
+
+        Object[] results = new Object[items.size()];
+        int grain = Math.max(1, items.size() / (pool.getParallelism() * 4));
+        pool.invoke(new MapTask<>(items, mapper, results, 0, items.size(), grain));
+        @SuppressWarnings("unchecked")
+        List<R> ordered = (List<R>) Arrays.asList(results);
+        return ordered;
+    }
+
+    /**
+     * Number of operations a streaming writer should generate at a time.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * The generation pool as a plain {@link Executor}; with a parallelism of one, tasks run on the
+     * submitting thread.
+     */
+    public Executor executor() {
+        return pool != null ? pool : Runnable::run;
+    }
+
+    @Override
+    public void destroy() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private ForkJoinWorkerThread newWorkerThread(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("swagger-generation-" + threadCount.incrementAndGet());
+        return thread;
+    }
+
+    private static class MapTask<T, R> extends RecursiveAction {
+
+        private final List<T> items;
+        private final Function<? super T, ? extends R> mapper;
+        private final Object[] results;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        MapTask(List<T> items, Function<? super T, ? extends R> mapper, Object[] results, int from, int to, int grain) {
+            this.items = items;
+            this.mapper = mapper;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                for (int i = from; i < to; i++) {
+                    results[i] = mapper.apply(items.get(i));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new MapTask<>(items, mapper, results, from, middle, grain),
+                    new MapTask<>(items, mapper, results, middle, to, grain));
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.swagger_generator.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.swagger_generator.config.GenerationProperties;
+import com.swagger_generator.entity.SwaggerSchemaRequest;
+import com.swagger_generator.model.Operation;
+import com.swagger_generator.util.*;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Generates Swagger YAML by splicing together operations that were rendered once and kept in a
+ * {@link FragmentStore}, so that changing a few operations of a large API only renders those.
+ *
+ * <p>Each operation is rendered on its own, at the indentation it has in the document, and stored
+ * under a hash of its {@link SwaggerSchemaRequest} and the version of the rendering. A document is a fixed head, then for every
+ * endpoint its key line followed by the fragments of its methods, then a fixed tail, all copied as
+ * raw bytes. The layout of a document is kept in the store as well, as a manifest under the
+ * document's entity tag, which {@link #patch} starts from.
+ *
+ * <p>A fragment has to read the same wherever it is spliced in, so nothing is anchored and
+ * schemas are always inlined. The documents describe the same API as those of
+ * {@link SwaggerGeneratorService}, but are not byte-identical to them.
+ */
+@Service
+public class IncrementalSpecService {
+
+    // Bump when the rendering of operations or the manifest layout changes, so that fragments of an
+    // older version are never spliced into a new document
+    private static final int FORMAT_VERSION = 3;
+    private static final String OPERATION_KEY_PREFIX = "operation:" + FORMAT_VERSION + ":";
+    private static final String MANIFEST_KEY_PREFIX = "spec:" + FORMAT_VERSION + ":";
+
+    // The text around operations is cut out of documents holding a placeholder entry instead
+    private static final String PLACEHOLDER_PATH = "/";
+    private static final String PLACEHOLDER_KEY = "x";
+    private static final String PLACEHOLDER_ENTRY = "x: 1\n";
+    private static final String PLACEHOLDER_LINE = "    " + PLACEHOLDER_ENTRY;
+
+    private final ObjectWriter requestWriter;
+    private final ObjectReader manifestReader;
+    private final ObjectWriter manifestWriter;
+    private final FragmentStore fragmentStore;
+    private final SchemaConverter schemaConverter;
+    private final GenerationExecutor generationExecutor;
+    private final YamlPool yamlPool;
+    private final byte[] head;
+    private final byte[] tail;
+
+    public IncrementalSpecService(ObjectMapper objectMapper, FragmentStore fragmentStore, GenerationProperties generationProperties,
+                                  GenerationExecutor generationExecutor, YamlPool yamlPool) {
+        // Same key rules as the spec cache: a missing schema and an explicit null render differently
+        this.requestWriter = objectMapper.copy()
+                .setDefaultPropertyInclusion(JsonInclude.Value.construct(JsonInclude.Include.NON_NULL, JsonInclude.Include.ALWAYS))
+                .writerFor(SwaggerSchemaRequest.class);
+        this.manifestReader = objectMapper.readerFor(Manifest.class);
+        this.manifestWriter = objectMapper.writerFor(Manifest.class);
+        this.fragmentStore = fragmentStore;
+        this.schemaConverter = SchemaConverter.withLimits(generationProperties.schemaLimits());
+        this.generationExecutor = generationExecutor;
+        this.yamlPool = yamlPool;
+
+        String head = render(yaml -> {
+            yaml.writeEntry("openapi", "3.0.0");
+            yaml.writeEntry("info", SwaggerDocumentBuilder.buildInfo());
+            writePlaceholderPaths(yaml, PLACEHOLDER_PATH);
+        });
+        this.head = cut(head, "", "  " + PLACEHOLDER_PATH + ":\n" + PLACEHOLDER_LINE).getBytes(StandardCharsets.UTF_8);
+        this.tail = render(yaml -> {
+            yaml.writeEntry("components", SwaggerDocumentBuilder.buildComponents());
+            yaml.writeEntry("security", SwaggerDocumentBuilder.buildSecurity());
+        }).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Generates the document for {@code swaggerSchemaRequests}, rendering only the operations that
+     * are not in the store yet.
+     */
+    public GeneratedSpec generate(List<SwaggerSchemaRequest> swaggerSchemaRequests, RequestMetrics metrics) throws IOException {
+        // Every operation comes from the request and is rendered if the store has lost it, so none is missing
+        return assemble(new Manifest(List.of()), swaggerSchemaRequests, metrics)
+                .orElseThrow(() -> new IllegalStateException("Generated document is missing an operation"));
+    }
+
+    /**
+     * Generates the document identified by {@code eTag} with {@code changes} applied, following the
+     * same rules as {@link SwaggerDocumentBuilder#groupByPath}: a change replaces the operation with
+     * the same endpoint and method in place, and new operations are added after the existing ones.
+     *
+     * @return the new document, or nothing if {@code eTag} is unknown or some of its operations
+     * have been evicted from the store since
+     */
+    public Optional<GeneratedSpec> patch(String eTag, List<SwaggerSchemaRequest> changes, RequestMetrics metrics) throws IOException {
+        ByteBuffer manifest = fragmentStore.get(MANIFEST_KEY_PREFIX + eTag);
+        if (manifest == null) {
+            return Optional.empty();
+        }
+        return assemble(manifestReader.readValue(new ByteBufferBackedInputStream(manifest)), changes, metrics);
+    }
+
+    private Optional<GeneratedSpec> assemble(Manifest base, List<SwaggerSchemaRequest> changes, RequestMetrics metrics) throws IOException {
+        Map<String, ManifestEndpoint> endpoints = new LinkedHashMap<>();
+        base.endpoints().forEach(endpoint ->
+                endpoints.put(endpoint.path(), new ManifestEndpoint(endpoint.path(), endpoint.header(), new LinkedHashMap<>(endpoint.operations()))));
+
+        // The fragments of the changes are read once and spliced from these buffers, which stay valid
+        // when the store evicts them meanwhile; those it does not have are rendered
+        Map<String, ByteBuffer> fragments = new HashMap<>();
+        Map<String, SwaggerSchemaRequest> missing = new LinkedHashMap<>();
+        for (SwaggerSchemaRequest schemaRequest : changes) {
+            String key = OPERATION_KEY_PREFIX + ContentHash.of(requestWriter, schemaRequest).value();
+            endpoints.computeIfAbsent(schemaRequest.getEndpoint(), path -> new ManifestEndpoint(path, renderEndpointHeader(path), new LinkedHashMap<>()))
+                    .operations().put(schemaRequest.getHttpMethod().toLowerCase(), key);
+            if (!fragments.containsKey(key) && !missing.containsKey(key)) {
+                ByteBuffer fragment = fragmentStore.get(key);
+                if (fragment != null) {
+                    fragments.put(key, fragment);
+                } else {
+                    missing.put(key, schemaRequest);
+                }
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            List<SwaggerSchemaRequest> requests = new ArrayList<>(missing.values());
+            SchemaConverter converter = metrics.meter(schemaConverter);
+            List<Operation> operations = metrics.time(RequestMetrics.Stage.ASSEMBLE, () ->
+                    generationExecutor.mapOrdered(requests, schemaRequest -> SwaggerDocumentBuilder.buildOperation(schemaRequest, converter)));
+            List<Integer> indexes = new ArrayList<>(requests.size());
+            for (int i = 0; i < requests.size(); i++) {
+                indexes.add(i);
+            }
+            List<byte[]> renderedFragments = metrics.time(RequestMetrics.Stage.DUMP, () -> generationExecutor.mapOrdered(indexes,
+                    i -> renderOperation(requests.get(i).getHttpMethod().toLowerCase(), operations.get(i))));
+
+            Iterator<String> keys = missing.keySet().iterator();
+            for (byte[] fragment : renderedFragments) {
+                String key = keys.next();
+                fragmentStore.put(key, fragment);
+                fragments.put(key, ByteBuffer.wrap(fragment));
+            }
+        }
+
+        long dumpStart = System.nanoTime();
+        List<ByteBuffer> parts = new ArrayList<>();
+        int operationCount = 0;
+        for (ManifestEndpoint endpoint : endpoints.values()) {
+            parts.add(ByteBuffer.wrap(endpoint.header().getBytes(StandardCharsets.UTF_8)));
+            for (String key : endpoint.operations().values()) {
+                ByteBuffer fragment = fragments.containsKey(key) ? fragments.get(key) : fragmentStore.get(key);
+                if (fragment == null) {
+                    // An operation of the base document that has been evicted, with no request to render it from
+                    return Optional.empty();
+                }
+                parts.add(fragment);
+                operationCount++;
+            }
+        }
+        metrics.operations(operationCount);
+
+        byte[] manifest = manifestWriter.writeValueAsBytes(new Manifest(List.copyOf(endpoints.values())));
+        String eTag = ContentHash.of(manifest).value();
+        fragmentStore.put(MANIFEST_KEY_PREFIX + eTag, manifest);
+
+        byte[] yaml = yamlPool.toByteArray(outputStream -> {
+            WritableByteChannel channel = Channels.newChannel(outputStream);
+            outputStream.write(head);
+            for (ByteBuffer part : parts) {
+                channel.write(part.duplicate());
+            }
+            outputStream.write(tail);
+        });
+        metrics.record(RequestMetrics.Stage.DUMP, System.nanoTime() - dumpStart);
+        metrics.outputBytes(yaml.length);
+        return Optional.of(new GeneratedSpec(yaml, eTag));
+    }
+
+    // "    get:\n      summary: ...", indented for its place under an endpoint
+    private byte[] renderOperation(String httpMethod, Operation operation) {
+        String document = render(yaml -> {
+            yaml.startMapping("paths");
+            yaml.startMapping(PLACEHOLDER_PATH);
+            yaml.writeEntry(httpMethod, operation);
+            yaml.endMapping();
+            yaml.endMapping();
+        });
+        return cut(document, "paths:\n  " + PLACEHOLDER_PATH + ":\n", "").getBytes(StandardCharsets.UTF_8);
+    }
+
+    // "  /users:\n", with the endpoint quoted or escaped as Yaml.dump would
+    private String renderEndpointHeader(String path) {
+        String entry = cut(render(yaml -> writePlaceholderPaths(yaml, path)), "paths:\n", "");
+        if (entry.endsWith(PLACEHOLDER_LINE)) {
+            return cut(entry, "", PLACEHOLDER_LINE);
+        }
+        // Keys too long for a simple key are written as "? key" and ": ", with the value starting on
+        // the line of the colon; the operations are moved to the next line instead
+        return cut(entry, "", " " + PLACEHOLDER_ENTRY) + "\n";
+    }
+
+    private static void writePlaceholderPaths(YamlStreamWriter yaml, String path) throws IOException {
+        yaml.startMapping("paths");
+        yaml.startMapping(path);
+        yaml.writeEntry(PLACEHOLDER_KEY, 1);
+        yaml.endMapping();
+        yaml.endMapping();
+    }
+
+    // Renders the entries of a root mapping
+    private String render(Entries entries) {
+        try {
+            byte[] document = yamlPool.toByteArray(outputStream -> {
+                YamlStreamWriter yaml = yamlPool.streamWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), Map.of());
+                yaml.startDocument();
+                yaml.startMapping();
+                entries.write(yaml);
+                yaml.endMapping();
+                yaml.endDocument();
+            });
+            return new String(document, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String cut(String document, String prefix, String suffix) {
+        if (!document.startsWith(prefix) || !document.endsWith(suffix) || document.length() < prefix.length() + suffix.length()) {
+            throw new IllegalStateException("Unexpected layout of rendered fragment: " + document);
+        }
+        return document.substring(prefix.length(), document.length() - suffix.length());
+    }
+
+    @FunctionalInterface
+    private interface Entries {
+        void write(YamlStreamWriter yaml) throws IOException;
+    }
+
+    /**
+     * The layout of a generated document: endpoints in order, each with its rendered key line and
+     * the fragment keys of its methods.
+     */
+    record Manifest(List<ManifestEndpoint> endpoints) {
+    }
+
+    record ManifestEndpoint(String path, String header, Map<String, String> operations) {
+    }
+}
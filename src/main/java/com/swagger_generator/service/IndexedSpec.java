@@ -0,0 +1,9 @@
+package com.swagger_generator.service;
+
+import com.swagger_generator.compliance.ComplianceIndex;
+
+/**
+ * A document indexed by {@link ComplianceIndexService}, and the id its index can be looked up by.
+ */
+public record IndexedSpec(String id, ComplianceIndex index) {
+}
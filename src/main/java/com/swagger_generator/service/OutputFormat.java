@@ -0,0 +1,28 @@
+package com.swagger_generator.service;
+
+/**
+ * The formats a Swagger document can be generated in.
+ *
+ * <p>YAML is written with SnakeYAML; the other formats are written from the same operation maps
+ * with Jackson's streaming generators, without going through YAML.
+ */
+public enum OutputFormat {
+
+    YAML("text/plain"),
+    JSON("application/json"),
+    /**
+     * Jackson's binary JSON, see {@code jackson-dataformat-smile}.
+     */
+    SMILE("application/x-jackson-smile"),
+    CBOR("application/cbor");
+
+    private final String mediaType;
+
+    OutputFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+}
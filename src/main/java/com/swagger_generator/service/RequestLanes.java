@@ -0,0 +1,170 @@
+package com.swagger_generator.service;
+
+import com.swagger_generator.config.LaneProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs requests on one of two bounded worker pools, so that large documents and small requests
+ * do not queue behind each other.
+ *
+ * <p>Each {@link Lane} has a fixed number of workers and a bounded queue, configured in
+ * {@link LaneProperties}. Submitting to a lane whose queue is full fails straight away instead of
+ * piling up requests the lane could never catch up with. Lanes publish these meters, tagged with
+ * the {@code lane}:
+ * <ul>
+ *     <li>{@code swagger.lane.queue.depth} - requests waiting for a worker</li>
+ *     <li>{@code swagger.lane.active} - requests being run</li>
+ *     <li>{@code swagger.lane.wait} - time a request waited for a worker</li>
+ *     <li>{@code swagger.lane.latency} - time from submission until a request was done</li>
+ *     <li>{@code swagger.lane.rejected} - requests turned away because the queue was full</li>
+ * </ul>
+ *
+ * <p>When lanes are disabled, tasks run on the calling thread and no meters are published.
+ *
+ * <p>Batch requests do not use the lanes: they are admitted by {@link BatchGenerationService}, and one
+ * would hold a worker for as long as its client keeps sending services.
+ */
+@Component
+public class RequestLanes implements DisposableBean {
+
+    public enum Lane {
+        SMALL, LARGE;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final boolean enabled;
+    private final long largeRequestBytes;
+    private final Map<Lane, LaneExecutor> executors = new EnumMap<>(Lane.class);
+
+    public RequestLanes(LaneProperties laneProperties, MeterRegistry meterRegistry) {
+        this.enabled = laneProperties.isEnabled();
+        this.largeRequestBytes = laneProperties.getLargeRequestBytes();
+        if (enabled) {
+            executors.put(Lane.SMALL, new LaneExecutor(Lane.SMALL, laneProperties.getSmall(), meterRegistry));
+            executors.put(Lane.LARGE, new LaneExecutor(Lane.LARGE, laneProperties.getLarge(), meterRegistry));
+        }
+    }
+
+    /**
+     * The lane for a request body of {@code contentLength} bytes, or {@code -1} if unknown.
+     */
+    public Lane laneFor(long contentLength) {
+        return contentLength < 0 || contentLength >= largeRequestBytes ? Lane.LARGE : Lane.SMALL;
+    }
+
+    /**
+     * Runs {@code task} on {@code lane}. The returned future completes with the result of the task,
+     * or exceptionally with what it threw.
+     *
+     * @throws RejectedExecutionException if the lane's queue is full
+     */
+    public <T> CompletableFuture<T> submit(Lane lane, Callable<T> task) {
+        LaneExecutor executor = executors.get(lane);
+        if (executor == null) {
+            try {
+                return CompletableFuture.completedFuture(task.call());
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return executor.submit(task);
+    }
+
+    /**
+     * An executor that runs tasks on {@code lane} as {@link #submit} does, for work Spring MVC schedules
+     * itself, such as a {@code WebAsyncTask}. A full queue makes it throw {@link RejectedExecutionException}.
+     */
+    public AsyncTaskExecutor executor(Lane lane) {
+        return task -> submit(lane, Executors.callable(task));
+    }
+
+    @Override
+    public void destroy() {
+        executors.values().forEach(executor -> executor.pool.shutdownNow());
+    }
+
+    private static final class LaneExecutor {
+
+        private final ThreadPoolExecutor pool;
+        private final Timer wait;
+        private final Timer latency;
+        private final Counter rejected;
+
+        LaneExecutor(Lane lane, LaneProperties.Lane settings, MeterRegistry meterRegistry) {
+            int concurrency = settings.getConcurrency() > 0 ? settings.getConcurrency() : Runtime.getRuntime().availableProcessors();
+            AtomicInteger threadCount = new AtomicInteger();
+            this.pool = new ThreadPoolExecutor(concurrency, concurrency, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(Math.max(1, settings.getQueueCapacity())), runnable -> {
+                Thread thread = new Thread(runnable, "swagger-" + lane.tag() + "-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            Gauge.builder("swagger.lane.queue.depth", pool, executor -> executor.getQueue().size())
+                    .description("Requests waiting for a worker of a lane")
+                    .tag("lane", lane.tag())
+                    .register(meterRegistry);
+            Gauge.builder("swagger.lane.active", pool, ThreadPoolExecutor::getActiveCount)
+                    .description("Requests being run by a lane")
+                    .tag("lane", lane.tag())
+                    .register(meterRegistry);
+            this.wait = Timer.builder("swagger.lane.wait")
+                    .description("Time a request waited for a worker of a lane")
+                    .tag("lane", lane.tag())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            this.latency = Timer.builder("swagger.lane.latency")
+                    .description("Time from submitting a request to a lane until it was done")
+                    .tag("lane", lane.tag())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("swagger.lane.rejected")
+                    .description("Requests rejected because the queue of a lane was full")
+                    .tag("lane", lane.tag())
+                    .register(meterRegistry);
+        }
+
+        <T> CompletableFuture<T> submit(Callable<T> task) {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            long submitted = System.nanoTime();
+            try {
+                pool.execute(() -> {
+                    wait.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                    T result = null;
+                    Throwable failure = null;
+                    try {
+                        result = task.call();
+                    } catch (Throwable e) {
+                        failure = e;
+                    }
+                    // Recorded before completing, so the request is accounted for by the time it is answered
+                    latency.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                    if (failure != null) {
+                        future.completeExceptionally(failure);
+                    } else {
+                        future.complete(result);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                throw e;
+            }
+            return future;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.swagger_generator.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.swagger_generator.model.Schema;
+import com.swagger_generator.util.SchemaConverter;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collects the stage timings and sizes of a single request, to be published by {@link SwaggerMetrics}
+ * once the request has finished.
+ *
+ * <p>Stage times are summed, so a stage that runs in parallel, such as schema conversion on the
+ * generation pool, reports the time spent across all threads. Recording is thread-safe.
+ *
+ * <p>{@link #disabled()} returns an instance that records nothing, for callers outside a request.
+ */
+public final class RequestMetrics {
+
+    public enum Stage {
+        /** Binding the request body to objects. */
+        BIND,
+        /** Converting request and response schemas, summed over all threads. */
+        CONVERT,
+        /** Building the operation maps, including the schema conversion they wait for. */
+        ASSEMBLE,
+        /** Writing the YAML. */
+        DUMP,
+        /** Checking a document for compliance issues. */
+        COMPLIANCE
+    }
+
+    private static final RequestMetrics DISABLED = new RequestMetrics(null, null, 0);
+
+    private final SwaggerMetrics swaggerMetrics;
+    private final String endpoint;
+    private final long startNanos;
+    private final Map<Stage, LongAdder> stageNanos = new EnumMap<>(Stage.class);
+    private final LongAccumulator maxSchemaDepth = new LongAccumulator(Math::max, -1);
+    private volatile long operations = -1;
+    private volatile long inputBytes = -1;
+    private volatile long outputBytes = -1;
+
+    RequestMetrics(SwaggerMetrics swaggerMetrics, String endpoint, long startNanos) {
+        this.swaggerMetrics = swaggerMetrics;
+        this.endpoint = endpoint;
+        this.startNanos = startNanos;
+        for (Stage stage : Stage.values()) {
+            stageNanos.put(stage, new LongAdder());
+        }
+    }
+
+    public static RequestMetrics disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return swaggerMetrics != null;
+    }
+
+    public void record(Stage stage, long nanos) {
+        if (isEnabled()) {
+            stageNanos.get(stage).add(nanos);
+        }
+    }
+
+    public <T> T time(Stage stage, Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            record(stage, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Wraps {@code delegate} so that its conversions are timed as {@link Stage#CONVERT} and the
+     * {@link Schema#depth() depth} of every converted schema is tracked. The depth is kept by the
+     * schema itself, so cached schemas are not walked again. Schemas that fail to convert, e.g. for
+     * being over the schema limits, are only timed.
+     */
+    public SchemaConverter meter(SchemaConverter delegate) {
+        if (!isEnabled()) return delegate;
+        return new SchemaConverter() {
+            @Override
+            public Schema parseSchema(JsonNode schema) {
+                long start = System.nanoTime();
+                Schema converted;
+                try {
+                    converted = delegate.parseSchema(schema);
+                } finally {
+                    record(Stage.CONVERT, System.nanoTime() - start);
+                }
+                maxSchemaDepth.accumulate(converted.depth());
+                return converted;
+            }
+
+            @Override
+            public Schema parseResponseSchema(JsonNode schema) {
+                long start = System.nanoTime();
+                Schema converted;
+                try {
+                    converted = delegate.parseResponseSchema(schema);
+                } finally {
+                    record(Stage.CONVERT, System.nanoTime() - start);
+                }
+                maxSchemaDepth.accumulate(converted.depth());
+                return converted;
+            }
+        };
+    }
+
+    public void operations(long operations) {
+        this.operations = operations;
+    }
+
+    public void inputBytes(long inputBytes) {
+        this.inputBytes = inputBytes;
+    }
+
+    public void outputBytes(long outputBytes) {
+        this.outputBytes = outputBytes;
+    }
+
+    /**
+     * Publishes the request. Call once, when the response has been written.
+     */
+    public void finish() {
+        if (isEnabled()) {
+            swaggerMetrics.publish(this, System.nanoTime() - startNanos);
+        }
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    long stageNanos(Stage stage) {
+        return stageNanos.get(stage).sum();
+    }
+
+    long operations() {
+        return operations;
+    }
+
+    long maxSchemaDepth() {
+        return maxSchemaDepth.get();
+    }
+
+    long inputBytes() {
+        return inputBytes;
+    }
+
+    long outputBytes() {
+        return outputBytes;
+    }
+}
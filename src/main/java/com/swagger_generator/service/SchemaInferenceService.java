@@ -0,0 +1,90 @@
+package com.swagger_generator.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.swagger_generator.config.InferenceProperties;
+import com.swagger_generator.entity.PayloadSample;
+import com.swagger_generator.inference.InferenceSettings;
+import com.swagger_generator.inference.SchemaInferrer;
+import com.swagger_generator.model.Operation;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Map;
+
+/**
+ * Infers the operations of an API from a corpus of captured {@link PayloadSample}s, see
+ * {@link SchemaInferrer}.
+ *
+ * <p>Samples are bound one at a time and only their merged statistics are kept, so a corpus of any
+ * length is inferred in memory proportional to the number of distinct fields. The result can be
+ * written with {@link SwaggerGeneratorService#writeSwaggerYaml(Map, java.io.OutputStream, RequestMetrics)}.
+ */
+@Service
+public class SchemaInferenceService {
+
+    private final ObjectReader sampleReader;
+    private final InferenceSettings settings;
+    private final GenerationExecutor generationExecutor;
+    private final int shards;
+    private final int batchSize;
+
+    public SchemaInferenceService(ObjectMapper objectMapper, InferenceProperties inferenceProperties,
+                                  GenerationExecutor generationExecutor) {
+        this.sampleReader = objectMapper.readerFor(PayloadSample.class);
+        this.settings = new InferenceSettings(inferenceProperties.getMaxEnumValues(), inferenceProperties.getMinEnumSamples());
+        this.generationExecutor = generationExecutor;
+        this.shards = inferenceProperties.getShards() > 0
+                ? inferenceProperties.getShards()
+                : Runtime.getRuntime().availableProcessors();
+        this.batchSize = inferenceProperties.getBatchSize();
+    }
+
+    /**
+     * Reads samples from newline-delimited JSON (one sample per line) or a single JSON array.
+     *
+     * @return the inferred operations, keyed by endpoint and then by lower-case HTTP method, in the
+     * order they first appear
+     * @throws IllegalArgumentException if a sample has no endpoint or HTTP method
+     */
+    public Map<String, Map<String, Operation>> inferOperations(InputStream inputStream) throws IOException {
+        return inferOperations(inputStream, RequestMetrics.disabled());
+    }
+
+    /**
+     * Like {@link #inferOperations(InputStream)}, recording the reading of samples as
+     * {@link RequestMetrics.Stage#BIND} and the folding that is not overlapped with it as
+     * {@link RequestMetrics.Stage#CONVERT}.
+     */
+    public Map<String, Map<String, Operation>> inferOperations(InputStream inputStream, RequestMetrics metrics) throws IOException {
+        SchemaInferrer inferrer = new SchemaInferrer(settings, generationExecutor.executor(), shards, batchSize);
+        long samples = 0;
+        try (MappingIterator<PayloadSample> iterator = sampleReader.readValues(inputStream)) {
+            while (true) {
+                long bindStart = System.nanoTime();
+                PayloadSample sample = iterator.hasNextValue() ? iterator.nextValue() : null;
+                long addStart = System.nanoTime();
+                metrics.record(RequestMetrics.Stage.BIND, addStart - bindStart);
+                if (sample == null) break;
+
+                samples++;
+                if (sample.getEndpoint() == null || sample.getHttpMethod() == null) {
+                    throw new IllegalArgumentException("Sample " + samples + " has no endpoint or HTTP method.");
+                }
+                inferrer.add(sample.getEndpoint(), sample.getHttpMethod(), sample.getRequest(), sample.getResponse());
+                metrics.record(RequestMetrics.Stage.CONVERT, System.nanoTime() - addStart);
+            }
+
+            long finishStart = System.nanoTime();
+            Map<String, Map<String, Operation>> paths = inferrer.finish();
+            metrics.record(RequestMetrics.Stage.CONVERT, System.nanoTime() - finishStart);
+            return paths;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while inferring schemas");
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.swagger_generator.service;
+
+import com.swagger_generator.diff.SpecChange;
+import com.swagger_generator.diff.SpecDiffEngine;
+import com.swagger_generator.util.YamlPool;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares two versions of a Swagger document with a {@link SpecDiffEngine}.
+ */
+@Service
+public class SpecDiffService {
+
+    private final SpecDiffEngine specDiffEngine = new SpecDiffEngine();
+    private final YamlPool yamlPool;
+
+    /**
+     * @param yamlPool loads both documents, with the same limits as the compliance checks
+     */
+    public SpecDiffService(YamlPool yamlPool) {
+        this.yamlPool = yamlPool;
+    }
+
+    /**
+     * Returns the changes from {@code previousYaml} to {@code currentYaml}, empty if they describe
+     * the same API.
+     *
+     * @throws IllegalArgumentException if either document cannot be parsed or is not a mapping
+     */
+    public List<SpecChange> diff(String previousYaml, String currentYaml) {
+        return specDiffEngine.diff(load(previousYaml, "previous"), load(currentYaml, "current"));
+    }
+
+    private Map<String, Object> load(String yaml, String name) {
+        Object parsedYaml;
+        try {
+            parsedYaml = yamlPool.load(yaml);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Error parsing the " + name + " Swagger YAML content: " + e.getMessage(), e);
+        }
+        if (!(parsedYaml instanceof Map)) {
+            throw new IllegalArgumentException("The " + name + " Swagger YAML content is not a mapping");
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> swaggerRoot = (Map<String, Object>) parsedYaml;
+        return swaggerRoot;
+    }
+}
@@ -0,0 +1,362 @@
+package com.swagger_generator.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.swagger_generator.config.GenerationProperties;
+import com.swagger_generator.config.GeneratorCacheProperties;
+import com.swagger_generator.entity.SwaggerSchemaRequest;
+import com.swagger_generator.model.LeafSchema;
+import com.swagger_generator.model.Operation;
+import com.swagger_generator.util.*;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Generates Swagger YAML documentation from a list of {@link SwaggerSchemaRequest}s.
+ *
+ * <p>Two generation modes are available. {@link #generateSwaggerYaml(List)} assembles the whole
+ * document as a tree of maps and {@link Operation}s and dumps it to a {@code String}. {@link #writeSwaggerYaml(List, OutputStream)}
+ * writes the same document straight to a stream, building and releasing a batch of operations at a time,
+ * so its memory use does not grow with the number of operations. Both produce byte-identical output.
+ *
+ * <p>For very large batches, {@link #readOperations(InputStream)} binds the requests one at a time
+ * from newline-delimited JSON and keeps only the generated operations, never the full request list.
+ *
+ * <p>{@link #generateCachedSwaggerYaml(List)} serves repeated request lists from a content-addressed
+ * cache, see {@link GeneratorCacheProperties}.
+ *
+ * <p>Each entry point has an overload taking {@link RequestMetrics}, which times the generation
+ * stages and records the request's sizes for {@link SwaggerMetrics}.
+ *
+ * <p>With {@link GenerationProperties#isDeduplicateSchemas()}, every mode references object schemas
+ * from {@code components/schemas} instead of inlining them, see {@link SchemaDeduplicator}.
+ *
+ * <p>{@link #writeSwagger} and {@link #generateCachedSwagger} can write the same document in any
+ * {@link OutputFormat}. The non-YAML formats are written from the operations with Jackson's
+ * generators, so nothing is rendered as YAML first.
+ *
+ * <p>Operations and their schemas are held in the typed model of {@code com.swagger_generator.model}
+ * rather than as maps. Leaf schemas are shared instances, and every schema is written out in full
+ * wherever it is used.
+ *
+ * <p>Example schemas are converted within the {@code max-schema-*} limits of {@link GenerationProperties};
+ * a schema over one of them fails generation with a {@link SchemaLimitExceededException}.
+ */
+@Service
+public class SwaggerGeneratorService {
+
+    private final ObjectReader requestReader;
+    private final ObjectWriter requestsWriter;
+    private final boolean cacheEnabled;
+    private final LruCache<String, GeneratedSpec> specCache;
+    private final CachingSchemaConverter schemaCache;
+    private final SchemaConverter schemaConverter;
+    private final GenerationExecutor generationExecutor;
+    private final YamlPool yamlPool;
+    private final boolean deduplicateSchemas;
+    private final Map<OutputFormat, ObjectMapper> jacksonMappers = new EnumMap<>(OutputFormat.class);
+
+    public SwaggerGeneratorService(ObjectMapper objectMapper, GeneratorCacheProperties cacheProperties,
+                                   GenerationProperties generationProperties, GenerationExecutor generationExecutor,
+                                   YamlPool yamlPool) {
+        this.requestReader = objectMapper.readerFor(SwaggerSchemaRequest.class);
+        // A missing schema and an explicit JSON null generate different output, so only the
+        // former may be left out of the cache key
+        this.requestsWriter = objectMapper.copy()
+                .setDefaultPropertyInclusion(JsonInclude.Value.construct(JsonInclude.Include.NON_NULL, JsonInclude.Include.ALWAYS))
+                .writerFor(new TypeReference<List<SwaggerSchemaRequest>>() {
+                });
+        this.cacheEnabled = cacheProperties.isEnabled();
+        this.specCache = new LruCache<>(cacheEnabled ? cacheProperties.getMaxSpecBytes() : 0, spec -> spec.content().length);
+        SchemaConverter limitedConverter = SchemaConverter.withLimits(generationProperties.schemaLimits());
+        this.schemaCache = new CachingSchemaConverter(limitedConverter, objectMapper.writer(),
+                cacheEnabled ? cacheProperties.getMaxSchemaBytes() : 0);
+        this.schemaConverter = cacheEnabled ? schemaCache : limitedConverter;
+        this.generationExecutor = generationExecutor;
+        this.yamlPool = yamlPool;
+        this.deduplicateSchemas = generationProperties.isDeduplicateSchemas();
+        jacksonMappers.put(OutputFormat.JSON, objectMapper);
+        jacksonMappers.put(OutputFormat.SMILE, new ObjectMapper(new SmileFactory()));
+        jacksonMappers.put(OutputFormat.CBOR, new ObjectMapper(new CBORFactory()));
+    }
+
+    public String generateSwaggerYaml(List<SwaggerSchemaRequest> swaggerSchemaRequests) {
+        Map<String, Object> swaggerRoot = new LinkedHashMap<>();
+        swaggerRoot.put("openapi", "3.0.0");
+        swaggerRoot.put("info", SwaggerDocumentBuilder.buildInfo());
+
+        // Operations are built in parallel for large batches, then placed back in document order
+        Map<String, Map<String, SwaggerSchemaRequest>> grouped = SwaggerDocumentBuilder.groupByPath(swaggerSchemaRequests);
+        List<SwaggerSchemaRequest> ordered = new ArrayList<>();
+        grouped.values().forEach(methods -> ordered.addAll(methods.values()));
+        Iterator<Operation> operations = generationExecutor
+                .mapOrdered(ordered, schemaRequest -> SwaggerDocumentBuilder.buildOperation(schemaRequest, schemaConverter))
+                .iterator();
+
+        SchemaDeduplicator deduplicator = deduplicateSchemas ? new SchemaDeduplicator() : null;
+        Map<String, Object> paths = new LinkedHashMap<>();
+        grouped.forEach((endpoint, methods) -> {
+            Map<String, Object> methodMaps = new LinkedHashMap<>();
+            methods.keySet().forEach(httpMethod -> methodMaps.put(httpMethod, deduplicator != null
+                    ? deduplicator.deduplicate(operations.next(), httpMethod, endpoint)
+                    : operations.next()));
+            paths.put(endpoint, methodMaps);
+        });
+
+        swaggerRoot.put("paths", paths);
+        swaggerRoot.put("components", deduplicator != null
+                ? SwaggerDocumentBuilder.buildComponents(deduplicator.schemas())
+                : SwaggerDocumentBuilder.buildComponents());
+        swaggerRoot.put("security", SwaggerDocumentBuilder.buildSecurity());
+
+        // Missing bodies and empty arrays share one empty schema, anchored like any repeated map
+        return yamlPool.dump(swaggerRoot, deduplicator != null ? List.of() : List.of(LeafSchema.EMPTY));
+    }
+
+    /**
+     * Generates the Swagger YAML for the requests, or returns it from the cache if the same
+     * request list has been generated before.
+     *
+     * <p>The document is written with {@link YamlStreamWriter}, producing the same bytes as
+     * {@link #generateSwaggerYaml(List)}.
+     */
+    public GeneratedSpec generateCachedSwaggerYaml(List<SwaggerSchemaRequest> swaggerSchemaRequests) throws IOException {
+        return generateCachedSwaggerYaml(swaggerSchemaRequests, RequestMetrics.disabled());
+    }
+
+    public GeneratedSpec generateCachedSwaggerYaml(List<SwaggerSchemaRequest> swaggerSchemaRequests, RequestMetrics metrics) throws IOException {
+        return generateCachedSwagger(swaggerSchemaRequests, OutputFormat.YAML, metrics);
+    }
+
+    /**
+     * Generates the document for the requests in {@code format}, or returns it from the cache. Each
+     * format of a request list is cached, and tagged, separately.
+     */
+    public GeneratedSpec generateCachedSwagger(List<SwaggerSchemaRequest> swaggerSchemaRequests, OutputFormat format,
+                                               RequestMetrics metrics) throws IOException {
+        String key = cacheEnabled ? cacheKey(swaggerSchemaRequests, format) : null;
+        GeneratedSpec spec = key != null ? specCache.get(key) : null;
+        if (spec == null) {
+            byte[] content = yamlPool.toByteArray(outputStream -> writeSwagger(swaggerSchemaRequests, format, outputStream, metrics));
+            spec = new GeneratedSpec(content, ContentHash.of(content).value());
+            if (key != null) {
+                specCache.put(key, spec);
+            }
+        }
+        metrics.outputBytes(spec.content().length);
+        return spec;
+    }
+
+    // YAML keeps the plain hash, so its keys are the same as before other formats were cached
+    private String cacheKey(List<SwaggerSchemaRequest> swaggerSchemaRequests, OutputFormat format) throws IOException {
+        String hash = ContentHash.of(requestsWriter, swaggerSchemaRequests).value();
+        return format == OutputFormat.YAML ? hash : hash + ":" + format;
+    }
+
+    public Map<String, LruCache.Stats> cacheStats() {
+        Map<String, LruCache.Stats> stats = new LinkedHashMap<>();
+        stats.put("specs", specCache.stats());
+        stats.put("schemas", schemaCache.stats());
+        return stats;
+    }
+
+    /**
+     * Streams the generated Swagger YAML to {@code outputStream} as UTF-8.
+     *
+     * <p>Only the request index and the batch of operations currently being written are held in
+     * memory. The stream is flushed but not closed.
+     */
+    public void writeSwaggerYaml(List<SwaggerSchemaRequest> swaggerSchemaRequests, OutputStream outputStream) throws IOException {
+        writeSwaggerYaml(swaggerSchemaRequests, outputStream, RequestMetrics.disabled());
+    }
+
+    public void writeSwaggerYaml(List<SwaggerSchemaRequest> swaggerSchemaRequests, OutputStream outputStream,
+                                 RequestMetrics metrics) throws IOException {
+        writeSwagger(swaggerSchemaRequests, OutputFormat.YAML, outputStream, metrics);
+    }
+
+    /**
+     * Streams the generated document to {@code outputStream} in {@code format}, like
+     * {@link #writeSwaggerYaml(List, OutputStream)}.
+     */
+    public void writeSwagger(List<SwaggerSchemaRequest> swaggerSchemaRequests, OutputFormat format, OutputStream outputStream,
+                             RequestMetrics metrics) throws IOException {
+        Map<String, Map<String, SwaggerSchemaRequest>> grouped = SwaggerDocumentBuilder.groupByPath(swaggerSchemaRequests);
+        DocumentWriterFactory writerFactory = format == OutputFormat.YAML
+                ? yamlWriterFactory(deduplicateSchemas
+                        ? SwaggerDocumentBuilder.planScopeAnchors(grouped)
+                        : SwaggerDocumentBuilder.planSharedAnchors(grouped))
+                : jacksonWriterFactory(format);
+        writeDocument(grouped, batch -> buildOperations(batch, metrics), writerFactory, outputStream, metrics);
+    }
+
+    /**
+     * Reads {@link SwaggerSchemaRequest}s one at a time and turns each into its operation as soon as
+     * it is bound, so the request and its schema nodes can be collected straight away.
+     *
+     * <p>The input is either newline-delimited JSON (one request per line) or a single JSON array.
+     *
+     * @return the generated operations, keyed by endpoint and then by lower-case HTTP method
+     */
+    public Map<String, Map<String, Operation>> readOperations(InputStream inputStream) throws IOException {
+        return readOperations(inputStream, RequestMetrics.disabled());
+    }
+
+    public Map<String, Map<String, Operation>> readOperations(InputStream inputStream, RequestMetrics metrics) throws IOException {
+        SchemaConverter converter = metrics.meter(schemaConverter);
+        Map<String, Map<String, Operation>> paths = new LinkedHashMap<>();
+        try (MappingIterator<SwaggerSchemaRequest> requests = requestReader.readValues(inputStream)) {
+            while (true) {
+                long bindStart = System.nanoTime();
+                SwaggerSchemaRequest schemaRequest = requests.hasNextValue() ? requests.nextValue() : null;
+                long assembleStart = System.nanoTime();
+                metrics.record(RequestMetrics.Stage.BIND, assembleStart - bindStart);
+                if (schemaRequest == null) break;
+
+                paths.computeIfAbsent(schemaRequest.getEndpoint(), endpoint -> new LinkedHashMap<>())
+                        .put(schemaRequest.getHttpMethod().toLowerCase(), SwaggerDocumentBuilder.buildOperation(schemaRequest, converter));
+                metrics.record(RequestMetrics.Stage.ASSEMBLE, System.nanoTime() - assembleStart);
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Streams the Swagger YAML for operations returned by {@link #readOperations(InputStream)}.
+     * {@code paths} is cleared, and each operation released once it has been written.
+     */
+    public void writeSwaggerYaml(Map<String, Map<String, Operation>> paths, OutputStream outputStream) throws IOException {
+        writeSwaggerYaml(paths, outputStream, RequestMetrics.disabled());
+    }
+
+    public void writeSwaggerYaml(Map<String, Map<String, Operation>> paths, OutputStream outputStream,
+                                 RequestMetrics metrics) throws IOException {
+        Map<Object, String> anchors = deduplicateSchemas
+                ? SwaggerDocumentBuilder.planScopeAnchors(paths)
+                : SwaggerDocumentBuilder.planSharedAnchorsForOperations(paths);
+        writeDocument(paths, Function.identity(), yamlWriterFactory(anchors), outputStream, metrics);
+    }
+
+    private List<Operation> buildOperations(List<SwaggerSchemaRequest> swaggerSchemaRequests, RequestMetrics metrics) {
+        SchemaConverter converter = metrics.meter(schemaConverter);
+        return metrics.time(RequestMetrics.Stage.ASSEMBLE, () -> generationExecutor.mapOrdered(swaggerSchemaRequests,
+                schemaRequest -> SwaggerDocumentBuilder.buildOperation(schemaRequest, converter)));
+    }
+
+    private DocumentWriterFactory yamlWriterFactory(Map<Object, String> anchors) {
+        return outputStream -> yamlPool.streamWriter(
+                new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)), anchors);
+    }
+
+    private DocumentWriterFactory jacksonWriterFactory(OutputFormat format) {
+        ObjectMapper mapper = jacksonMappers.get(format);
+        return outputStream -> new JacksonDocumentWriter(mapper.createGenerator(outputStream));
+    }
+
+    /**
+     * Writes the document, building operations a batch at a time with {@code toOperations} and
+     * releasing each batch once written. {@code grouped} is cleared.
+     *
+     * <p>Whatever time {@code toOperations} does not record as {@link RequestMetrics.Stage#ASSEMBLE}
+     * is counted as {@link RequestMetrics.Stage#DUMP}.
+     *
+     * <p>With deduplication, the interned schemas are written with the components, after all operations.
+     */
+    private <T> void writeDocument(Map<String, Map<String, T>> grouped, Function<List<T>, List<Operation>> toOperations,
+                                   DocumentWriterFactory writerFactory, OutputStream outputStream, RequestMetrics metrics) throws IOException {
+        long writeStart = System.nanoTime();
+        long assembleNanos = metrics.stageNanos(RequestMetrics.Stage.ASSEMBLE);
+        List<String> endpoints = new ArrayList<>();
+        List<String> httpMethods = new ArrayList<>();
+        List<T> sources = new ArrayList<>();
+        grouped.forEach((endpoint, methods) -> methods.forEach((httpMethod, source) -> {
+            endpoints.add(endpoint);
+            httpMethods.add(httpMethod);
+            sources.add(source);
+        }));
+        grouped.clear();
+        metrics.operations(sources.size());
+        SchemaDeduplicator deduplicator = deduplicateSchemas ? new SchemaDeduplicator() : null;
+
+        CountingOutputStream countingStream = new CountingOutputStream(outputStream);
+        DocumentWriter document = writerFactory.open(countingStream);
+
+        document.startDocument();
+        document.startMapping();
+        document.writeEntry("openapi", "3.0.0");
+        document.writeEntry("info", SwaggerDocumentBuilder.buildInfo());
+
+        document.startMapping("paths");
+        int batchSize = generationExecutor.getBatchSize();
+        for (int start = 0; start < sources.size(); start += batchSize) {
+            List<T> batch = sources.subList(start, Math.min(start + batchSize, sources.size()));
+            List<Operation> operations = toOperations.apply(batch);
+            for (int i = 0; i < operations.size(); i++) {
+                int index = start + i;
+                // Endpoints are unique, so a change of key is the start of the next endpoint
+                if (index == 0 || !Objects.equals(endpoints.get(index), endpoints.get(index - 1))) {
+                    if (index > 0) {
+                        document.endMapping();
+                    }
+                    document.startMapping(endpoints.get(index));
+                }
+                Operation operation = deduplicator != null
+                        ? deduplicator.deduplicate(operations.get(i), httpMethods.get(index), endpoints.get(index))
+                        : operations.get(i);
+                document.writeEntry(httpMethods.get(index), operation);
+            }
+            Collections.fill(batch, null);
+        }
+        if (!sources.isEmpty()) {
+            document.endMapping();
+        }
+        document.endMapping();
+
+        document.writeEntry("components", deduplicator != null
+                ? SwaggerDocumentBuilder.buildComponents(deduplicator.schemas())
+                : SwaggerDocumentBuilder.buildComponents());
+        document.writeEntry("security", SwaggerDocumentBuilder.buildSecurity());
+        document.endMapping();
+        document.endDocument();
+
+        metrics.outputBytes(countingStream.count);
+        long elapsed = System.nanoTime() - writeStart;
+        metrics.record(RequestMetrics.Stage.DUMP, elapsed - (metrics.stageNanos(RequestMetrics.Stage.ASSEMBLE) - assembleNanos));
+    }
+
+    @FunctionalInterface
+    private interface DocumentWriterFactory {
+        DocumentWriter open(OutputStream outputStream) throws IOException;
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream outputStream) {
+            super(outputStream);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.swagger_generator.service;
+
+import com.swagger_generator.config.MetricsProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the {@link RequestMetrics} of the generation and compliance endpoints to Micrometer.
+ *
+ * <p>Meters are tagged with the {@code endpoint} and, for stage timers, the {@code stage}, and
+ * publish percentile histograms so that latency and size distributions can be aggregated across
+ * pods:
+ * <ul>
+ *     <li>{@code swagger.request} - total time of a request</li>
+ *     <li>{@code swagger.request.stage} - time spent in each {@link RequestMetrics.Stage} that ran</li>
+ *     <li>{@code swagger.request.operations} - operations generated</li>
+ *     <li>{@code swagger.request.schema.depth} - deepest request or response schema</li>
+ *     <li>{@code swagger.request.input.size} and {@code swagger.request.output.size} - bytes read and written</li>
+ * </ul>
+ *
+ * <p>Requests slower than {@link MetricsProperties#getSlowRequestThreshold()} are also logged
+ * with all of the above, to help find pathological payloads.
+ */
+@Component
+public class SwaggerMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(SwaggerMetrics.class);
+
+    private final MeterRegistry meterRegistry;
+    private final long slowRequestNanos;
+
+    public SwaggerMetrics(MeterRegistry meterRegistry, MetricsProperties metricsProperties) {
+        this.meterRegistry = meterRegistry;
+        Duration threshold = metricsProperties.getSlowRequestThreshold();
+        this.slowRequestNanos = threshold == null || threshold.isZero() || threshold.isNegative() ? Long.MAX_VALUE : threshold.toNanos();
+    }
+
+    /**
+     * Starts collecting metrics for a request to {@code endpoint}, e.g. {@code generate}.
+     *
+     * @param bindNanos time already spent binding the request body, or {@code null}
+     */
+    public RequestMetrics start(String endpoint, Long bindNanos) {
+        long elapsed = bindNanos != null ? bindNanos : 0;
+        RequestMetrics requestMetrics = new RequestMetrics(this, endpoint, System.nanoTime() - elapsed);
+        if (bindNanos != null) {
+            requestMetrics.record(RequestMetrics.Stage.BIND, bindNanos);
+        }
+        return requestMetrics;
+    }
+
+    void publish(RequestMetrics requestMetrics, long totalNanos) {
+        String endpoint = requestMetrics.endpoint();
+        timer("swagger.request", "Total time of a request", endpoint, null).record(totalNanos, TimeUnit.NANOSECONDS);
+        for (RequestMetrics.Stage stage : RequestMetrics.Stage.values()) {
+            long stageNanos = requestMetrics.stageNanos(stage);
+            if (stageNanos > 0) {
+                timer("swagger.request.stage", "Time spent in a stage of a request", endpoint, stage)
+                        .record(stageNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        summary("swagger.request.operations", "Operations generated by a request", null, endpoint, requestMetrics.operations());
+        summary("swagger.request.schema.depth", "Deepest schema of a request", null, endpoint, requestMetrics.maxSchemaDepth());
+        summary("swagger.request.input.size", "Size of a request body", "bytes", endpoint, requestMetrics.inputBytes());
+        summary("swagger.request.output.size", "Size of a response body", "bytes", endpoint, requestMetrics.outputBytes());
+
+        if (totalNanos >= slowRequestNanos) {
+            log.warn("Slow {} request took {} ms (bind {} ms, convert {} ms, assemble {} ms, dump {} ms, compliance {} ms); "
+                            + "operations={}, maxSchemaDepth={}, inputBytes={}, outputBytes={}",
+                    endpoint, millis(totalNanos),
+                    millis(requestMetrics.stageNanos(RequestMetrics.Stage.BIND)),
+                    millis(requestMetrics.stageNanos(RequestMetrics.Stage.CONVERT)),
+                    millis(requestMetrics.stageNanos(RequestMetrics.Stage.ASSEMBLE)),
+                    millis(requestMetrics.stageNanos(RequestMetrics.Stage.DUMP)),
+                    millis(requestMetrics.stageNanos(RequestMetrics.Stage.COMPLIANCE)),
+                    requestMetrics.operations(), requestMetrics.maxSchemaDepth(),
+                    requestMetrics.inputBytes(), requestMetrics.outputBytes());
+        }
+    }
+
+    private Timer timer(String name, String description, String endpoint, RequestMetrics.Stage stage) {
+        Timer.Builder builder = Timer.builder(name)
+                .description(description)
+                .tag("endpoint", endpoint)
+                .publishPercentileHistogram();
+        if (stage != null) {
+            builder.tag("stage", stage.name().toLowerCase(Locale.ROOT));
+        }
+        return builder.register(meterRegistry);
+    }
+
+    // Negative values mean the request did not measure this
+    private void summary(String name, String description, String baseUnit, String endpoint, long value) {
+        if (value < 0) return;
+        DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit(baseUnit)
+                .tag("endpoint", endpoint)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(value);
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
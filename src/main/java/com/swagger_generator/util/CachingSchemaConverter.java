@@ -0,0 +1,63 @@
+package com.swagger_generator.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.swagger_generator.model.Schema;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Function;
+
+/**
+ * A {@link SchemaConverter} that memoizes converted schemas by the content hash of their JSON.
+ *
+ * <p>Cached schemas are shared between operations. Like every {@link MappingValue}, they are
+ * written out in full at every use.
+ */
+public class CachingSchemaConverter implements SchemaConverter {
+
+    private final SchemaConverter delegate;
+    private final ObjectWriter nodeWriter;
+    private final LruCache<String, CachedSchema> cache;
+
+    public CachingSchemaConverter(SchemaConverter delegate, ObjectWriter nodeWriter, long maxWeight) {
+        this.delegate = delegate;
+        this.nodeWriter = nodeWriter;
+        this.cache = new LruCache<>(maxWeight, CachedSchema::weight);
+    }
+
+    @Override
+    public Schema parseSchema(JsonNode schema) {
+        if (schema == null) return delegate.parseSchema(null);
+        return lookup("request:", schema, delegate::parseSchema);
+    }
+
+    @Override
+    public Schema parseResponseSchema(JsonNode schema) {
+        if (schema == null) return delegate.parseResponseSchema(null);
+        return lookup("response:", schema, delegate::parseResponseSchema);
+    }
+
+    public LruCache.Stats stats() {
+        return cache.stats();
+    }
+
+    private Schema lookup(String kind, JsonNode schema, Function<JsonNode, Schema> converter) {
+        ContentHash hash;
+        try {
+            hash = ContentHash.of(nodeWriter, schema);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        String key = kind + hash.value();
+        CachedSchema cached = cache.get(key);
+        if (cached == null) {
+            cached = new CachedSchema(converter.apply(schema), hash.length());
+            cache.put(key, cached);
+        }
+        return cached.schema();
+    }
+
+    private record CachedSchema(Schema schema, long weight) {
+    }
+}
@@ -0,0 +1,56 @@
+package com.swagger_generator.util;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 digest of a value, together with the number of bytes that were hashed.
+ *
+ * <p>Values are hashed through their Jackson serialization, which is streamed into the digest
+ * without building the serialized form in memory. Serializing a bound value rather than hashing
+ * the raw request body makes the hash independent of whitespace and number formatting in the input,
+ * while keeping the order of fields and list elements, which the generated output depends on.
+ */
+public record ContentHash(String value, long length) {
+
+    public static ContentHash of(ObjectWriter writer, Object content) throws IOException {
+        DigestingOutputStream outputStream = new DigestingOutputStream();
+        writer.writeValue(outputStream, content);
+        return new ContentHash(HexFormat.of().formatHex(outputStream.digest.digest()), outputStream.length);
+    }
+
+    public static ContentHash of(byte[] content) {
+        return new ContentHash(HexFormat.of().formatHex(sha256().digest(content)), content.length);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static class DigestingOutputStream extends OutputStream {
+
+        private final MessageDigest digest = sha256();
+        private long length;
+
+        @Override
+        public void write(int b) {
+            digest.update((byte) b);
+            length++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            digest.update(b, off, len);
+            length += len;
+        }
+    }
+}
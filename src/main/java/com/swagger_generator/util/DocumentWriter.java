@@ -0,0 +1,25 @@
+package com.swagger_generator.util;
+
+import java.io.Flushable;
+import java.io.IOException;
+
+/**
+ * Writes a document incrementally, one mapping entry at a time, so that a caller can build a
+ * section, write it and let it go. Keys are written as strings.
+ *
+ * <p>Implementations are not thread-safe and write a single document.
+ */
+public interface DocumentWriter extends EntryWriter, Flushable {
+
+    void startDocument() throws IOException;
+
+    /**
+     * Ends the document and flushes everything written.
+     */
+    void endDocument() throws IOException;
+
+    /**
+     * Starts the root mapping of the document, ended by {@link #endMapping()}.
+     */
+    void startMapping() throws IOException;
+}
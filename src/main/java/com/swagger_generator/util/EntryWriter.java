@@ -0,0 +1,22 @@
+package com.swagger_generator.util;
+
+import java.io.IOException;
+
+/**
+ * Writes the entries of a mapping, one at a time, nested mappings included. Keys are written as
+ * strings.
+ *
+ * <p>{@link MappingValue}s write themselves to one of these, which is either a whole
+ * {@link DocumentWriter} or a writer that only collects the entries of that value.
+ */
+public interface EntryWriter {
+
+    /**
+     * Starts a nested mapping as the value of {@code key}, ended by {@link #endMapping()}.
+     */
+    void startMapping(Object key) throws IOException;
+
+    void endMapping() throws IOException;
+
+    void writeEntry(Object key, Object value) throws IOException;
+}
@@ -0,0 +1,232 @@
+package com.swagger_generator.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only, persistent byte store for rendered document fragments, keyed by content hash.
+ *
+ * <p>Values are appended to fixed-size segment files that are memory-mapped, so reads are slices of
+ * the page cache and never copy through the heap. Only the index of keys to positions is kept on the
+ * heap; it is rebuilt from the segments when a store is opened again. Each record carries a CRC32 of
+ * its key and value, and a segment is read up to its first empty or damaged record, so a record torn
+ * by a crash is dropped together with whatever followed it in that segment.
+ *
+ * <p>Values are never replaced: a key is expected to be a hash of what it maps to, and putting a key
+ * that is already present does nothing. When a new segment would take the store over its size limit,
+ * the oldest segment is deleted with all of its values.
+ *
+ * <p>All methods are thread-safe. A directory can only be used by one store, and one process, at a
+ * time.
+ */
+public class FragmentStore implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+    // Key length (short), value length (int) and CRC32 (int)
+    private static final int RECORD_HEADER_BYTES = 10;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long maxBytes;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+    // Oldest first; guarded by this
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private long nextSegmentId;
+
+    /**
+     * Opens the store in {@code directory}, creating the directory if needed.
+     *
+     * @param segmentBytes size of each segment file; a value larger than this gets a segment of its own
+     * @param maxBytes     upper bound on the total size of the segment files
+     */
+    public FragmentStore(Path directory, int segmentBytes, long maxBytes) throws IOException {
+        if (segmentBytes <= RECORD_HEADER_BYTES) {
+            throw new IllegalArgumentException("segmentBytes must be larger than " + RECORD_HEADER_BYTES);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentBytes = segmentBytes;
+        this.maxBytes = maxBytes;
+        this.lockChannel = FileChannel.open(directory.resolve(".lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.lock = lockChannel.tryLock();
+        if (lock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Fragment store " + directory + " is in use by another process");
+        }
+
+        List<Path> segmentFiles;
+        try (Stream<Path> files = Files.list(directory)) {
+            segmentFiles = files.filter(file -> segmentId(file) >= 0)
+                    .sorted(Comparator.comparingLong(FragmentStore::segmentId))
+                    .toList();
+        }
+        for (Path file : segmentFiles) {
+            Segment segment = Segment.open(file, segmentId(file), Files.size(file));
+            segment.position = scan(segment);
+            segments.addLast(segment);
+            nextSegmentId = segment.id + 1;
+        }
+    }
+
+    /**
+     * The value stored under {@code key} as a read-only buffer, or {@code null} if there is none.
+     * The buffer stays valid after its segment has been evicted.
+     */
+    public ByteBuffer get(String key) {
+        Location location = index.get(key);
+        return location == null ? null : location.segment.buffer.slice(location.offset, location.length).asReadOnlyBuffer();
+    }
+
+    public boolean contains(String key) {
+        return index.containsKey(key);
+    }
+
+    /**
+     * Appends {@code value} under {@code key}, unless the key is already present.
+     */
+    public synchronized void put(String key, byte[] value) throws IOException {
+        if (index.containsKey(key)) return;
+
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length == 0 || keyBytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Key must be between 1 and " + Short.MAX_VALUE + " bytes");
+        }
+        int recordBytes = RECORD_HEADER_BYTES + keyBytes.length + value.length;
+        Segment segment = segments.peekLast();
+        if (segment == null || segment.capacity() - segment.position < recordBytes) {
+            segment = addSegment(Math.max(segmentBytes, recordBytes));
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(keyBytes);
+        crc.update(value);
+        int offset = segment.position;
+        MappedByteBuffer buffer = segment.buffer;
+        // The key length goes in last: until it is non-zero, the record reads as the end of the segment
+        buffer.put(offset + RECORD_HEADER_BYTES, keyBytes);
+        buffer.put(offset + RECORD_HEADER_BYTES + keyBytes.length, value);
+        buffer.putInt(offset + 2, value.length);
+        buffer.putInt(offset + 6, (int) crc.getValue());
+        buffer.putShort(offset, (short) keyBytes.length);
+        segment.position = offset + recordBytes;
+
+        index.put(key, new Location(segment, offset + RECORD_HEADER_BYTES + keyBytes.length, value.length));
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Writes all segments back to disk and releases the directory.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            for (Segment segment : segments) {
+                segment.buffer.force();
+                segment.channel.close();
+            }
+            segments.clear();
+            index.clear();
+        } finally {
+            lock.release();
+            lockChannel.close();
+        }
+    }
+
+    private Segment addSegment(int capacity) throws IOException {
+        long totalBytes = capacity;
+        for (Segment segment : segments) {
+            totalBytes += segment.capacity();
+        }
+        while (!segments.isEmpty() && totalBytes > maxBytes) {
+            Segment oldest = segments.removeFirst();
+            totalBytes -= oldest.capacity();
+            index.values().removeIf(location -> location.segment == oldest);
+            oldest.channel.close();
+            Files.deleteIfExists(oldest.path);
+        }
+
+        long id = nextSegmentId++;
+        Segment segment = Segment.open(directory.resolve(SEGMENT_PREFIX + id + SEGMENT_SUFFIX), id, capacity);
+        segments.addLast(segment);
+        return segment;
+    }
+
+    // Indexes the records of a segment and returns the position after the last valid one
+    private int scan(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer;
+        int position = 0;
+        while (position + RECORD_HEADER_BYTES <= segment.capacity()) {
+            int keyLength = buffer.getShort(position);
+            int valueLength = buffer.getInt(position + 2);
+            int valueOffset = position + RECORD_HEADER_BYTES + keyLength;
+            if (keyLength <= 0 || valueLength < 0 || valueOffset > segment.capacity() - valueLength) break;
+
+            byte[] keyBytes = new byte[keyLength];
+            buffer.get(position + RECORD_HEADER_BYTES, keyBytes);
+            CRC32 crc = new CRC32();
+            crc.update(keyBytes);
+            crc.update(buffer.slice(valueOffset, valueLength));
+            if ((int) crc.getValue() != buffer.getInt(position + 6)) break;
+
+            index.putIfAbsent(new String(keyBytes, StandardCharsets.UTF_8), new Location(segment, valueOffset, valueLength));
+            position = valueOffset + valueLength;
+        }
+        return position;
+    }
+
+    private static long segmentId(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) return -1;
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private record Location(Segment segment, int offset, int length) {
+    }
+
+    private static final class Segment {
+
+        private final Path path;
+        private final long id;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int position;
+
+        private Segment(Path path, long id, FileChannel channel, MappedByteBuffer buffer) {
+            this.path = path;
+            this.id = id;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        // Mapping beyond the end of the file extends it, with zeros
+        static Segment open(Path path, long id, long capacity) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new Segment(path, id, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+        }
+
+        int capacity() {
+            return buffer.capacity();
+        }
+    }
+}
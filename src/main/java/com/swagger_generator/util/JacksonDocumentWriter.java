@@ -0,0 +1,82 @@
+package com.swagger_generator.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link DocumentWriter} on a Jackson {@link JsonGenerator}, for JSON or any binary format
+ * Jackson has a generator for, such as Smile or CBOR.
+ *
+ * <p>Maps, lists and {@link MappingValue}s are written by this writer, and any other value by the
+ * generator's codec, so the generator must come from an {@code ObjectMapper}'s factory. The underlying stream is flushed at the end of the document but
+ * not closed.
+ */
+public class JacksonDocumentWriter implements DocumentWriter {
+
+    private final JsonGenerator generator;
+
+    public JacksonDocumentWriter(JsonGenerator generator) {
+        this.generator = generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    @Override
+    public void startDocument() {
+    }
+
+    @Override
+    public void endDocument() throws IOException {
+        generator.close();
+    }
+
+    @Override
+    public void startMapping() throws IOException {
+        generator.writeStartObject();
+    }
+
+    @Override
+    public void startMapping(Object key) throws IOException {
+        generator.writeFieldName(String.valueOf(key));
+        generator.writeStartObject();
+    }
+
+    @Override
+    public void endMapping() throws IOException {
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void writeEntry(Object key, Object value) throws IOException {
+        generator.writeFieldName(String.valueOf(key));
+        writeValue(value);
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (value instanceof MappingValue mappingValue) {
+            generator.writeStartObject();
+            mappingValue.writeEntries(this);
+            generator.writeEndObject();
+        } else if (value instanceof Map<?, ?> map) {
+            generator.writeStartObject();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeEntry(entry.getKey(), entry.getValue());
+            }
+            generator.writeEndObject();
+        } else if (value instanceof List<?> list) {
+            generator.writeStartArray();
+            for (Object item : list) {
+                writeValue(item);
+            }
+            generator.writeEndArray();
+        } else {
+            generator.writeObject(value);
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+}
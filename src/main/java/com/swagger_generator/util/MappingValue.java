@@ -0,0 +1,16 @@
+package com.swagger_generator.util;
+
+import java.io.IOException;
+
+/**
+ * A document value that is a mapping but is not held as a {@code Map}: it writes its entries to an
+ * {@link EntryWriter} when the document is written.
+ *
+ * <p>The {@link DocumentWriter}s and {@link YamlPool}'s dumpers write such values wherever a map
+ * could appear. Instances may be shared between documents and between places in one document;
+ * they are written in full at every use and never anchored.
+ */
+public interface MappingValue {
+
+    void writeEntries(EntryWriter writer) throws IOException;
+}
@@ -0,0 +1,44 @@
+package com.swagger_generator.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.swagger_generator.model.Schema;
+
+/**
+ * Converts the example JSON bodies of a {@code SwaggerSchemaRequest} into {@link Schema}s.
+ *
+ * <p>{@link #DEFAULT} converts every schema from scratch with {@link Utility}, within
+ * {@link SchemaLimits#DEFAULT}; {@link #withLimits} does the same within other limits. Other
+ * implementations may add caching on top, but must return the same schema for the same input.
+ */
+public interface SchemaConverter {
+
+    SchemaConverter DEFAULT = withLimits(SchemaLimits.DEFAULT);
+
+    /**
+     * Converts with {@link Utility}, throwing {@link SchemaLimitExceededException} for schemas over
+     * {@code limits}.
+     */
+    static SchemaConverter withLimits(SchemaLimits limits) {
+        return new SchemaConverter() {
+            @Override
+            public Schema parseSchema(JsonNode schema) {
+                return Utility.parseSchema(schema, limits);
+            }
+
+            @Override
+            public Schema parseResponseSchema(JsonNode schema) {
+                return Utility.parseResponseSchema(schema, limits);
+            }
+        };
+    }
+
+    /**
+     * @see Utility#parseSchema(JsonNode, SchemaLimits)
+     */
+    Schema parseSchema(JsonNode schema);
+
+    /**
+     * @see Utility#parseResponseSchema(JsonNode, SchemaLimits)
+     */
+    Schema parseResponseSchema(JsonNode schema);
+}
@@ -0,0 +1,94 @@
+package com.swagger_generator.util;
+
+import com.swagger_generator.model.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves the object schemas of generated operations into {@code components/schemas} and replaces
+ * every use with a {@link SchemaRef}, so that a shape repeated across operations is written once.
+ *
+ * <p>Schemas are interned bottom-up: nested objects and array items are replaced by references
+ * first, so comparing an object only compares its own properties and stays cheap no matter how
+ * deep the schema is. {@link ObjectSchema}s compare by their properties sorted by name, which makes
+ * the lookup independent of property order; a component lists its properties as they were first
+ * seen. Every object schema with at least one property is interned; empty objects and leaf types
+ * stay inline.
+ *
+ * <p>A component is named after the property it was first seen under, e.g. {@code Address}, or
+ * after the operation for request and response bodies, with a numeric suffix on collisions.
+ *
+ * <p>Instances collect the components of a single document and are not thread-safe; operations
+ * must be passed in document order for the names to be stable.
+ */
+public class SchemaDeduplicator {
+
+    private final Map<ObjectSchema, String> namesBySchema = new HashMap<>();
+    private final Map<String, Schema> schemas = new LinkedHashMap<>();
+
+    /**
+     * Returns {@code operation} with its request and response schemas interned.
+     *
+     * @param httpMethod the lower-case HTTP method of the operation
+     * @param endpoint   the path of the operation, used to name its body schemas
+     */
+    public Operation deduplicate(Operation operation, String httpMethod, String endpoint) {
+        String operationName = componentName(operation.operationId() != null ? operation.operationId() : httpMethod + " " + endpoint);
+        Schema requestSchema = operation.requestSchema() != null ? intern(operation.requestSchema(), operationName + "Request") : null;
+        return operation.withSchemas(requestSchema, intern(operation.responseSchema(), operationName + "Response"));
+    }
+
+    /**
+     * The interned schemas by component name, in order of first use.
+     */
+    public Map<String, Schema> schemas() {
+        return schemas;
+    }
+
+    private Schema intern(Schema schema, String name) {
+        if (schema instanceof ArraySchema array) {
+            return ArraySchema.of(intern(array.items(), name + "Item"));
+        }
+        if (schema instanceof UnionSchema union) {
+            List<Schema> alternatives = new ArrayList<>(union.alternatives().size());
+            for (Schema alternative : union.alternatives()) {
+                alternatives.add(intern(alternative, name));
+            }
+            return new UnionSchema(alternatives);
+        }
+        // A nullable schema stays inline: siblings of a $ref, such as nullable, are ignored
+        if (!(schema instanceof ObjectSchema object) || object.size() == 0) {
+            return schema;
+        }
+
+        Schema[] properties = new Schema[object.size()];
+        for (int i = 0; i < properties.length; i++) {
+            properties[i] = intern(object.schema(i), componentName(object.name(i)));
+        }
+        ObjectSchema interned = object.withSchemas(properties);
+        String componentName = namesBySchema.computeIfAbsent(interned, form -> {
+            String unique = name;
+            for (int suffix = 2; schemas.containsKey(unique); suffix++) {
+                unique = name + suffix;
+            }
+            schemas.put(unique, interned);
+            return unique;
+        });
+        return new SchemaRef(componentName);
+    }
+
+    // "billing_address" -> "BillingAddress"; component names may only contain [A-Za-z0-9._-]
+    private static String componentName(String hint) {
+        StringBuilder name = new StringBuilder();
+        for (String word : hint.split("[^A-Za-z0-9]+")) {
+            if (!word.isEmpty()) {
+                name.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+            }
+        }
+        return name.length() > 0 ? name.toString() : "Schema";
+    }
+}
@@ -0,0 +1,32 @@
+package com.swagger_generator.util;
+
+/**
+ * Thrown when an example schema is over one of its {@link SchemaLimits}. Conversion stops at the
+ * first value over the limit, which {@link #getPath()} names.
+ */
+public class SchemaLimitExceededException extends IllegalArgumentException {
+
+    private final String reason;
+    private final String path;
+
+    /**
+     * @param path where the limit was reached, e.g. {@code $.address.lines[0]}
+     */
+    public SchemaLimitExceededException(String reason, String path) {
+        super(reason + " at " + path);
+        this.reason = reason;
+        this.path = path;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * The same error with the root of the path, {@code $}, replaced by {@code location}, e.g.
+     * {@code POST /users requestSchema}.
+     */
+    public SchemaLimitExceededException in(String location) {
+        return new SchemaLimitExceededException(reason, location + path.substring(1));
+    }
+}
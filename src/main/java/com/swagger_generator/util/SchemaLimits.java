@@ -0,0 +1,15 @@
+package com.swagger_generator.util;
+
+/**
+ * Bounds on the example schemas {@link Utility} converts, so that converting a crafted schema
+ * costs no more than converting a large legitimate one.
+ *
+ * @param maxDepth      deepest nesting of objects; arrays follow their first element and do not
+ *                      count a level of their own
+ * @param maxProperties most properties of a single object
+ * @param maxNodes      most values converted in one schema, counting every object and property
+ */
+public record SchemaLimits(int maxDepth, int maxProperties, int maxNodes) {
+
+    public static final SchemaLimits DEFAULT = new SchemaLimits(128, 1_000, 100_000);
+}
@@ -0,0 +1,261 @@
+package com.swagger_generator.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.swagger_generator.entity.SwaggerSchemaRequest;
+import com.swagger_generator.model.*;
+
+import java.util.*;
+import java.util.function.ToLongBiFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the individual sections of the generated Swagger document.
+ *
+ * <p>The in-memory generator and the streaming writer both assemble the document from these
+ * pieces, so the two code paths always agree on the structure and ordering of the output.
+ */
+public final class SwaggerDocumentBuilder {
+
+    private SwaggerDocumentBuilder() {
+    }
+
+    // Built as LinkedHashMaps: the iteration order of Map.of changes from one JVM start to the next,
+    // and with it the bytes and content hash of every generated document
+    public static Map<String, Object> buildInfo() {
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("title", "Dynamic API");
+        info.put("version", "1.0.0");
+        info.put("description", "Dynamically generated API documentation");
+        return info;
+    }
+
+    public static Map<String, Object> buildComponents() {
+        Map<String, Object> bearerAuth = new LinkedHashMap<>();
+        bearerAuth.put("type", "http");
+        bearerAuth.put("scheme", "bearer");
+        bearerAuth.put("bearerFormat", "JWT");
+        Map<String, Object> securitySchemes = new LinkedHashMap<>();
+        securitySchemes.put("bearerAuth", bearerAuth);
+        Map<String, Object> components = new LinkedHashMap<>();
+        components.put("securitySchemes", securitySchemes);
+        return components;
+    }
+
+    /**
+     * The components section with {@code schemas} added after the security schemes, see
+     * {@link SchemaDeduplicator}. Without any schemas it is the same as {@link #buildComponents()}.
+     */
+    public static Map<String, Object> buildComponents(Map<String, ? extends Schema> schemas) {
+        if (schemas.isEmpty()) {
+            return buildComponents();
+        }
+        Map<String, Object> components = new LinkedHashMap<>(buildComponents());
+        components.put("schemas", schemas);
+        return components;
+    }
+
+    public static List<Map<String, Object>> buildSecurity() {
+        return List.of(Map.of("bearerAuth", List.of()));
+    }
+
+    /**
+     * Groups the requests the same way the {@code paths} section is laid out: endpoints in order
+     * of first appearance, methods in order of first appearance within an endpoint, and a later
+     * request for the same endpoint and method replacing the earlier one.
+     */
+    public static Map<String, Map<String, SwaggerSchemaRequest>> groupByPath(List<SwaggerSchemaRequest> swaggerSchemaRequests) {
+        Map<String, Map<String, SwaggerSchemaRequest>> grouped = new LinkedHashMap<>();
+        for (SwaggerSchemaRequest schemaRequest : swaggerSchemaRequests) {
+            grouped.computeIfAbsent(schemaRequest.getEndpoint(), endpoint -> new LinkedHashMap<>())
+                    .put(schemaRequest.getHttpMethod().toLowerCase(), schemaRequest);
+        }
+        return grouped;
+    }
+
+    public static Operation buildOperation(SwaggerSchemaRequest schemaRequest) {
+        return buildOperation(schemaRequest, SchemaConverter.DEFAULT);
+    }
+
+    public static Operation buildOperation(SwaggerSchemaRequest schemaRequest, SchemaConverter schemaConverter) {
+        String httpMethod = schemaRequest.getHttpMethod().toLowerCase();
+
+        List<Map<String, Object>> parameters = null;
+        if (schemaRequest.getParameters() != null) {
+            parameters = schemaRequest.getParameters().stream()
+                    .filter(param -> !"Authorization".equals(param.get("name")))
+                    .collect(Collectors.toList());
+            if (parameters.isEmpty()) {
+                parameters = null;
+            }
+        }
+
+        Schema requestSchema = null;
+        Schema responseSchema;
+        try {
+            if (hasRequestBody(httpMethod)) {
+                requestSchema = schemaConverter.parseSchema(schemaRequest.getRequestSchema());
+            }
+        } catch (SchemaLimitExceededException e) {
+            throw e.in(httpMethod.toUpperCase() + " " + schemaRequest.getEndpoint() + " requestSchema");
+        }
+        try {
+            responseSchema = schemaConverter.parseResponseSchema(schemaRequest.getResponseSchema());
+        } catch (SchemaLimitExceededException e) {
+            throw e.in(httpMethod.toUpperCase() + " " + schemaRequest.getEndpoint() + " responseSchema");
+        }
+
+        return new Operation(
+                Optional.ofNullable(schemaRequest.getDescription()).orElse("Generated endpoint description"),
+                schemaRequest.getOperationId(),
+                requestSchema,
+                responseSchema,
+                parameters,
+                schemaRequest.getTags());
+    }
+
+    /**
+     * Works out the anchors SnakeYAML assigns when the whole document is dumped in one go, with
+     * {@link LeafSchema#EMPTY} passed to {@link YamlPool#dump(Object, Collection)} as shared.
+     *
+     * <p>The document shares two instances between places: the empty schema written for a missing
+     * body or an empty example array, and the empty scope list inside every {@code security} entry.
+     * SnakeYAML anchors an instance on its first appearance once it has seen it twice, numbering
+     * anchors in the order of those second appearances. A streaming writer has to know this before
+     * the first appearance is written, so the occurrences are counted here from the requests alone,
+     * without converting any schema.
+     *
+     * @param grouped the requests as returned by {@link #groupByPath(List)}
+     * @return the anchor name for each shared instance that needs one, keyed by identity
+     */
+    public static Map<Object, String> planSharedAnchors(Map<String, Map<String, SwaggerSchemaRequest>> grouped) {
+        return planSharedAnchors(grouped, (httpMethod, schemaRequest) -> {
+            long emptySchemas = countEmptySchemas(schemaRequest.getResponseSchema());
+            if (hasRequestBody(httpMethod)) {
+                emptySchemas += countEmptySchemas(schemaRequest.getRequestSchema());
+            }
+            return emptySchemas;
+        });
+    }
+
+    /**
+     * Same as {@link #planSharedAnchors(Map)}, for operations that have already been built with
+     * {@link #buildOperation(SwaggerSchemaRequest)}.
+     */
+    public static Map<Object, String> planSharedAnchorsForOperations(Map<String, Map<String, Operation>> paths) {
+        return planSharedAnchors(paths, (httpMethod, operation) ->
+                countEmptySchemas(operation.requestSchema()) + countEmptySchemas(operation.responseSchema()));
+    }
+
+    /**
+     * The anchors of a document whose empty schemas are not shared, such as one with deduplicated
+     * schemas: only the scope lists are.
+     *
+     * @param grouped the operations or their requests, keyed by endpoint and method
+     */
+    public static <T> Map<Object, String> planScopeAnchors(Map<String, ? extends Map<String, T>> grouped) {
+        return planSharedAnchors(grouped, (httpMethod, operation) -> 0);
+    }
+
+    private static <T> Map<Object, String> planSharedAnchors(Map<String, ? extends Map<String, T>> grouped,
+                                                             ToLongBiFunction<String, T> emptySchemaCounter) {
+        Object emptyScopes = List.of();
+
+        // Document order within an operation is: schemas (empty schema), then security (empty scopes);
+        // the root security entry follows all operations.
+        long position = 0;
+        long emptySchemaSeen = 0, emptySchemaSecond = -1;
+        long emptyScopesSeen = 0, emptyScopesSecond = -1;
+        for (Map<String, T> methods : grouped.values()) {
+            for (Map.Entry<String, T> method : methods.entrySet()) {
+                long emptySchemas = emptySchemaCounter.applyAsLong(method.getKey(), method.getValue());
+                if (emptySchemaSecond < 0 && emptySchemaSeen + emptySchemas >= 2) {
+                    emptySchemaSecond = position + (emptySchemaSeen == 0 ? 1 : 0);
+                }
+                emptySchemaSeen += emptySchemas;
+                position += emptySchemas;
+
+                if (++emptyScopesSeen == 2) {
+                    emptyScopesSecond = position;
+                }
+                position++;
+            }
+        }
+        if (++emptyScopesSeen == 2) {
+            emptyScopesSecond = position;
+        }
+
+        Map<Object, String> anchors = new IdentityHashMap<>();
+        if (emptySchemaSecond >= 0 && (emptyScopesSecond < 0 || emptySchemaSecond < emptyScopesSecond)) {
+            anchors.put(LeafSchema.EMPTY, anchorName(anchors.size() + 1));
+        }
+        if (emptyScopesSecond >= 0) {
+            anchors.put(emptyScopes, anchorName(anchors.size() + 1));
+        }
+        if (emptySchemaSecond >= 0 && !anchors.containsKey(LeafSchema.EMPTY)) {
+            anchors.put(LeafSchema.EMPTY, anchorName(anchors.size() + 1));
+        }
+        return anchors;
+    }
+
+    /**
+     * Whether operations of the lower-case {@code httpMethod} are documented with a request body.
+     */
+    public static boolean hasRequestBody(String httpMethod) {
+        return !httpMethod.equals("get") && !httpMethod.equals("delete");
+    }
+
+    /**
+     * Counts how many times the schema converter returns {@link LeafSchema#EMPTY} for this example:
+     * once for a missing example, plus once for every empty array nested inside it.
+     */
+    private static long countEmptySchemas(JsonNode schema) {
+        if (schema == null) return 1;
+
+        long count = 0;
+        Deque<JsonNode> objects = new ArrayDeque<>();
+        objects.push(schema);
+        while (!objects.isEmpty()) {
+            JsonNode object = objects.pop();
+            if (!object.isObject()) continue;
+            for (JsonNode fieldValue : object) {
+                if (fieldValue.isArray() && fieldValue.isEmpty()) {
+                    count++;
+                } else if (fieldValue.isArray()) {
+                    objects.push(fieldValue.get(0));
+                } else {
+                    objects.push(fieldValue);
+                }
+            }
+        }
+        return count;
+    }
+
+    private static long countEmptySchemas(Schema schema) {
+        long count = 0;
+        Deque<Schema> pending = new ArrayDeque<>();
+        if (schema != null) {
+            pending.push(schema);
+        }
+        while (!pending.isEmpty()) {
+            Schema next = pending.pop();
+            if (next == LeafSchema.EMPTY) {
+                count++;
+            } else if (next instanceof ArraySchema array) {
+                pending.push(array.items());
+            } else if (next instanceof ObjectSchema object) {
+                for (int i = 0; i < object.size(); i++) {
+                    pending.push(object.schema(i));
+                }
+            } else if (next instanceof NullableSchema nullable) {
+                pending.push(nullable.schema());
+            } else if (next instanceof UnionSchema union) {
+                union.alternatives().forEach(pending::push);
+            }
+        }
+        return count;
+    }
+
+    private static String anchorName(int index) {
+        return String.format("id%03d", index);
+    }
+}
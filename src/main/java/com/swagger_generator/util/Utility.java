@@ -4,119 +4,160 @@ import com.fasterxml.jackson.databind.JsonNode;
 
 import java.util.*;
 
-import org.yaml.snakeyaml.Yaml;
+import com.swagger_generator.compliance.ComplianceEngine;
+import com.swagger_generator.compliance.ComplianceIssue;
+import com.swagger_generator.compliance.StandardRules;
+import com.swagger_generator.model.ArraySchema;
+import com.swagger_generator.model.LeafSchema;
+import com.swagger_generator.model.ObjectSchema;
+import com.swagger_generator.model.Schema;
+import org.yaml.snakeyaml.LoaderOptions;
 
 public class Utility {
 
-    public static Map<String, Object> parseSchema(JsonNode schema) {
-        if (schema == null) return Collections.emptyMap();
-
-        Map<String, Object> schemaMap = new HashMap<>();
-        schemaMap.put("type", "object");
-
-        Map<String, Object> properties = new HashMap<>();
-        schema.fields().forEachRemaining(field -> {
-            JsonNode fieldValue = field.getValue();
-            if (fieldValue.isObject()) {
-                properties.put(field.getKey(), parseSchema(fieldValue));
-            } else if (fieldValue.isArray()) {
-                JsonNode arrayElement = fieldValue.elements().hasNext() ? fieldValue.elements().next() : null;
-                properties.put(field.getKey(), Map.of(
-                        "type", "array",
-                        "items", parseSchema(arrayElement)
-                ));
-            } else {
-                String fieldType = fieldValue.asText();
-                properties.put(field.getKey(), Map.of(
-                        "type", "number".equalsIgnoreCase(fieldType) ? "number" : "string"
-                ));
-            }
-        });
+    public static Schema parseSchema(JsonNode schema) {
+        return parseSchema(schema, SchemaLimits.DEFAULT);
+    }
 
-        schemaMap.put("properties", properties);
-        return schemaMap;
+    /**
+     * Converts a request example: a field is a number if its value is the text "number", and a
+     * string otherwise.
+     *
+     * @throws SchemaLimitExceededException as soon as the example is over one of {@code limits}
+     */
+    public static Schema parseSchema(JsonNode schema, SchemaLimits limits) {
+        return convert(schema, false, limits);
     }
 
     // New method for response schema parsing to handle updated structure
-    public static Map<String, Object> parseResponseSchema(JsonNode schema) {
-        if (schema == null) return Collections.emptyMap();
-
-        Map<String, Object> schemaMap = new HashMap<>();
-        schemaMap.put("type", "object");
-
-        Map<String, Object> properties = new HashMap<>();
-        schema.fields().forEachRemaining(field -> {
-            JsonNode fieldValue = field.getValue();
-            if (fieldValue.isObject()) {
-                properties.put(field.getKey(), parseResponseSchema(fieldValue));
-            } else if (fieldValue.isArray()) {
-                JsonNode arrayElement = fieldValue.elements().hasNext() ? fieldValue.elements().next() : null;
-                properties.put(field.getKey(), Map.of(
-                        "type", "array",
-                        "items", parseResponseSchema(arrayElement)
-                ));
-            } else {
-                String fieldType = fieldValue.isNumber() ? "number" : "string";
-                if (field.getKey().equals("amount")) {
-                    fieldType = "number";  // Ensure 'amount' is a number
+    public static Schema parseResponseSchema(JsonNode schema) {
+        return parseResponseSchema(schema, SchemaLimits.DEFAULT);
+    }
+
+    /**
+     * Converts a response example: a field is a number if its value is a number or it is named
+     * "amount", and a string otherwise.
+     *
+     * @throws SchemaLimitExceededException as soon as the example is over one of {@code limits}
+     */
+    public static Schema parseResponseSchema(JsonNode schema, SchemaLimits limits) {
+        return convert(schema, true, limits);
+    }
+
+    // Walks the example depth-first with an explicit stack of the objects being converted, so that
+    // nesting costs heap for one frame per level rather than a call stack frame
+    private static Schema convert(JsonNode root, boolean response, SchemaLimits limits) {
+        if (root == null) return LeafSchema.EMPTY;
+
+        int[] nodes = {0};
+        ObjectFrame frame = ObjectFrame.open(root, null, null, false, limits, nodes);
+        while (true) {
+            if (frame.next < frame.names.length) {
+                Map.Entry<String, JsonNode> field = frame.fields.next();
+                int i = frame.next++;
+                String name = field.getKey();
+                JsonNode fieldValue = field.getValue();
+                frame.names[i] = name;
+                if (fieldValue.isObject()) {
+                    frame = ObjectFrame.open(fieldValue, frame, name, false, limits, nodes);
+                } else if (fieldValue.isArray() && !fieldValue.isEmpty()) {
+                    // Only the first element describes the items; anything but an object, e.g. a
+                    // scalar, is an object without properties
+                    frame = ObjectFrame.open(fieldValue.get(0), frame, name, true, limits, nodes);
+                } else {
+                    countNode(frame, name, false, limits, nodes);
+                    if (fieldValue.isArray()) {
+                        frame.schemas[i] = ArraySchema.of(LeafSchema.EMPTY);
+                    } else if (response) {
+                        // Ensure 'amount' is a number
+                        frame.schemas[i] = fieldValue.isNumber() || name.equals("amount") ? LeafSchema.NUMBER : LeafSchema.STRING;
+                    } else {
+                        frame.schemas[i] = "number".equalsIgnoreCase(fieldValue.asText()) ? LeafSchema.NUMBER : LeafSchema.STRING;
+                    }
                 }
-                properties.put(field.getKey(), Map.of(
-                        "type", fieldType
-                ));
+                continue;
             }
-        });
 
-        schemaMap.put("properties", properties);
-        return schemaMap;
+            Schema converted = ObjectSchema.of(frame.names, frame.schemas);
+            ObjectFrame parent = frame.parent;
+            if (parent == null) return converted;
+            parent.schemas[parent.next - 1] = frame.arrayItem ? ArraySchema.of(converted) : converted;
+            frame = parent;
+        }
     }
 
+    private static void countNode(ObjectFrame parent, String name, boolean arrayItem, SchemaLimits limits, int[] nodes) {
+        if (++nodes[0] > limits.maxNodes()) {
+            throw new SchemaLimitExceededException("More than " + limits.maxNodes() + " values", path(parent, name, arrayItem));
+        }
+    }
+
+    // $.address.lines[0] for the first item of the lines array of the address object
+    private static String path(ObjectFrame parent, String name, boolean arrayItem) {
+        List<String> segments = new ArrayList<>();
+        if (name != null) {
+            segments.add(arrayItem ? "." + name + "[0]" : "." + name);
+        }
+        for (ObjectFrame frame = parent; frame != null && frame.name != null; frame = frame.parent) {
+            segments.add(frame.arrayItem ? "." + frame.name + "[0]" : "." + frame.name);
+        }
+        StringBuilder path = new StringBuilder("$");
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            path.append(segments.get(i));
+        }
+        return path.toString();
+    }
+
+    // An object whose properties are being converted, and where its schema goes once they are
+    private static final class ObjectFrame {
+
+        private final ObjectFrame parent;
+        private final String name;
+        private final boolean arrayItem;
+        private final int depth;
+        private final String[] names;
+        private final Schema[] schemas;
+        private final Iterator<Map.Entry<String, JsonNode>> fields;
+        private int next;
+
+        private ObjectFrame(ObjectFrame parent, String name, boolean arrayItem, int depth, JsonNode node, int size) {
+            this.parent = parent;
+            this.name = name;
+            this.arrayItem = arrayItem;
+            this.depth = depth;
+            this.names = new String[size];
+            this.schemas = new Schema[size];
+            this.fields = node.fields();
+        }
+
+        static ObjectFrame open(JsonNode node, ObjectFrame parent, String name, boolean arrayItem, SchemaLimits limits, int[] nodes) {
+            countNode(parent, name, arrayItem, limits, nodes);
+            int depth = parent == null ? 1 : parent.depth + 1;
+            if (depth > limits.maxDepth()) {
+                throw new SchemaLimitExceededException("Nesting deeper than " + limits.maxDepth() + " objects", path(parent, name, arrayItem));
+            }
+            int size = node.isObject() ? node.size() : 0;
+            if (size > limits.maxProperties()) {
+                throw new SchemaLimitExceededException("More than " + limits.maxProperties() + " properties", path(parent, name, arrayItem));
+            }
+            return new ObjectFrame(parent, name, arrayItem, depth, node, size);
+        }
+    }
+
+    private static final ComplianceEngine COMPLIANCE_ENGINE = new ComplianceEngine(StandardRules.specRules());
+
+    private static final YamlPool YAML_POOL = new YamlPool(new LoaderOptions());
+
     public static List<String> checkCompliance(String swaggerYamlContent) {
         List<String> issues = new ArrayList<>();
 
         try {
             // Parse YAML into a structured object
-            Yaml yaml = new Yaml();
-            Map<String, Object> parsedYaml = yaml.load(swaggerYamlContent);
+            Map<String, Object> parsedYaml = YAML_POOL.load(swaggerYamlContent);
 
-            // Check for security definitions
-            Map<String, Object> components = (Map<String, Object>) parsedYaml.get("components");
-            if (components == null || !components.containsKey("securitySchemes")) {
-                issues.add("Security schemes are missing from components.");
-            }
-
-            // Check if paths have `security` definitions
-            Map<String, Object> paths = (Map<String, Object>) parsedYaml.get("paths");
-            if (paths != null) {
-                for (Map.Entry<String, Object> pathEntry : paths.entrySet()) {
-                    String endpoint = pathEntry.getKey();
-                    Map<String, Object> methods = (Map<String, Object>) pathEntry.getValue();
-
-                    for (Map.Entry<String, Object> methodEntry : methods.entrySet()) {
-                        String method = methodEntry.getKey();
-                        Map<String, Object> methodDetails = (Map<String, Object>) methodEntry.getValue();
-
-                        // Check for security definitions
-                        if (!methodDetails.containsKey("security")) {
-                            issues.add("Missing security definitions for " + method.toUpperCase() + " " + endpoint);
-                        }
-
-                        // Check if Authorization is in the correct place
-                        List<Map<String, Object>> parameters = (List<Map<String, Object>>) methodDetails.get("parameters");
-                        if (parameters != null) {
-                            for (Map<String, Object> param : parameters) {
-                                if ("Authorization".equals(param.get("name")) && !"header".equals(param.get("in"))) {
-                                    issues.add("Authorization parameter should be in the header for " + method.toUpperCase() + " " + endpoint);
-                                }
-                            }
-                        }
-
-                        // Check for response schemas
-                        Map<String, Object> responses = (Map<String, Object>) methodDetails.get("responses");
-                        if (responses == null || !responses.containsKey("400")) {
-                            issues.add("Error response (e.g., 400) is missing for " + method.toUpperCase() + " " + endpoint);
-                        }
-                    }
-                }
+            // Run every rule in a single pass over the document
+            for (ComplianceIssue issue : COMPLIANCE_ENGINE.check(parsedYaml)) {
+                issues.add(issue.message());
             }
         } catch (Exception e) {
             issues.add("Error parsing or analyzing the Swagger YAML content: " + e.getMessage());
@@ -0,0 +1,234 @@
+package com.swagger_generator.util;
+
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.representer.Representer;
+import org.yaml.snakeyaml.serializer.NumberAnchorGenerator;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.events.Event;
+
+import java.io.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-thread, preconfigured SnakeYAML instances and output buffers.
+ *
+ * <p>Setting up a {@link Yaml} builds its representers, constructors and resolver tables, which is
+ * a noticeable part of a small request. A {@code Yaml} is not thread-safe but can be reused on the
+ * thread that owns it, so each thread keeps one dumper and one loader for its lifetime, plus an
+ * output buffer that is reused as long as it stays under {@link #RETAINED_BUFFER_BYTES}.
+ *
+ * <p>The dumpers write {@link MappingValue}s like maps. They only anchor those passed to
+ * {@link #dump(Object, Collection)} as shared, the way SnakeYAML anchors any map it meets twice.
+ *
+ * <p>Everything handed out belongs to the calling thread and must not be passed to another one.
+ * Calls may not be nested: a callback given to {@link #toByteArray(OutputWriter)} that needs a
+ * buffer of its own gets a fresh one.
+ */
+public class YamlPool {
+
+    /**
+     * Buffers that grew beyond this many bytes are dropped after use, so one very large document
+     * does not pin its buffer to a thread.
+     */
+    public static final int RETAINED_BUFFER_BYTES = 1024 * 1024;
+
+    private final DumperOptions dumperOptions;
+    private final LoaderOptions loaderOptions;
+    private final ThreadLocal<Dumper> dumpers;
+    private final ThreadLocal<Yaml> loaders;
+    private final ThreadLocal<ReusableBuffer> buffers = ThreadLocal.withInitial(ReusableBuffer::new);
+
+    /**
+     * @param loaderOptions limits applied when loading and parsing documents
+     */
+    public YamlPool(LoaderOptions loaderOptions) {
+        this.dumperOptions = newDumperOptions();
+        this.loaderOptions = loaderOptions;
+        this.dumpers = ThreadLocal.withInitial(Dumper::new);
+        // The options have to reach the reader and composer as well, not only the constructor
+        this.loaders = ThreadLocal.withInitial(() -> new Yaml(new SafeConstructor(loaderOptions),
+                new Representer(dumperOptions), dumperOptions, loaderOptions));
+    }
+
+    /**
+     * The options documents are dumped with: block style throughout.
+     */
+    public DumperOptions dumperOptions() {
+        return dumperOptions;
+    }
+
+    public LoaderOptions loaderOptions() {
+        return loaderOptions;
+    }
+
+    public String dump(Object data) {
+        return dump(data, List.of());
+    }
+
+    /**
+     * Dumps {@code data}, anchoring every instance of {@code shared} that occurs more than once.
+     */
+    public String dump(Object data, Collection<? extends MappingValue> shared) {
+        Dumper dumper = dumpers.get();
+        // The anchor generator keeps counting across dumps, so anchors would not start at id001 again
+        dumper.options.setAnchorGenerator(new NumberAnchorGenerator(0));
+        dumper.representer.shared.addAll(shared);
+        try {
+            return dumper.yaml.dump(data);
+        } finally {
+            dumper.representer.shared.clear();
+        }
+    }
+
+    /**
+     * Loads a document with {@link SafeConstructor}.
+     */
+    public <T> T load(String yaml) {
+        return loaders.get().load(yaml);
+    }
+
+    /**
+     * Parses a document into events, lazily, with the configured {@link LoaderOptions}.
+     */
+    public Iterable<Event> parse(Reader reader) {
+        return loaders.get().parse(reader);
+    }
+
+    /**
+     * A {@link YamlStreamWriter} on {@code writer} that represents values with this thread's dumper.
+     */
+    public YamlStreamWriter streamWriter(Writer writer, Map<Object, String> anchors) {
+        return new YamlStreamWriter(writer, dumpers.get().yaml, dumperOptions, anchors);
+    }
+
+    /**
+     * Runs {@code outputWriter} against this thread's buffer and returns what it wrote.
+     */
+    public byte[] toByteArray(OutputWriter outputWriter) throws IOException {
+        ReusableBuffer buffer = buffers.get();
+        if (buffer.inUse) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            outputWriter.write(outputStream);
+            return outputStream.toByteArray();
+        }
+
+        buffer.inUse = true;
+        try {
+            outputWriter.write(buffer);
+            return buffer.toByteArray();
+        } finally {
+            buffer.inUse = false;
+            if (buffer.capacity() > RETAINED_BUFFER_BYTES) {
+                buffers.remove();
+            } else {
+                buffer.reset();
+            }
+        }
+    }
+
+    private static DumperOptions newDumperOptions() {
+        DumperOptions options = new DumperOptions();
+        options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+        return options;
+    }
+
+    @FunctionalInterface
+    public interface OutputWriter {
+        void write(OutputStream outputStream) throws IOException;
+    }
+
+    // Every thread has its own options, since dumping resets their anchor generator
+    private static final class Dumper {
+
+        private final DumperOptions options = newDumperOptions();
+        private final MappingValueRepresenter representer = new MappingValueRepresenter(options);
+        private final Yaml yaml = new Yaml(representer, options);
+    }
+
+    /**
+     * Represents {@link MappingValue}s as mapping nodes. The nodes are built without going through
+     * {@code representMapping}, which would remember the instance and anchor its next use; only the
+     * {@code shared} instances are remembered.
+     */
+    private static final class MappingValueRepresenter extends Representer {
+
+        private final Set<Object> shared = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        MappingValueRepresenter(DumperOptions options) {
+            super(options);
+            multiRepresenters.put(MappingValue.class, data -> {
+                NodeWriter writer = new NodeWriter();
+                try {
+                    ((MappingValue) data).writeEntries(writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                MappingNode node = writer.popMapping();
+                if (shared.contains(data)) {
+                    representedObjects.put(data, node);
+                }
+                return node;
+            });
+        }
+
+        // Collects the entries of one mapping value, nested mappings included, as node tuples
+        private final class NodeWriter implements EntryWriter {
+
+            private final Deque<List<NodeTuple>> mappings = new ArrayDeque<>();
+            private final Deque<Node> keys = new ArrayDeque<>();
+
+            NodeWriter() {
+                mappings.push(new ArrayList<>());
+            }
+
+            @Override
+            public void startMapping(Object key) {
+                keys.push(representData(key));
+                mappings.push(new ArrayList<>());
+            }
+
+            @Override
+            public void endMapping() {
+                Node key = keys.pop();
+                MappingNode mapping = popMapping();
+                mappings.peek().add(new NodeTuple(key, mapping));
+            }
+
+            MappingNode popMapping() {
+                return new MappingNode(Tag.MAP, mappings.pop(), defaultFlowStyle);
+            }
+
+            @Override
+            public void writeEntry(Object key, Object value) {
+                mappings.peek().add(new NodeTuple(representData(key), representData(value)));
+            }
+        }
+    }
+
+    private static final class ReusableBuffer extends ByteArrayOutputStream {
+
+        private boolean inUse;
+
+        ReusableBuffer() {
+            super(8192);
+        }
+
+        int capacity() {
+            return buf.length;
+        }
+    }
+}
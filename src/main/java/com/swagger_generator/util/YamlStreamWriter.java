@@ -0,0 +1,154 @@
+package com.swagger_generator.util;
+
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.emitter.Emitter;
+import org.yaml.snakeyaml.events.*;
+import org.yaml.snakeyaml.nodes.*;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Writes a YAML document incrementally through SnakeYAML's event {@link Emitter}.
+ *
+ * <p>{@code Yaml.dump} needs the complete object graph before it writes anything. This writer
+ * instead accepts the document one mapping entry at a time, so a caller can build a section,
+ * write it and let it go. Containers are turned into events directly, while every other value
+ * goes through {@link Yaml#represent(Object)} and SnakeYAML's {@link Resolver}, which keeps tags,
+ * quoting and scalar styles exactly as {@code Yaml.dump} would produce them.
+ *
+ * <p>{@code Yaml.dump} anchors any container that occurs more than once. A streaming writer cannot
+ * discover that by itself, so the anchors are supplied up front, keyed by instance identity.
+ * Containers and {@link MappingValue}s without a planned anchor are always written in full.
+ *
+ * <p>Instances are not thread-safe and write a single document.
+ */
+public class YamlStreamWriter implements DocumentWriter {
+
+    private final Writer writer;
+    private final Emitter emitter;
+    private final Yaml yaml;
+    private final Resolver resolver = new Resolver();
+    private final DumperOptions.FlowStyle flowStyle;
+    private final Map<Object, String> anchors;
+    private final Set<Object> written = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    public YamlStreamWriter(Writer writer, DumperOptions dumperOptions, Map<Object, String> anchors) {
+        this(writer, new Yaml(dumperOptions), dumperOptions, anchors);
+    }
+
+    /**
+     * @param yaml represents scalar values; must have been created with {@code dumperOptions} and
+     *             must not be used by another thread while this writer is in use
+     */
+    public YamlStreamWriter(Writer writer, Yaml yaml, DumperOptions dumperOptions, Map<Object, String> anchors) {
+        this.writer = writer;
+        this.emitter = new Emitter(writer, dumperOptions);
+        this.yaml = yaml;
+        this.flowStyle = dumperOptions.getDefaultFlowStyle();
+        this.anchors = anchors;
+    }
+
+    @Override
+    public void startDocument() throws IOException {
+        emitter.emit(new StreamStartEvent(null, null));
+        emitter.emit(new DocumentStartEvent(null, null, false, null, null));
+    }
+
+    @Override
+    public void endDocument() throws IOException {
+        emitter.emit(new DocumentEndEvent(null, null, false));
+        emitter.emit(new StreamEndEvent(null, null));
+        flush();
+    }
+
+    @Override
+    public void startMapping() throws IOException {
+        emitter.emit(new MappingStartEvent(null, Tag.MAP.getValue(), true, null, null, flowStyle));
+    }
+
+    @Override
+    public void startMapping(Object key) throws IOException {
+        writeValue(key);
+        startMapping();
+    }
+
+    @Override
+    public void endMapping() throws IOException {
+        emitter.emit(new MappingEndEvent(null, null));
+    }
+
+    @Override
+    public void writeEntry(Object key, Object value) throws IOException {
+        writeValue(key);
+        writeValue(value);
+    }
+
+    public void writeValue(Object value) throws IOException {
+        if (value instanceof MappingValue || value instanceof Map || value instanceof List) {
+            String anchor = anchors.get(value);
+            if (anchor != null && !written.add(value)) {
+                emitter.emit(new AliasEvent(anchor, null, null));
+            } else if (value instanceof MappingValue mappingValue) {
+                emitter.emit(new MappingStartEvent(anchor, Tag.MAP.getValue(), true, null, null, flowStyle));
+                mappingValue.writeEntries(this);
+                emitter.emit(new MappingEndEvent(null, null));
+            } else if (value instanceof Map) {
+                emitter.emit(new MappingStartEvent(anchor, Tag.MAP.getValue(), true, null, null, flowStyle));
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                    writeValue(entry.getKey());
+                    writeValue(entry.getValue());
+                }
+                emitter.emit(new MappingEndEvent(null, null));
+            } else {
+                emitter.emit(new SequenceStartEvent(anchor, Tag.SEQ.getValue(), true, null, null, flowStyle));
+                for (Object item : (List<?>) value) {
+                    writeValue(item);
+                }
+                emitter.emit(new SequenceEndEvent(null, null));
+            }
+        } else {
+            writeNode(yaml.represent(value));
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    // Mirrors org.yaml.snakeyaml.serializer.Serializer for nodes produced by Yaml#represent.
+    private void writeNode(Node node) throws IOException {
+        switch (node.getNodeId()) {
+            case scalar:
+                ScalarNode scalarNode = (ScalarNode) node;
+                Tag detectedTag = resolver.resolve(NodeId.scalar, scalarNode.getValue(), true);
+                Tag defaultTag = resolver.resolve(NodeId.scalar, scalarNode.getValue(), false);
+                ImplicitTuple tuple = new ImplicitTuple(node.getTag().equals(detectedTag), node.getTag().equals(defaultTag));
+                emitter.emit(new ScalarEvent(null, node.getTag().getValue(), tuple, scalarNode.getValue(), null, null, scalarNode.getScalarStyle()));
+                break;
+            case sequence:
+                SequenceNode sequenceNode = (SequenceNode) node;
+                boolean implicitSequence = node.getTag().equals(resolver.resolve(NodeId.sequence, null, true));
+                emitter.emit(new SequenceStartEvent(null, node.getTag().getValue(), implicitSequence, null, null, sequenceNode.getFlowStyle()));
+                for (Node item : sequenceNode.getValue()) {
+                    writeNode(item);
+                }
+                emitter.emit(new SequenceEndEvent(null, null));
+                break;
+            default:
+                MappingNode mappingNode = (MappingNode) node;
+                boolean implicitMapping = node.getTag().equals(resolver.resolve(NodeId.mapping, null, true));
+                emitter.emit(new MappingStartEvent(null, node.getTag().getValue(), implicitMapping, null, null, mappingNode.getFlowStyle()));
+                for (NodeTuple row : mappingNode.getValue()) {
+                    writeNode(row.getKeyNode());
+                    writeNode(row.getValueNode());
+                }
+                emitter.emit(new MappingEndEvent(null, null));
+                break;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.swagger_generator.compliance;
+
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.Yaml;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ComplianceEngineTests {
+
+	private static final String SPEC = """
+			openapi: 3.0.0
+			schemes:
+			- http
+			paths:
+			  /users/{id}:
+			    parameters:
+			    - name: id
+			      in: path
+			    get:
+			      parameters:
+			      - name: Authorization
+			        in: query
+			      responses:
+			        '200':
+			          description: ok
+			      security:
+			      - bearerAuth: []
+			    post:
+			      responses:
+			        '400':
+			          description: bad request
+			""";
+
+	@Test
+	void specRulesReportIssuesWithRuleAndPointer() {
+		List<ComplianceIssue> issues = new ComplianceEngine(StandardRules.specRules()).check(new Yaml().load(SPEC));
+
+		assertThat(issues).isEqualTo(List.of(
+				new ComplianceIssue("security-schemes", Severity.ERROR, "",
+						"Security schemes are missing from components."),
+				new ComplianceIssue("error-response", Severity.WARNING, "/paths/~1users~1{id}/get",
+						"Error response (e.g., 400) is missing for GET /users/{id}"),
+				new ComplianceIssue("authorization-header", Severity.ERROR, "/paths/~1users~1{id}/get/parameters/0",
+						"Authorization parameter should be in the header for GET /users/{id}"),
+				new ComplianceIssue("operation-security", Severity.ERROR, "/paths/~1users~1{id}/post",
+						"Missing security definitions for POST /users/{id}")));
+	}
+
+	@Test
+	void securityRulesCheckTransport() {
+		List<ComplianceIssue> issues = new ComplianceEngine(StandardRules.securityRules()).check(new Yaml().load(SPEC));
+
+		assertThat(issues.stream().map(ComplianceIssue::ruleId).toList())
+				.isEqualTo(List.of("https-scheme", "cors-headers", "operation-security", "cors-headers"));
+		assertThat(issues.stream().map(ComplianceIssue::message).toList()).isEqualTo(List.of(
+				"API should support HTTPS (missing 'https' in schemes).",
+				"CORS headers missing for get on endpoint /users/{id}",
+				"Missing 'security' definition for post on endpoint /users/{id}",
+				"CORS headers missing for post on endpoint /users/{id}"));
+	}
+
+	@Test
+	void additionalRulesShareTheTraversal() {
+		List<String> visited = new ArrayList<>();
+		ComplianceRule responseRule = new ComplianceRule() {
+			@Override
+			public String id() {
+				return "response-description";
+			}
+
+			@Override
+			public Severity severity() {
+				return Severity.INFO;
+			}
+
+			@Override
+			public Set<NodeType> nodeTypes() {
+				return EnumSet.of(NodeType.RESPONSE);
+			}
+
+			@Override
+			public void check(SpecNode node, List<ComplianceIssue> issues) {
+				visited.add(node.pointer());
+			}
+		};
+
+		Map<String, Object> spec = new Yaml().load(SPEC);
+		new ComplianceEngine(List.of(responseRule)).check(spec);
+
+		assertThat(visited).isEqualTo(List.of("/paths/~1users~1{id}/get/responses/200", "/paths/~1users~1{id}/post/responses/400"));
+	}
+
+}
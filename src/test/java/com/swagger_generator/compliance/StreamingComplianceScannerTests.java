@@ -0,0 +1,147 @@
+package com.swagger_generator.compliance;
+
+import com.swagger_generator.config.ComplianceProperties;
+import com.swagger_generator.config.YamlConfig;
+import com.swagger_generator.service.ComplianceService;
+import com.swagger_generator.util.YamlPool;
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingComplianceScannerTests {
+
+	private static final String SPEC = """
+			openapi: 3.0.0
+			paths:
+			  /users/{id}:
+			    get:
+			      parameters:
+			      - name: Authorization
+			        in: query
+			      responses:
+			        '200':
+			          description: ok
+			          content:
+			            application/json:
+			              schema:
+			                type: object
+			      security:
+			      - bearerAuth: []
+			    post:
+			      responses:
+			        400:
+			          description: bad request
+			""";
+
+	private final ComplianceEngine engine = new ComplianceEngine(StandardRules.specRules());
+
+	@Test
+	void reportsTheSameIssuesAsTheTreeCheckWithLocations() {
+		List<ComplianceIssue> streamed = scanner(engine, 4).scan(new StringReader(SPEC));
+		List<ComplianceIssue> loaded = engine.check(new Yaml(new SafeConstructor(new LoaderOptions())).load(SPEC));
+
+		assertThat(streamed.stream().map(issue -> new ComplianceIssue(issue.ruleId(), issue.severity(), issue.pointer(), issue.message())).toList())
+				.isEqualTo(loaded);
+		assertThat(streamed.stream().map(ComplianceIssue::location).toList()).isEqualTo(List.of(
+				new SourceLocation(1, 1),
+				new SourceLocation(5, 7),
+				new SourceLocation(6, 9),
+				new SourceLocation(18, 7),
+				new SourceLocation(18, 7)));
+	}
+
+	@Test
+	void largeCompliantDocumentsHaveNoIssuesWithTheDefaultLimits() {
+		String spec = largeSpec(20_000);
+
+		assertThat(spec.length()).isGreaterThan(new LoaderOptions().getCodePointLimit());
+		assertThat(scanner(engine, 4).scan(new StringReader(spec))).isEmpty();
+		assertThat(new ComplianceService(engine, yamlPool(), new ComplianceProperties()).checkCompliance(spec)).isEmpty();
+	}
+
+	@Test
+	void nodesAreTruncatedToTheConfiguredDepth() {
+		List<Object> operations = new ArrayList<>();
+		ComplianceRule recorder = new ComplianceRule() {
+			@Override
+			public String id() {
+				return "recorder";
+			}
+
+			@Override
+			public Severity severity() {
+				return Severity.INFO;
+			}
+
+			@Override
+			public Set<NodeType> nodeTypes() {
+				return EnumSet.of(NodeType.OPERATION);
+			}
+
+			@Override
+			public void check(SpecNode node, List<ComplianceIssue> issues) {
+				operations.add(node.value().get("responses"));
+			}
+		};
+
+		scanner(new ComplianceEngine(List.of(recorder)), 2).scan(new StringReader(SPEC));
+
+		assertThat(operations).isEqualTo(List.of(Map.of("200", Map.of()), Map.of(400, Map.of())));
+	}
+
+	@Test
+	void syntaxErrorKeepsEarlierIssuesAndReportsItsLocation() {
+		String broken = SPEC.replace("    post:", "    post: [");
+
+		List<ComplianceIssue> issues = scanner(engine, 4).scan(new StringReader(broken));
+
+		assertThat(issues.stream().map(ComplianceIssue::ruleId).toList())
+				.isEqualTo(List.of("error-response", "authorization-header", ComplianceIssue.PARSE_ERROR));
+		assertThat(issues.get(2).location().line()).isEqualTo(19);
+	}
+
+	private static StreamingComplianceScanner scanner(ComplianceEngine engine, int nodeDepth) {
+		return new StreamingComplianceScanner(engine, yamlPool(), nodeDepth);
+	}
+
+	private static YamlPool yamlPool() {
+		return new YamlConfig().yamlPool(new ComplianceProperties());
+	}
+
+	// Compliant operations that alias the first one's security list, the way generated documents do
+	private static String largeSpec(int operations) {
+		StringBuilder spec = new StringBuilder("""
+				openapi: 3.0.0
+				components:
+				  securitySchemes:
+				    bearerAuth:
+				      type: http
+				      scheme: bearer
+				paths:
+				""");
+		for (int i = 0; i < operations; i++) {
+			spec.append("""
+					  /resource%d:
+					    get:
+					      responses:
+					        '400':
+					          description: bad request
+					        Access-Control-Allow-Origin:
+					          description: allowed origins
+					      security: %s
+					""".formatted(i, i == 0 ? "&id001\n      - bearerAuth: []" : "*id001"));
+		}
+		return spec.toString();
+	}
+
+}
@@ -0,0 +1,108 @@
+package com.swagger_generator.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.SequenceInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The default async timeout is lowered to a second, so that a batch of a few seconds stands in for
+// one that runs past the 30 seconds the servlet container would allow otherwise
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "spring.mvc.async.request-timeout=1s")
+class BatchEndpointTests {
+
+	@TempDir
+	static Path directory;
+
+	@LocalServerPort
+	int port;
+
+	@DynamicPropertySource
+	static void storeDirectories(DynamicPropertyRegistry registry) {
+		registry.add("swagger.incremental.directory", () -> directory.resolve("fragments").toString());
+		registry.add("swagger.compliance.index.directory", () -> directory.resolve("compliance-index").toString());
+	}
+
+	@Test
+	void batchesRunPastTheDefaultAsyncTimeout() throws Exception {
+		// The client sends one service every 700 ms, so the batch takes about three seconds
+		List<InputStream> parts = new ArrayList<>();
+		parts.add(text("{"));
+		for (int i = 0; i < 4; i++) {
+			parts.add(new SlowInputStream(text((i == 0 ? "" : ", ") + "\"service" + i + "\": [{\"endpoint\": \"/s" + i + "\", \"httpMethod\": \"GET\"}]"), 700));
+		}
+		parts.add(text("}"));
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/swagger/generate/batch"))
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofInputStream(() -> new SequenceInputStream(Collections.enumeration(parts))))
+				.build();
+
+		long start = System.nanoTime();
+		HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+
+		assertThat(System.nanoTime() - start).isGreaterThan(2_000_000_000L);
+		assertThat(response.statusCode()).isEqualTo(200);
+		assertThat(response.headers().firstValue("Content-Type")).hasValueSatisfying(type -> assertThat(type).startsWith("application/x-ndjson"));
+		assertThat(response.body().lines().toList())
+				.hasSize(4)
+				.allSatisfy(line -> assertThat(line).contains("\"status\":\"OK\""));
+	}
+
+	private static InputStream text(String text) {
+		return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	// Waits before handing out its first byte
+	private static final class SlowInputStream extends InputStream {
+
+		private final InputStream delegate;
+		private long delayMillis;
+
+		SlowInputStream(InputStream delegate, long delayMillis) {
+			this.delegate = delegate;
+			this.delayMillis = delayMillis;
+		}
+
+		@Override
+		public int read() throws IOException {
+			pause();
+			return delegate.read();
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			pause();
+			return delegate.read(b, off, len);
+		}
+
+		private void pause() throws IOException {
+			if (delayMillis > 0) {
+				try {
+					Thread.sleep(delayMillis);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException();
+				}
+				delayMillis = 0;
+			}
+		}
+	}
+}
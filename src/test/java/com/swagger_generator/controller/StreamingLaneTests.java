@@ -0,0 +1,120 @@
+package com.swagger_generator.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A large lane of one worker and one queued request, so that two slow uploads fill it
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"swagger.lanes.enabled=true",
+		"swagger.lanes.large.concurrency=1",
+		"swagger.lanes.large.queue-capacity=1"
+})
+class StreamingLaneTests {
+
+	@TempDir
+	static Path directory;
+
+	@LocalServerPort
+	int port;
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@DynamicPropertySource
+	static void storeDirectories(DynamicPropertyRegistry registry) {
+		registry.add("swagger.incremental.directory", () -> directory.resolve("fragments").toString());
+		registry.add("swagger.compliance.index.directory", () -> directory.resolve("compliance-index").toString());
+	}
+
+	@Test
+	void streamingEndpointsRunOnTheLargeLaneAndBatchesDoNot() throws Exception {
+		CompletableFuture<String> running = slowNdjson("/generate", "/a");
+		awaitLane("swagger.lane.active", 1);
+		CompletableFuture<String> queued = slowNdjson("/generate/infer", "/b");
+		awaitLane("swagger.lane.queue.depth", 1);
+
+		HttpResponse<String> turnedAway = send(post("/generate/stream", "application/json",
+				HttpRequest.BodyPublishers.ofString("[{\"endpoint\": \"/c\", \"httpMethod\": \"GET\"}]")));
+		assertThat(turnedAway.statusCode()).isEqualTo(503);
+		assertThat(turnedAway.headers().firstValue("Retry-After")).hasValue("1");
+
+		// Batches are admitted by the batch service instead, so a full large lane does not hold them up
+		HttpResponse<String> batch = send(post("/generate/batch", "application/json",
+				HttpRequest.BodyPublishers.ofString("{\"service\": [{\"endpoint\": \"/d\", \"httpMethod\": \"GET\"}]}")));
+		assertThat(batch.statusCode()).isEqualTo(200);
+		assertThat(batch.body()).contains("\"status\":\"OK\"");
+
+		assertThat(running.join()).startsWith("HTTP/1.1 200").contains("/a:");
+		assertThat(queued.join()).startsWith("HTTP/1.1 200").contains("/b:");
+
+		HttpResponse<String> invalid = send(post("/generate", "application/x-ndjson", HttpRequest.BodyPublishers.ofString("{")));
+		assertThat(invalid.statusCode()).isEqualTo(400);
+		assertThat(invalid.body()).startsWith("Invalid request data: ");
+	}
+
+	// Sends one NDJSON line with a pause of two seconds after its first byte, holding a lane worker while the body
+	// is read. Written to a socket of its own, as HttpClient reads the bodies of its requests on shared threads.
+	// Completes with the whole response, status line first
+	private CompletableFuture<String> slowNdjson(String path, String endpoint) {
+		String line = "{\"endpoint\": \"" + endpoint + "\", \"httpMethod\": \"GET\""
+				+ (path.endsWith("infer") ? ", \"response\": {\"id\": 1}" : "") + "}\n";
+		CompletableFuture<String> response = new CompletableFuture<>();
+		Thread client = new Thread(() -> {
+			try (Socket socket = new Socket("localhost", port)) {
+				OutputStream out = socket.getOutputStream();
+				byte[] body = line.getBytes(StandardCharsets.UTF_8);
+				out.write(("POST /api/swagger" + path + " HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n"
+						+ "Content-Type: application/x-ndjson\r\nContent-Length: " + body.length + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+				out.write(body, 0, 1);
+				out.flush();
+				Thread.sleep(2000);
+				out.write(body, 1, body.length - 1);
+				out.flush();
+				response.complete(new String(socket.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+			} catch (Exception e) {
+				response.completeExceptionally(e);
+			}
+		});
+		client.start();
+		return response;
+	}
+
+	private void awaitLane(String gauge, double value) throws InterruptedException {
+		long deadline = System.nanoTime() + 5_000_000_000L;
+		while (meterRegistry.get(gauge).tag("lane", "large").gauge().value() != value && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(meterRegistry.get(gauge).tag("lane", "large").gauge().value()).isEqualTo(value);
+	}
+
+	private HttpRequest post(String path, String contentType, HttpRequest.BodyPublisher body) {
+		return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/swagger" + path))
+				.header("Content-Type", contentType)
+				.POST(body)
+				.build();
+	}
+
+	private HttpResponse<String> send(HttpRequest request) throws Exception {
+		return client.send(request, HttpResponse.BodyHandlers.ofString());
+	}
+}
@@ -0,0 +1,129 @@
+package com.swagger_generator.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swagger_generator.config.BatchProperties;
+import com.swagger_generator.config.GenerationProperties;
+import com.swagger_generator.config.GeneratorCacheProperties;
+import com.swagger_generator.entity.SwaggerSchemaRequest;
+import com.swagger_generator.util.YamlPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.LoaderOptions;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchGenerationServiceTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final GenerationProperties generationProperties = new GenerationProperties();
+
+	private final GenerationExecutor generationExecutor = new GenerationExecutor(generationProperties);
+
+	private final SwaggerGeneratorService swaggerGeneratorService = new SwaggerGeneratorService(objectMapper,
+			new GeneratorCacheProperties(), generationProperties, generationExecutor, new YamlPool(new LoaderOptions()));
+
+	private final BatchProperties batchProperties = new BatchProperties();
+
+	private BatchGenerationService batchGenerationService;
+
+	@AfterEach
+	void shutDown() {
+		if (batchGenerationService != null) {
+			batchGenerationService.destroy();
+		}
+		generationExecutor.destroy();
+	}
+
+	@Test
+	void everyServiceIsGeneratedOnce() throws Exception {
+		batchProperties.setConcurrency(2);
+		String users = """
+				[{"endpoint": "/users", "httpMethod": "GET", "responseSchema": {"id": "number"}},
+				 {"endpoint": "/users", "httpMethod": "POST", "requestSchema": {"name": "string"}}]
+				""";
+		String orders = """
+				[{"endpoint": "/orders", "httpMethod": "PUT", "requestSchema": {"lines": [{"sku": "string"}]}}]
+				""";
+
+		Map<String, BatchResult> results = byService(generate("{\"users\": " + users + ", \"orders\": " + orders + "}"));
+
+		assertThat(results.keySet()).containsExactlyInAnyOrder("users", "orders");
+		assertThat(results.get("users").status()).isEqualTo(BatchResult.Status.OK);
+		assertThat(results.get("users").operations()).isEqualTo(2);
+		assertThat(results.get("users").yaml()).isEqualTo(swaggerGeneratorService.generateSwaggerYaml(requests(users)));
+		assertThat(results.get("orders").yaml()).isEqualTo(swaggerGeneratorService.generateSwaggerYaml(requests(orders)));
+		assertThat(results.get("orders").eTag())
+				.isEqualTo(swaggerGeneratorService.generateCachedSwaggerYaml(requests(orders)).eTag());
+	}
+
+	@Test
+	void servicesOverBudgetFailOnTheirOwn() throws Exception {
+		batchProperties.setMaxOperationsPerService(1);
+		batchProperties.setMaxOutputBytesPerService(600);
+		String small = """
+				[{"endpoint": "/ping", "httpMethod": "GET"}]
+				""";
+		String tooMany = """
+				[{"endpoint": "/a", "httpMethod": "GET"}, {"endpoint": "/b", "httpMethod": "GET"}]
+				""";
+		String tooLarge = """
+				[{"endpoint": "/large", "httpMethod": "POST", "requestSchema": {"a": "string", "b": "string", "c": "string",
+				  "d": "string", "e": "string", "f": "string", "g": "string", "h": "string", "i": "string"}}]
+				""";
+
+		Map<String, BatchResult> results = byService(generate(
+				"{\"small\": " + small + ", \"tooMany\": " + tooMany + ", \"tooLarge\": " + tooLarge + ", \"empty\": []}"));
+
+		assertThat(results.get("small").status()).isEqualTo(BatchResult.Status.OK);
+		assertThat(results.get("tooMany").status()).isEqualTo(BatchResult.Status.FAILED);
+		assertThat(results.get("tooMany").error()).contains("limit of 1");
+		assertThat(results.get("tooLarge").status()).isEqualTo(BatchResult.Status.FAILED);
+		assertThat(results.get("tooLarge").error()).contains("600 bytes");
+		assertThat(results.get("empty").status()).isEqualTo(BatchResult.Status.FAILED);
+	}
+
+	@Test
+	void malformedInputEndsTheBatchAfterEarlierServices() throws Exception {
+		List<BatchResult> results = generate("""
+				{"users": [{"endpoint": "/users", "httpMethod": "GET"}], "orders": {"endpoint": "/orders"}}
+				""");
+
+		assertThat(results).hasSize(2);
+		assertThat(results.get(0).service()).isEqualTo("users");
+		assertThat(results.get(0).status()).isEqualTo(BatchResult.Status.OK);
+		assertThat(results.get(1).service()).isNull();
+		assertThat(results.get(1).status()).isEqualTo(BatchResult.Status.FAILED);
+		assertThat(results.get(1).error()).contains("'orders'");
+	}
+
+	private List<BatchResult> generate(String json) throws Exception {
+		batchGenerationService = new BatchGenerationService(objectMapper, swaggerGeneratorService, batchProperties);
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		batchGenerationService.generate(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), outputStream,
+				RequestMetrics.disabled());
+		return objectMapper.readerFor(BatchResult.class)
+				.<BatchResult>readValues(outputStream.toByteArray())
+				.readAll();
+	}
+
+	private static Map<String, BatchResult> byService(List<BatchResult> results) {
+		Map<String, BatchResult> byService = new HashMap<>();
+		results.forEach(result -> byService.put(result.service(), result));
+		assertThat(byService).hasSize(results.size());
+		return byService;
+	}
+
+	private List<SwaggerSchemaRequest> requests(String json) throws Exception {
+		return objectMapper.readValue(json, new TypeReference<>() {
+		});
+	}
+}
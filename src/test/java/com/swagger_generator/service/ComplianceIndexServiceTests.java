@@ -0,0 +1,241 @@
+package com.swagger_generator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swagger_generator.compliance.ComplianceEngine;
+import com.swagger_generator.compliance.ComplianceFilter;
+import com.swagger_generator.compliance.ComplianceIndex;
+import com.swagger_generator.compliance.ComplianceIssue;
+import com.swagger_generator.compliance.StandardRules;
+import com.swagger_generator.config.ComplianceProperties;
+import com.swagger_generator.config.GenerationProperties;
+import com.swagger_generator.config.GeneratorCacheProperties;
+import com.swagger_generator.config.YamlConfig;
+import com.swagger_generator.entity.SwaggerSchemaRequest;
+import com.swagger_generator.util.YamlPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.yaml.snakeyaml.LoaderOptions;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ComplianceIndexServiceTests {
+
+	private static final String SPEC = """
+			openapi: 3.0.0
+			security:
+			- bearerAuth: []
+			paths:
+			  /users/{id}:
+			    parameters:
+			    - $ref: '#/components/parameters/Id'
+			    get:
+			      tags: [users]
+			      parameters:
+			      - name: Authorization
+			        in: query
+			      responses:
+			        '200':
+			          description: ok
+			    post:
+			      tags: [users, admin]
+			      security: []
+			      responses:
+			        '400':
+			          description: bad request
+			  /orders:
+			    get:
+			      tags: [orders]
+			      responses:
+			        '200':
+			          description: ok
+			components:
+			  parameters:
+			    Id:
+			      name: id
+			      in: path
+			""";
+
+	private final ComplianceEngine complianceEngine = new ComplianceEngine(StandardRules.specRules());
+
+	private final YamlPool yamlPool = new YamlConfig().yamlPool(new ComplianceProperties());
+
+	private final List<ComplianceIndexService> services = new ArrayList<>();
+
+	@TempDir
+	Path directory;
+
+	@AfterEach
+	void close() throws Exception {
+		for (ComplianceIndexService service : services) {
+			service.destroy();
+		}
+	}
+
+	@Test
+	void indexedIssuesMatchAFullCheck() {
+		IndexedSpec indexed = indexService().index(SPEC);
+
+		assertThat(indexed.index().issues(ComplianceFilter.ALL))
+				.isEqualTo(new ComplianceService(complianceEngine, yamlPool, new ComplianceProperties()).checkCompliance(SPEC));
+	}
+
+	@Test
+	void operationsAreIndexedWithTheirSecurityParametersAndResponses() {
+		List<ComplianceIndex.IndexedOperation> operations = indexService().index(SPEC).index().operations();
+
+		assertThat(operations).containsExactly(
+				new ComplianceIndex.IndexedOperation("/paths/~1users~1{id}/get", "/users/{id}", "get", null, List.of("users"),
+						List.of("bearerAuth"),
+						List.of(new ComplianceIndex.IndexedParameter("id", "path"), new ComplianceIndex.IndexedParameter("Authorization", "query")),
+						List.of("200")),
+				new ComplianceIndex.IndexedOperation("/paths/~1users~1{id}/post", "/users/{id}", "post", null, List.of("users", "admin"),
+						List.of(), List.of(new ComplianceIndex.IndexedParameter("id", "path")), List.of("400")),
+				new ComplianceIndex.IndexedOperation("/paths/~1orders/get", "/orders", "get", null, List.of("orders"),
+						List.of("bearerAuth"), List.of(), List.of("200")));
+	}
+
+	@Test
+	void issuesAndOperationsAreFilteredByTagRuleAndPathPrefix() {
+		ComplianceIndex index = indexService().index(SPEC).index();
+
+		assertThat(index.issues(new ComplianceFilter("admin", null, null))).isEmpty();
+		assertThat(index.issues(new ComplianceFilter("orders", null, null)).stream().map(ComplianceIssue::pointer).toList())
+				.containsExactly("/paths/~1orders/get", "/paths/~1orders/get");
+		assertThat(index.issues(new ComplianceFilter(null, "error-response", null)).stream().map(ComplianceIssue::pointer).toList())
+				.containsExactly("/paths/~1users~1{id}/get", "/paths/~1orders/get");
+		assertThat(index.issues(new ComplianceFilter(null, null, "/orders")).stream().map(ComplianceIssue::ruleId).toList())
+				.containsExactly("operation-security", "error-response");
+		assertThat(index.issues(new ComplianceFilter("users", "authorization-header", "/users")).stream().map(ComplianceIssue::pointer).toList())
+				.containsExactly("/paths/~1users~1{id}/get/parameters/0");
+		assertThat(index.operations(new ComplianceFilter(null, "error-response", "/users")).stream()
+				.map(ComplianceIndex.IndexedOperation::pointer).toList())
+				.containsExactly("/paths/~1users~1{id}/get");
+	}
+
+	@Test
+	void indexesAreLoadedFromDiskAfterARestart() throws Exception {
+		ComplianceIndexService service = indexService();
+		IndexedSpec indexed = service.index(SPEC);
+		service.destroy();
+		services.remove(service);
+
+		ComplianceIndexService restarted = indexService();
+
+		assertThat(restarted.find(indexed.id()).orElseThrow()).isEqualTo(indexed.index());
+		assertThat(restarted.find("0".repeat(64))).isEmpty();
+		assertThat(restarted.find("../" + indexed.id())).isEmpty();
+		assertThat(restarted.index(SPEC).id()).isEqualTo(indexed.id());
+	}
+
+	@Test
+	void checkedDocumentsAreOnlyStoredWhenConfigured() throws Exception {
+		ComplianceIndexService service = indexService();
+		IndexedSpec checked = service.check(SPEC);
+
+		assertThat(service.find(checked.id())).isEmpty();
+		assertThat(service.check(SPEC).index()).isSameAs(checked.index());
+		service.destroy();
+		services.remove(service);
+
+		ComplianceIndexService restarted = indexService();
+		assertThat(restarted.find(checked.id())).isEmpty();
+		// Indexing content that was only checked stores it
+		restarted.check(SPEC);
+		assertThat(restarted.index(SPEC).index()).isEqualTo(checked.index());
+		restarted.destroy();
+		services.remove(restarted);
+
+		ComplianceIndexService persisting = indexService(yamlPool, true);
+		assertThat(persisting.find(checked.id()).orElseThrow()).isEqualTo(checked.index());
+		IndexedSpec other = persisting.check(SPEC.replace("/orders", "/invoices"));
+		persisting.destroy();
+		services.remove(persisting);
+		assertThat(indexService().find(other.id())).isPresent();
+	}
+
+	@Test
+	void unparsableDocumentsAreIndexedWithTheParseIssue() {
+		ComplianceIndex index = indexService().index("paths: [unclosed").index();
+
+		assertThat(index.operations()).isEmpty();
+		assertThat(index.issues(ComplianceFilter.ALL)).hasSize(1);
+		assertThat(index.issues(ComplianceFilter.ALL).get(0).ruleId()).isEqualTo(ComplianceIssue.PARSE_ERROR);
+	}
+
+	@Test
+	void largeGeneratedSpecsAreIndexedWithTheDefaultLimits() throws Exception {
+		String spec = largeGeneratedSpec(8_000);
+
+		IndexedSpec indexed = indexService().index(spec);
+
+		assertThat(spec.length()).isGreaterThan(new LoaderOptions().getCodePointLimit());
+		assertThat(indexed.index().operations()).hasSize(8_000);
+		assertThat(indexed.index().issues(new ComplianceFilter(null, ComplianceIssue.PARSE_ERROR, null))).isEmpty();
+		assertThat(indexed.index().issues(ComplianceFilter.ALL))
+				.isEqualTo(new ComplianceService(complianceEngine, yamlPool, new ComplianceProperties()).checkCompliance(spec));
+	}
+
+	@Test
+	void documentsOverALoaderLimitAreNotStored() throws Exception {
+		String spec = largeGeneratedSpec(100);
+		ComplianceProperties limited = new ComplianceProperties();
+		limited.setMaxAliases(50);
+
+		ComplianceIndexService service = indexService(new YamlConfig().yamlPool(limited));
+		IndexedSpec rejected = service.index(spec);
+		service.destroy();
+		services.remove(service);
+
+		assertThat(rejected.index().issues(ComplianceFilter.ALL)).singleElement()
+				.satisfies(issue -> assertThat(issue.ruleId()).isEqualTo(ComplianceIssue.PARSE_ERROR));
+		ComplianceIndexService restarted = indexService();
+		assertThat(restarted.find(rejected.id())).isEmpty();
+		assertThat(restarted.index(spec).index().operations()).hasSize(100);
+	}
+
+	// POST operations with request and response bodies, about 470 code points each
+	private static String largeGeneratedSpec(int operations) throws Exception {
+		ObjectMapper objectMapper = new ObjectMapper();
+		List<SwaggerSchemaRequest> requests = new ArrayList<>();
+		for (int i = 0; i < operations; i++) {
+			requests.add(objectMapper.readValue("""
+					{"endpoint": "/resource%d", "httpMethod": "POST", "requestSchema": {"id": 1, "name": "string"},
+					 "responseSchema": {"id": 1, "name": "string"}}
+					""".formatted(i), SwaggerSchemaRequest.class));
+		}
+		GenerationProperties generationProperties = new GenerationProperties();
+		GenerationExecutor generationExecutor = new GenerationExecutor(generationProperties);
+		try {
+			return new SwaggerGeneratorService(objectMapper, new GeneratorCacheProperties(), generationProperties,
+					generationExecutor, new YamlConfig().yamlPool(new ComplianceProperties())).generateSwaggerYaml(requests);
+		} finally {
+			generationExecutor.destroy();
+		}
+	}
+
+	private ComplianceIndexService indexService() {
+		return indexService(yamlPool);
+	}
+
+	private ComplianceIndexService indexService(YamlPool yamlPool) {
+		return indexService(yamlPool, false);
+	}
+
+	private ComplianceIndexService indexService(YamlPool yamlPool, boolean persistChecked) {
+		ComplianceProperties complianceProperties = new ComplianceProperties();
+		complianceProperties.getIndex().setDirectory(directory);
+		complianceProperties.getIndex().setPersistChecked(persistChecked);
+		try {
+			ComplianceIndexService service = new ComplianceIndexService(complianceEngine, yamlPool, complianceProperties);
+			services.add(service);
+			return service;
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
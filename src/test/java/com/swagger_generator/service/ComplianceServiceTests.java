@@ -0,0 +1,67 @@
+package com.swagger_generator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swagger_generator.compliance.ComplianceEngine;
+import com.swagger_generator.compliance.ComplianceIssue;
+import com.swagger_generator.compliance.StandardRules;
+import com.swagger_generator.config.ComplianceProperties;
+import com.swagger_generator.config.GenerationProperties;
+import com.swagger_generator.config.GeneratorCacheProperties;
+import com.swagger_generator.config.YamlConfig;
+import com.swagger_generator.entity.SwaggerSchemaRequest;
+import com.swagger_generator.util.YamlPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ComplianceServiceTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final GenerationProperties generationProperties = new GenerationProperties();
+
+	private final GenerationExecutor generationExecutor = new GenerationExecutor(generationProperties);
+
+	private final YamlPool yamlPool = new YamlConfig().yamlPool(new ComplianceProperties());
+
+	private final ComplianceService complianceService = new ComplianceService(new ComplianceEngine(StandardRules.specRules()),
+			yamlPool, new ComplianceProperties());
+
+	@AfterEach
+	void shutDownExecutor() {
+		generationExecutor.destroy();
+	}
+
+	@Test
+	void generatedSpecsWithManyOperationsAreCheckedWithTheDefaultLimits() throws Exception {
+		// Every operation after the first aliases the shared security scope list
+		String spec = generatedSpec(200);
+
+		List<ComplianceIssue> loaded = complianceService.checkCompliance(spec);
+		List<ComplianceIssue> streamed = complianceService.checkCompliance(new ByteArrayInputStream(spec.getBytes(StandardCharsets.UTF_8)));
+
+		assertThat(spec).contains("*id001");
+		assertThat(loaded).isNotEmpty().noneMatch(issue -> issue.ruleId().equals(ComplianceIssue.PARSE_ERROR));
+		assertThat(streamed.stream().map(issue -> new ComplianceIssue(issue.ruleId(), issue.severity(), issue.pointer(), issue.message())).toList())
+				.isEqualTo(loaded);
+	}
+
+	private String generatedSpec(int operations) throws Exception {
+		List<SwaggerSchemaRequest> requests = new ArrayList<>();
+		for (int i = 0; i < operations; i++) {
+			requests.add(objectMapper.readValue("""
+					{"endpoint": "/resource%d", "httpMethod": "POST", "requestSchema": {"id": 1, "name": "string"},
+					 "responseSchema": {"id": 1, "name": "string"}}
+					""".formatted(i), SwaggerSchemaRequest.class));
+		}
+		return new SwaggerGeneratorService(objectMapper, new GeneratorCacheProperties(), generationProperties, generationExecutor,
+				yamlPool)
+				.generateSwaggerYaml(requests);
+	}
+}
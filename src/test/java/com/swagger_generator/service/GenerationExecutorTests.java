@@ -0,0 +1,48 @@
+package com.swagger_generator.service;
+
+import com.swagger_generator.config.GenerationProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GenerationExecutorTests {
+
+	@Test
+	void parallelResultsKeepInputOrder() throws Exception {
+		GenerationProperties generationProperties = new GenerationProperties();
+		generationProperties.setParallelism(4);
+		generationProperties.setParallelThreshold(10);
+		GenerationExecutor generationExecutor = new GenerationExecutor(generationProperties);
+		try {
+			List<Integer> items = IntStream.range(0, 10_000).boxed().collect(Collectors.toList());
+
+			List<String> results = generationExecutor.mapOrdered(items, String::valueOf);
+
+			assertThat(results).isEqualTo(items.stream().map(String::valueOf).collect(Collectors.toList()));
+		} finally {
+			generationExecutor.destroy();
+		}
+	}
+
+	@Test
+	void smallBatchesStayOnCallingThread() throws Exception {
+		GenerationProperties generationProperties = new GenerationProperties();
+		generationProperties.setParallelism(4);
+		generationProperties.setParallelThreshold(10);
+		GenerationExecutor generationExecutor = new GenerationExecutor(generationProperties);
+		try {
+			String caller = Thread.currentThread().getName();
+
+			List<String> results = generationExecutor.mapOrdered(List.of(1, 2, 3), item -> Thread.currentThread().getName());
+
+			assertThat(results).isEqualTo(List.of(caller, caller, caller));
+		} finally {
+			generationExecutor.destroy();
+		}
+	}
+
+}
@@ -0,0 +1,167 @@
+package com.swagger_generator.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swagger_generator.config.GenerationProperties;
+import com.swagger_generator.config.GeneratorCacheProperties;
+import com.swagger_generator.entity.SwaggerSchemaRequest;
+import com.swagger_generator.util.FragmentStore;
+import com.swagger_generator.util.YamlPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.yaml.snakeyaml.LoaderOptions;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IncrementalSpecServiceTests {
+
+	private static final String BASE = """
+			[
+			  {"endpoint": "/users", "httpMethod": "GET", "responseSchema": {"id": "number", "tags": []}},
+			  {"endpoint": "/orders", "httpMethod": "POST", "requestSchema": {"amount": 5, "lines": [{"sku": "string"}]},
+			   "parameters": [{"name": "id", "in": "path", "required": true}], "tags": ["orders"]},
+			  {"endpoint": "/users", "httpMethod": "DELETE", "description": "key: value"},
+			  {"endpoint": "/orders/{id}", "httpMethod": "PUT"}
+			]
+			""";
+
+	private static final String CHANGES = """
+			[
+			  {"endpoint": "/orders", "httpMethod": "POST", "requestSchema": {"amount": 7}},
+			  {"endpoint": "/users", "httpMethod": "PATCH", "requestSchema": {"name": "string"}},
+			  {"endpoint": "/invoices", "httpMethod": "GET"}
+			]
+			""";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final GenerationProperties generationProperties = new GenerationProperties();
+
+	private final GenerationExecutor generationExecutor = new GenerationExecutor(generationProperties);
+
+	private final YamlPool yamlPool = new YamlPool(new LoaderOptions());
+
+	@TempDir
+	Path directory;
+
+	private FragmentStore fragmentStore;
+
+	@AfterEach
+	void close() throws Exception {
+		if (fragmentStore != null) {
+			fragmentStore.close();
+		}
+		generationExecutor.destroy();
+	}
+
+	@Test
+	void generatedYamlDescribesSameApiAsFullGeneration() throws Exception {
+		List<SwaggerSchemaRequest> requests = requests(BASE);
+
+		GeneratedSpec spec = incrementalService().generate(requests, RequestMetrics.disabled());
+
+		SwaggerGeneratorService swaggerGeneratorService = new SwaggerGeneratorService(objectMapper,
+				new GeneratorCacheProperties(), generationProperties, generationExecutor, yamlPool);
+		Map<String, Object> expected = yamlPool.load(swaggerGeneratorService.generateSwaggerYaml(requests));
+		assertThat(yamlPool.<Map<String, Object>>load(yaml(spec))).isEqualTo(expected);
+	}
+
+	@Test
+	void patchRendersOnlyChangedOperationsAndMatchesFullGeneration() throws Exception {
+		IncrementalSpecService service = incrementalService();
+		GeneratedSpec base = service.generate(requests(BASE), RequestMetrics.disabled());
+		int storedBefore = fragmentStore.size();
+
+		GeneratedSpec patched = service.patch(base.eTag(), requests(CHANGES), RequestMetrics.disabled()).orElseThrow();
+
+		// Three new operation fragments and the new manifest
+		assertThat(fragmentStore.size()).isEqualTo(storedBefore + 4);
+		List<SwaggerSchemaRequest> all = new ArrayList<>(requests(BASE));
+		all.addAll(requests(CHANGES));
+		GeneratedSpec full;
+		try (FragmentStore emptyStore = new FragmentStore(directory.resolve("full"), 4096, Long.MAX_VALUE)) {
+			full = incrementalService(emptyStore).generate(all, RequestMetrics.disabled());
+		}
+		assertThat(yaml(patched)).isEqualTo(yaml(full));
+		assertThat(patched.eTag()).isEqualTo(full.eTag());
+		assertThat(service.patch(base.eTag(), List.of(), RequestMetrics.disabled()).orElseThrow().eTag()).isEqualTo(base.eTag());
+	}
+
+	@Test
+	void storedSpecsCanBePatchedAfterReopening() throws Exception {
+		GeneratedSpec base = incrementalService().generate(requests(BASE), RequestMetrics.disabled());
+		GeneratedSpec patched = incrementalService().patch(base.eTag(), requests(CHANGES), RequestMetrics.disabled()).orElseThrow();
+		fragmentStore.close();
+
+		fragmentStore = new FragmentStore(directory, 4096, Long.MAX_VALUE);
+		IncrementalSpecService reopened = new IncrementalSpecService(objectMapper, fragmentStore, generationProperties, generationExecutor, yamlPool);
+
+		assertThat(yaml(reopened.patch(base.eTag(), requests(CHANGES), RequestMetrics.disabled()).orElseThrow()))
+				.isEqualTo(yaml(patched));
+	}
+
+	@Test
+	void unknownOrEvictedSpecsCannotBePatched() throws Exception {
+		assertThat(incrementalService().patch("0".repeat(64), requests(CHANGES), RequestMetrics.disabled())).isEmpty();
+		fragmentStore.close();
+
+		// Room for a single small segment, so every new segment evicts the previous one
+		fragmentStore = new FragmentStore(directory.resolve("small"), 1024, 1024);
+		IncrementalSpecService service = new IncrementalSpecService(objectMapper, fragmentStore, generationProperties, generationExecutor, yamlPool);
+		GeneratedSpec base = service.generate(requests(BASE), RequestMetrics.disabled());
+
+		assertThat(service.patch(base.eTag(), requests(CHANGES), RequestMetrics.disabled())).isEmpty();
+	}
+
+	@Test
+	void operationsEvictedBeforeTheyAreReadAreRenderedAgain() throws Exception {
+		GeneratedSpec expected = incrementalService().generate(requests(BASE), RequestMetrics.disabled());
+		fragmentStore.close();
+
+		// Claims to hold every fragment written so far, but has evicted them all by the time they are read
+		fragmentStore = new FragmentStore(directory, 4096, Long.MAX_VALUE) {
+			@Override
+			public boolean contains(String key) {
+				return true;
+			}
+
+			@Override
+			public ByteBuffer get(String key) {
+				return key.startsWith("operation:") ? null : super.get(key);
+			}
+		};
+
+		GeneratedSpec spec = incrementalService(fragmentStore).generate(requests(BASE), RequestMetrics.disabled());
+
+		assertThat(yaml(spec)).isEqualTo(yaml(expected));
+		assertThat(spec.eTag()).isEqualTo(expected.eTag());
+	}
+
+	private IncrementalSpecService incrementalService() throws Exception {
+		if (fragmentStore == null) {
+			fragmentStore = new FragmentStore(directory, 4096, Long.MAX_VALUE);
+		}
+		return incrementalService(fragmentStore);
+	}
+
+	private IncrementalSpecService incrementalService(FragmentStore store) {
+		return new IncrementalSpecService(objectMapper, store, generationProperties, generationExecutor, yamlPool);
+	}
+
+	private List<SwaggerSchemaRequest> requests(String json) throws Exception {
+		return objectMapper.readValue(json, new TypeReference<>() {
+		});
+	}
+
+	private static String yaml(GeneratedSpec spec) {
+		return new String(spec.content(), StandardCharsets.UTF_8);
+	}
+}
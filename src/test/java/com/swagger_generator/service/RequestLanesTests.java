@@ -0,0 +1,111 @@
+package com.swagger_generator.service;
+
+import com.swagger_generator.config.LaneProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestLanesTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final LaneProperties laneProperties = new LaneProperties();
+
+	private RequestLanes requestLanes;
+
+	@AfterEach
+	void shutDownLanes() {
+		if (requestLanes != null) {
+			requestLanes.destroy();
+		}
+	}
+
+	@Test
+	void requestsArePutOnALaneBySize() {
+		laneProperties.setLargeRequestBytes(1024);
+		requestLanes = new RequestLanes(laneProperties, meterRegistry);
+
+		assertThat(requestLanes.laneFor(0)).isEqualTo(RequestLanes.Lane.SMALL);
+		assertThat(requestLanes.laneFor(1023)).isEqualTo(RequestLanes.Lane.SMALL);
+		assertThat(requestLanes.laneFor(1024)).isEqualTo(RequestLanes.Lane.LARGE);
+		assertThat(requestLanes.laneFor(-1)).isEqualTo(RequestLanes.Lane.LARGE);
+	}
+
+	@Test
+	void disabledLanesRunOnTheCallingThread() throws Exception {
+		requestLanes = new RequestLanes(laneProperties, meterRegistry);
+		String caller = Thread.currentThread().getName();
+
+		CompletableFuture<String> result = requestLanes.submit(RequestLanes.Lane.LARGE, () -> Thread.currentThread().getName());
+
+		assertThat(result.get()).isEqualTo(caller);
+		assertThat(meterRegistry.find("swagger.lane.wait").timer()).isNull();
+	}
+
+	@Test
+	void enabledLanesRunOnTheirOwnWorkersAndRecordLatency() throws Exception {
+		laneProperties.setEnabled(true);
+		requestLanes = new RequestLanes(laneProperties, meterRegistry);
+
+		String small = requestLanes.submit(RequestLanes.Lane.SMALL, () -> Thread.currentThread().getName()).get();
+		String large = requestLanes.submit(RequestLanes.Lane.LARGE, () -> Thread.currentThread().getName()).get();
+
+		assertThat(small).startsWith("swagger-small-");
+		assertThat(large).startsWith("swagger-large-");
+		assertThat(meterRegistry.get("swagger.lane.wait").tag("lane", "small").timer().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("swagger.lane.latency").tag("lane", "large").timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	void failuresCompleteTheFuture() {
+		laneProperties.setEnabled(true);
+		requestLanes = new RequestLanes(laneProperties, meterRegistry);
+
+		CompletableFuture<Object> result = requestLanes.submit(RequestLanes.Lane.SMALL, () -> {
+			throw new IOException("unreadable");
+		});
+
+		assertThatThrownBy(result::get).isInstanceOf(ExecutionException.class).hasCauseInstanceOf(IOException.class);
+	}
+
+	@Test
+	void fullLaneRejectsWithoutHoldingUpTheOther() throws Exception {
+		laneProperties.setEnabled(true);
+		laneProperties.setLarge(new LaneProperties.Lane(1, 1));
+		requestLanes = new RequestLanes(laneProperties, meterRegistry);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			CompletableFuture<Boolean> running = requestLanes.submit(RequestLanes.Lane.LARGE, () -> {
+				started.countDown();
+				return release.await(10, TimeUnit.SECONDS);
+			});
+			assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+			CompletableFuture<Boolean> queued = requestLanes.submit(RequestLanes.Lane.LARGE, () -> true);
+
+			assertThatThrownBy(() -> requestLanes.submit(RequestLanes.Lane.LARGE, () -> true))
+					.isInstanceOf(RejectedExecutionException.class);
+			assertThat(requestLanes.submit(RequestLanes.Lane.SMALL, () -> "done").get(10, TimeUnit.SECONDS)).isEqualTo("done");
+			assertThat(meterRegistry.get("swagger.lane.queue.depth").tag("lane", "large").gauge().value()).isEqualTo(1.0);
+			assertThat(meterRegistry.get("swagger.lane.active").tag("lane", "large").gauge().value()).isEqualTo(1.0);
+			assertThat(meterRegistry.get("swagger.lane.rejected").tag("lane", "large").counter().count()).isEqualTo(1.0);
+
+			release.countDown();
+			assertThat(running.get(10, TimeUnit.SECONDS)).isTrue();
+			assertThat(queued.get(10, TimeUnit.SECONDS)).isTrue();
+		} finally {
+			release.countDown();
+		}
+	}
+
+}
@@ -0,0 +1,153 @@
+package com.swagger_generator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swagger_generator.config.GenerationProperties;
+import com.swagger_generator.config.GeneratorCacheProperties;
+import com.swagger_generator.config.InferenceProperties;
+import com.swagger_generator.model.*;
+import com.swagger_generator.util.YamlPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.LoaderOptions;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchemaInferenceServiceTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final GenerationProperties generationProperties = new GenerationProperties();
+
+	private final GenerationExecutor generationExecutor = new GenerationExecutor(generationProperties);
+
+	@AfterEach
+	void shutDownExecutor() {
+		generationExecutor.destroy();
+	}
+
+	@Test
+	void propertiesMissingFromSomeSamplesAreOptional() throws Exception {
+		Map<String, Map<String, Operation>> paths = infer(new InferenceProperties(), """
+				{"endpoint": "/users", "httpMethod": "POST", "request": {"name": "Ann", "age": 31}, "response": {"id": 1}}
+				{"endpoint": "/users", "httpMethod": "POST", "request": {"name": "Bob", "email": "bob@example.com"}, "response": {"id": 2}}
+				""");
+
+		Operation operation = paths.get("/users").get("post");
+		assertThat(operation.summary()).isEqualTo("Inferred from 2 samples");
+		assertThat(operation.requestSchema()).isEqualTo(ObjectSchema.of(
+				new String[]{"name", "age", "email"},
+				new Schema[]{LeafSchema.STRING, LeafSchema.INTEGER, LeafSchema.STRING}).withRequired(List.of("name")));
+		assertThat(operation.responseSchema()).isEqualTo(ObjectSchema.of(
+				new String[]{"id"}, new Schema[]{LeafSchema.INTEGER}).withRequired(List.of("id")));
+	}
+
+	@Test
+	void conflictingTypesBecomeUnionsAndNullsMakeFieldsNullable() throws Exception {
+		Map<String, Map<String, Operation>> paths = infer(new InferenceProperties(), """
+				{"endpoint": "/orders", "httpMethod": "GET", "response": {"total": 10, "reference": "A-1", "note": null}}
+				{"endpoint": "/orders", "httpMethod": "GET", "response": {"total": 12.5, "reference": 17, "note": "gift"}}
+				{"endpoint": "/orders", "httpMethod": "GET", "response": {"total": 3, "reference": true}}
+				""");
+
+		Operation operation = paths.get("/orders").get("get");
+		assertThat(operation.requestSchema()).isNull();
+		assertThat(operation.responseSchema()).isEqualTo(ObjectSchema.of(
+				new String[]{"total", "reference", "note"},
+				new Schema[]{
+						LeafSchema.NUMBER,
+						new UnionSchema(List.of(LeafSchema.STRING, LeafSchema.INTEGER, LeafSchema.BOOLEAN)),
+						new NullableSchema(LeafSchema.STRING)}).withRequired(List.of("total", "reference")));
+	}
+
+	@Test
+	void everyArrayElementIsMerged() throws Exception {
+		Map<String, Map<String, Operation>> paths = infer(new InferenceProperties(), """
+				{"endpoint": "/items", "httpMethod": "GET", "response": [{"id": 1}, {"id": 2, "tags": ["a"]}]}
+				""");
+
+		Schema item = ObjectSchema.of(
+				new String[]{"id", "tags"},
+				new Schema[]{LeafSchema.INTEGER, ArraySchema.of(LeafSchema.STRING)}).withRequired(List.of("id"));
+		assertThat(paths.get("/items").get("get").responseSchema()).isEqualTo(ArraySchema.of(item));
+	}
+
+	@Test
+	void stringsWithFewDistinctValuesBecomeEnums() throws Exception {
+		InferenceProperties properties = new InferenceProperties();
+		properties.setMinEnumSamples(4);
+		properties.setMaxEnumValues(2);
+		StringBuilder samples = new StringBuilder();
+		String[] statuses = {"active", "blocked", "active", "active"};
+		for (int i = 0; i < statuses.length; i++) {
+			samples.append("""
+					{"endpoint": "/accounts", "httpMethod": "GET", "response": {"status": "%s", "name": "user%d"}}
+					""".formatted(statuses[i], i));
+		}
+
+		Schema schema = infer(properties, samples.toString()).get("/accounts").get("get").responseSchema();
+
+		assertThat(schema).isEqualTo(ObjectSchema.of(
+				new String[]{"status", "name"},
+				new Schema[]{new EnumSchema(LeafSchema.STRING, List.of("active", "blocked")), LeafSchema.STRING})
+				.withRequired(List.of("status", "name")));
+	}
+
+	@Test
+	void shardedInferenceMatchesSequentialInference() throws Exception {
+		StringBuilder samples = new StringBuilder();
+		for (int i = 0; i < 20_000; i++) {
+			int endpoint = i % 50;
+			String optional = i % 7 == 0 ? ", \"discount\": %d.5".formatted(i) : "";
+			samples.append("""
+					{"endpoint": "/resource%d", "httpMethod": "%s", "request": {"id": %d, "name": "n%d"%s}, "response": {"ok": true}}
+					""".formatted(endpoint, endpoint % 2 == 0 ? "POST" : "GET", i, i, optional));
+		}
+		InferenceProperties sequential = new InferenceProperties();
+		sequential.setShards(1);
+		sequential.setBatchSize(1);
+		InferenceProperties sharded = new InferenceProperties();
+		sharded.setShards(8);
+		sharded.setBatchSize(64);
+
+		Map<String, Map<String, Operation>> expected = infer(sequential, samples.toString());
+		Map<String, Map<String, Operation>> actual = infer(sharded, samples.toString());
+
+		assertThat(actual.keySet()).containsExactlyElementsOf(expected.keySet());
+		assertThat(actual).isEqualTo(expected);
+		assertThat(actual.get("/resource0").get("post").requestSchema()).isEqualTo(ObjectSchema.of(
+				new String[]{"id", "name", "discount"},
+				new Schema[]{LeafSchema.INTEGER, LeafSchema.STRING, LeafSchema.NUMBER}).withRequired(List.of("id", "name")));
+		assertThat(actual.get("/resource1").get("get").requestSchema()).isNull();
+	}
+
+	@Test
+	void inferredOperationsAreWrittenAsSwagger() throws Exception {
+		Map<String, Map<String, Operation>> paths = infer(new InferenceProperties(), """
+				{"endpoint": "/users", "httpMethod": "GET", "response": {"id": 1, "nickname": null}}
+				{"endpoint": "/users", "httpMethod": "GET", "response": {"id": "u-2", "nickname": "bo"}}
+				""");
+		SwaggerGeneratorService generatorService = new SwaggerGeneratorService(objectMapper, new GeneratorCacheProperties(),
+				generationProperties, generationExecutor, new YamlPool(new LoaderOptions()));
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		generatorService.writeSwaggerYaml(paths, outputStream);
+		String yaml = outputStream.toString(StandardCharsets.UTF_8);
+
+		assertThat(yaml).contains("summary: Inferred from 2 samples");
+		assertThat(yaml).contains("oneOf:");
+		assertThat(yaml).contains("nullable: true");
+		assertThat(yaml).contains("required:");
+		assertThat(yaml).contains("type: integer");
+	}
+
+	private Map<String, Map<String, Operation>> infer(InferenceProperties properties, String samples) throws Exception {
+		SchemaInferenceService service = new SchemaInferenceService(objectMapper, properties, generationExecutor);
+		return service.inferOperations(new ByteArrayInputStream(samples.getBytes(StandardCharsets.UTF_8)));
+	}
+}
@@ -0,0 +1,274 @@
+package com.swagger_generator.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swagger_generator.config.ComplianceProperties;
+import com.swagger_generator.config.GenerationProperties;
+import com.swagger_generator.config.GeneratorCacheProperties;
+import com.swagger_generator.config.YamlConfig;
+import com.swagger_generator.diff.ChangeKind;
+import com.swagger_generator.diff.SpecChange;
+import com.swagger_generator.entity.SwaggerSchemaRequest;
+import com.swagger_generator.util.YamlPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpecDiffServiceTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final GenerationProperties generationProperties = new GenerationProperties();
+
+	private final GenerationExecutor generationExecutor = new GenerationExecutor(generationProperties);
+
+	private final YamlPool yamlPool = new YamlConfig().yamlPool(new ComplianceProperties());
+
+	private final SpecDiffService specDiffService = new SpecDiffService(yamlPool);
+
+	@AfterEach
+	void shutDownExecutor() {
+		generationExecutor.destroy();
+	}
+
+	@Test
+	void sameDescriptorsHaveNoChanges() throws Exception {
+		String spec = generate(false, """
+				[{"endpoint": "/users", "httpMethod": "GET", "responseSchema": {"id": "number", "address": {"city": "string"}}}]
+				""");
+
+		assertThat(specDiffService.diff(spec, spec)).isEmpty();
+	}
+
+	@Test
+	void removedPathsAndOperationsBreakClients() throws Exception {
+		String previous = generate(false, """
+				[
+				  {"endpoint": "/users", "httpMethod": "GET"},
+				  {"endpoint": "/users", "httpMethod": "DELETE"},
+				  {"endpoint": "/orders", "httpMethod": "GET"}
+				]
+				""");
+		String current = generate(false, """
+				[
+				  {"endpoint": "/users", "httpMethod": "GET"},
+				  {"endpoint": "/invoices", "httpMethod": "GET"}
+				]
+				""");
+
+		List<SpecChange> changes = specDiffService.diff(previous, current);
+
+		assertThat(changes).containsExactly(
+				new SpecChange(ChangeKind.OPERATION_REMOVED, true, "/paths/~1users/delete", "DELETE /users was removed"),
+				new SpecChange(ChangeKind.PATH_REMOVED, true, "/paths/~1orders", "Path /orders was removed"),
+				new SpecChange(ChangeKind.PATH_ADDED, false, "/paths/~1invoices", "Path /invoices was added"));
+	}
+
+	@Test
+	void changedTypesOfGeneratedSchemasBreakClients() throws Exception {
+		String previous = generate(false, """
+				[
+				  {"endpoint": "/orders", "httpMethod": "POST", "requestSchema": {"amount": "number", "note": "string"}},
+				  {"endpoint": "/orders", "httpMethod": "PUT"}
+				]
+				""");
+		String current = generate(false, """
+				[
+				  {"endpoint": "/orders", "httpMethod": "POST", "requestSchema": {"amount": "string", "lines": [{"sku": "string"}]}},
+				  {"endpoint": "/orders", "httpMethod": "PUT", "requestSchema": {"id": "number"}}
+				]
+				""");
+
+		List<SpecChange> changes = specDiffService.diff(previous, current);
+
+		String schema = "/paths/~1orders/post/requestBody/content/application~1json/schema";
+		assertThat(changes).containsExactly(
+				new SpecChange(ChangeKind.TYPE_CHANGED, true, schema + "/properties/amount/type",
+						"The request body of POST /orders property amount changed type from number to string"),
+				new SpecChange(ChangeKind.PROPERTY_REMOVED, false, schema + "/properties/note",
+						"The request body of POST /orders property note was removed"),
+				new SpecChange(ChangeKind.PROPERTY_ADDED, false, schema + "/properties/lines",
+						"The request body of POST /orders has a new property lines"),
+				new SpecChange(ChangeKind.TYPE_NARROWED, true, "/paths/~1orders/put/requestBody/content/application~1json/schema/type",
+						"The request body of PUT /orders changed type from any to object"),
+				new SpecChange(ChangeKind.PROPERTY_ADDED, false, "/paths/~1orders/put/requestBody/content/application~1json/schema/properties/id",
+						"The request body of PUT /orders has a new property id"));
+	}
+
+	@Test
+	void narrowingBreaksRequestsAndWideningBreaksResponses() {
+		String previous = """
+				paths:
+				  /users:
+				    delete:
+				      responses: {}
+				    post:
+				      parameters:
+				      - {name: page, in: query, schema: {type: number}}
+				      requestBody:
+				        content:
+				          application/json:
+				            schema:
+				              properties:
+				                id: {type: number}
+				                role: {type: string, enum: [admin, user]}
+				      responses:
+				        '200':
+				          content:
+				            application/json:
+				              schema:
+				                properties:
+				                  id: {type: number}
+				                  name: {type: string}
+				""";
+		String current = """
+				paths:
+				  /users:
+				    delete:
+				      requestBody: {required: true}
+				      responses: {}
+				    post:
+				      parameters:
+				      - {name: page, in: query, required: true, schema: {type: integer}}
+				      requestBody:
+				        content:
+				          application/json:
+				            schema:
+				              properties:
+				                id: {type: integer}
+				                role: {type: string, enum: [admin]}
+				      responses:
+				        '200':
+				          content:
+				            application/json:
+				              schema:
+				                properties:
+				                  id: {type: integer}
+				                  name: {}
+				""";
+
+		List<String> breaking = new ArrayList<>();
+		List<String> compatible = new ArrayList<>();
+		for (SpecChange change : specDiffService.diff(previous, current)) {
+			(change.breaking() ? breaking : compatible).add(change.kind() + " " + change.pointer());
+		}
+
+		String request = "/paths/~1users/post/requestBody/content/application~1json/schema/properties";
+		String response = "/paths/~1users/post/responses/200/content/application~1json/schema/properties";
+		assertThat(breaking).containsExactlyInAnyOrder(
+				"TYPE_NARROWED " + request + "/id/type",
+				"ENUM_NARROWED " + request + "/role/enum",
+				"REQUEST_BODY_REQUIRED /paths/~1users/delete/requestBody",
+				"PARAMETER_REQUIRED /paths/~1users/post/parameters/0/required",
+				"TYPE_NARROWED /paths/~1users/post/parameters/0/schema/type",
+				"TYPE_WIDENED " + response + "/name");
+		assertThat(compatible).containsExactly("TYPE_NARROWED " + response + "/id/type");
+	}
+
+	@Test
+	void nodesWhoseHashesCollideAreStillCompared() {
+		// "Aa" and "BB" have the same String.hashCode, and so the same structural hash
+		String previous = """
+				paths:
+				  /users:
+				    post:
+				      requestBody:
+				        content:
+				          application/json:
+				            schema:
+				              properties:
+				                role: {type: string, enum: [Aa]}
+				      responses:
+				        '200':
+				          content:
+				            application/json:
+				              schema:
+				                properties:
+				                  Aa: {type: string}
+				""";
+		String current = """
+				paths:
+				  /users:
+				    post:
+				      requestBody:
+				        content:
+				          application/json:
+				            schema:
+				              properties:
+				                role: {type: string, enum: [BB]}
+				      responses:
+				        '200':
+				          content:
+				            application/json:
+				              schema:
+				                properties:
+				                  BB: {type: string}
+				""";
+
+		List<String> changes = new ArrayList<>();
+		for (SpecChange change : specDiffService.diff(previous, current)) {
+			changes.add(change.kind() + " " + change.pointer());
+		}
+
+		String request = "/paths/~1users/post/requestBody/content/application~1json/schema/properties";
+		String response = "/paths/~1users/post/responses/200/content/application~1json/schema/properties";
+		assertThat(changes).contains(
+				"ENUM_NARROWED " + request + "/role/enum",
+				"PROPERTY_REMOVED " + response + "/Aa");
+	}
+
+	@Test
+	void changesBehindReferencesAreReportedWhereTheyAreUsed() throws Exception {
+		String previous = generate(true, """
+				[{"endpoint": "/users", "httpMethod": "GET", "responseSchema": {"address": {"city": "string", "zip": "string"}}}]
+				""");
+		String current = generate(true, """
+				[{"endpoint": "/users", "httpMethod": "GET", "responseSchema": {"address": {"city": "string"}}}]
+				""");
+
+		assertThat(specDiffService.diff(previous, current)).containsExactly(
+				new SpecChange(ChangeKind.PROPERTY_REMOVED, true,
+						"/paths/~1users/get/responses/200/content/application~1json/schema/properties/address/properties/zip",
+						"Response 200 of GET /users property address property zip was removed"));
+	}
+
+	@Test
+	void largeSpecsOnlyReportWhatChanged() throws Exception {
+		List<SwaggerSchemaRequest> requests = new ArrayList<>();
+		for (int i = 0; i < 5_000; i++) {
+			requests.add(objectMapper.readValue("""
+					{"endpoint": "/resource%d", "httpMethod": "POST", "requestSchema": {"id": 1, "name": "string"},
+					 "responseSchema": {"id": 1, "name": "string"}}
+					""".formatted(i), SwaggerSchemaRequest.class));
+		}
+		String previous = generatorService(false).generateSwaggerYaml(requests);
+		requests.set(4_321, objectMapper.readValue("""
+				{"endpoint": "/resource4321", "httpMethod": "POST", "requestSchema": {"id": 1, "name": "string"},
+				 "responseSchema": {"id": 1, "name": 2}}
+				""", SwaggerSchemaRequest.class));
+		String current = generatorService(false).generateSwaggerYaml(requests);
+
+		List<SpecChange> changes = specDiffService.diff(previous, current);
+
+		assertThat(changes).hasSize(1);
+		assertThat(changes.get(0).kind()).isEqualTo(ChangeKind.TYPE_CHANGED);
+		assertThat(changes.get(0).pointer()).isEqualTo(
+				"/paths/~1resource4321/post/responses/200/content/application~1json/schema/properties/name/type");
+	}
+
+	private String generate(boolean deduplicateSchemas, String descriptors) throws Exception {
+		List<SwaggerSchemaRequest> requests = objectMapper.readValue(descriptors, new TypeReference<>() {
+		});
+		return generatorService(deduplicateSchemas).generateSwaggerYaml(requests);
+	}
+
+	private SwaggerGeneratorService generatorService(boolean deduplicateSchemas) {
+		GenerationProperties properties = new GenerationProperties();
+		properties.setDeduplicateSchemas(deduplicateSchemas);
+		return new SwaggerGeneratorService(objectMapper, new GeneratorCacheProperties(), properties, generationExecutor, yamlPool);
+	}
+}
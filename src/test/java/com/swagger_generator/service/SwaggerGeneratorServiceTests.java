@@ -0,0 +1,427 @@
+package com.swagger_generator.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.swagger_generator.config.GenerationProperties;
+import com.swagger_generator.config.GeneratorCacheProperties;
+import com.swagger_generator.entity.SwaggerSchemaRequest;
+import com.swagger_generator.model.ArraySchema;
+import com.swagger_generator.model.LeafSchema;
+import com.swagger_generator.model.ObjectSchema;
+import com.swagger_generator.model.Operation;
+import com.swagger_generator.model.Schema;
+import com.swagger_generator.util.SchemaLimitExceededException;
+import com.swagger_generator.util.SchemaLimits;
+import com.swagger_generator.util.SwaggerDocumentBuilder;
+import com.swagger_generator.util.Utility;
+import com.swagger_generator.util.YamlPool;
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.LoaderOptions;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SwaggerGeneratorServiceTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final SwaggerGeneratorService swaggerGeneratorService = generatorService(false);
+
+	private final SwaggerGeneratorService deduplicatingService = generatorService(true);
+
+	private final YamlPool yamlPool = new YamlPool(new LoaderOptions());
+
+	@Test
+	void documentBytesDoNotDependOnTheJvm() throws Exception {
+		List<SwaggerSchemaRequest> requests = objectMapper.readValue("""
+				[{"endpoint": "/users", "httpMethod": "GET", "responseSchema": {"id": 1, "name": "string"}}]
+				""", new TypeReference<>() {
+		});
+
+		// Same order on every JVM, so the ETag of a document is too
+		String expected = """
+				openapi: 3.0.0
+				info:
+				  title: Dynamic API
+				  version: 1.0.0
+				  description: Dynamically generated API documentation
+				paths:
+				  /users:
+				    get:
+				      summary: Generated endpoint description
+				      operationId: null
+				      responses:
+				        '200':
+				          description: Successful response
+				          content:
+				            application/json:
+				              schema:
+				                type: object
+				                properties:
+				                  id:
+				                    type: number
+				                  name:
+				                    type: string
+				      security:
+				      - bearerAuth: &id001 []
+				components:
+				  securitySchemes:
+				    bearerAuth:
+				      type: http
+				      scheme: bearer
+				      bearerFormat: JWT
+				security:
+				- bearerAuth: *id001
+				""";
+		assertThat(swaggerGeneratorService.generateSwaggerYaml(requests)).isEqualTo(expected);
+		assertThat(streamedYaml(requests)).isEqualTo(expected);
+	}
+
+	@Test
+	void streamedYamlMatchesDumpedYaml() throws Exception {
+		List<SwaggerSchemaRequest> requests = objectMapper.readValue("""
+				[
+				  {"endpoint": "/users", "httpMethod": "GET", "responseSchema": {"id": "number", "tags": []}},
+				  {"endpoint": "/orders", "httpMethod": "POST", "requestSchema": {"amount": 5, "lines": [{"sku": "string"}]},
+				   "parameters": [{"name": "Authorization", "in": "query"}, {"name": "id", "in": "path", "required": true}],
+				   "tags": ["orders", "true"], "description": "multi\\nline"},
+				  {"endpoint": "/users", "httpMethod": "PUT", "operationId": "123"},
+				  {"endpoint": "/orders", "httpMethod": "post", "description": "key: value"}
+				]
+				""", new TypeReference<>() {
+		});
+
+		assertThat(streamedYaml(requests)).isEqualTo(swaggerGeneratorService.generateSwaggerYaml(requests));
+	}
+
+	@Test
+	void streamedYamlMatchesDumpedYamlForSingleOperation() throws Exception {
+		List<SwaggerSchemaRequest> requests = objectMapper.readValue("""
+				[{"endpoint": "/ping", "httpMethod": "DELETE"}]
+				""", new TypeReference<>() {
+		});
+
+		assertThat(streamedYaml(requests)).isEqualTo(swaggerGeneratorService.generateSwaggerYaml(requests));
+	}
+
+	@Test
+	void repeatedDumpsOnOneThreadNumberAnchorsTheSame() throws Exception {
+		List<SwaggerSchemaRequest> requests = objectMapper.readValue("""
+				[{"endpoint": "/ping", "httpMethod": "GET"}, {"endpoint": "/pong", "httpMethod": "GET"}]
+				""", new TypeReference<>() {
+		});
+
+		String first = swaggerGeneratorService.generateSwaggerYaml(requests);
+
+		assertThat(first).contains("&id001");
+		assertThat(swaggerGeneratorService.generateSwaggerYaml(requests)).isEqualTo(first);
+		assertThat(streamedYaml(requests)).isEqualTo(first);
+	}
+
+	@Test
+	void ndjsonRequestsProduceSameYaml() throws Exception {
+		String ndjson = """
+				{"endpoint": "/users", "httpMethod": "GET", "responseSchema": {"id": "number", "tags": []}}
+				{"endpoint": "/orders", "httpMethod": "POST", "tags": ["orders"]}
+				{"endpoint": "/users", "httpMethod": "DELETE"}
+				""";
+		List<SwaggerSchemaRequest> requests = objectMapper.readValue(
+				"[" + String.join(",", ndjson.strip().split("\n")) + "]", new TypeReference<>() {
+				});
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		swaggerGeneratorService.writeSwaggerYaml(
+				swaggerGeneratorService.readOperations(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8))),
+				outputStream);
+
+		assertThat(outputStream.toString(StandardCharsets.UTF_8))
+				.isEqualTo(swaggerGeneratorService.generateSwaggerYaml(requests));
+	}
+
+	@Test
+	void cachedYamlMatchesDumpedYamlAndIsReused() throws Exception {
+		String json = """
+				[
+				  {"endpoint": "/users", "httpMethod": "POST", "requestSchema": {"address": {"city": "string"}},
+				   "responseSchema": {"address": {"city": "string"}}},
+				  {"endpoint": "/accounts", "httpMethod": "PUT", "requestSchema": {"address": {"city": "string"}}}
+				]
+				""";
+		List<SwaggerSchemaRequest> requests = objectMapper.readValue(json, new TypeReference<>() {
+		});
+
+		GeneratedSpec first = swaggerGeneratorService.generateCachedSwaggerYaml(requests);
+		GeneratedSpec second = swaggerGeneratorService.generateCachedSwaggerYaml(
+				objectMapper.readValue(json, new TypeReference<List<SwaggerSchemaRequest>>() {
+				}));
+
+		assertThat(new String(first.content(), StandardCharsets.UTF_8))
+				.isEqualTo(swaggerGeneratorService.generateSwaggerYaml(requests));
+		assertThat(second).isSameAs(first);
+		assertThat(swaggerGeneratorService.cacheStats().get("specs").hits()).isEqualTo(1L);
+
+		// Operations of a batch are converted in parallel and may race for the same schema,
+		// so count schema hits from a later generation only
+		long schemaHits = swaggerGeneratorService.cacheStats().get("schemas").hits();
+		swaggerGeneratorService.generateCachedSwaggerYaml(requests.subList(0, 1));
+		assertThat(swaggerGeneratorService.cacheStats().get("schemas").hits()).isEqualTo(schemaHits + 2);
+	}
+
+	@Test
+	void deduplicatedSchemasAreReferencedFromComponents() throws Exception {
+		List<SwaggerSchemaRequest> requests = objectMapper.readValue("""
+				[
+				  {"endpoint": "/users", "httpMethod": "POST", "operationId": "createUser",
+				   "requestSchema": {"name": "string", "address": {"city": "string", "zip": "string"}},
+				   "responseSchema": {"id": 1, "address": {"zip": "string", "city": "string"}}},
+				  {"endpoint": "/users/{id}", "httpMethod": "GET",
+				   "responseSchema": {"name": "string", "address": {"city": "string", "zip": "string"}}},
+				  {"endpoint": "/offices", "httpMethod": "PUT",
+				   "requestSchema": {"address": {"city": "number"}, "desks": [{"id": 1}, {"id": 2}]}}
+				]
+				""", new TypeReference<>() {
+		});
+
+		Map<String, Object> document = yamlPool.load(deduplicatingService.generateSwaggerYaml(requests));
+
+		Map<String, Object> schemas = get(document, "components", "schemas");
+		assertThat(schemas.keySet()).containsExactly("Address", "CreateUserRequest", "CreateUserResponse", "Address2",
+				"DesksItem", "PutOfficesRequest");
+		Map<String, Object> responseSchema = get(document, "paths", "/users/{id}", "get", "responses", "200", "content",
+				"application/json", "schema");
+		assertThat(responseSchema).isEqualTo(Map.of("$ref", "#/components/schemas/CreateUserRequest"));
+		Map<String, Object> address = get(schemas, "CreateUserResponse", "properties", "address");
+		assertThat(address).isEqualTo(Map.of("$ref", "#/components/schemas/Address"));
+		Map<String, Object> desksItem = get(schemas, "PutOfficesRequest", "properties", "desks", "items");
+		assertThat(desksItem).isEqualTo(Map.of("$ref", "#/components/schemas/DesksItem"));
+	}
+
+	@Test
+	void deduplicatedYamlDescribesTheSameOperations() throws Exception {
+		List<SwaggerSchemaRequest> requests = objectMapper.readValue("""
+				[
+				  {"endpoint": "/users", "httpMethod": "GET", "responseSchema": {"id": "number", "tags": [], "owner": {}}},
+				  {"endpoint": "/orders", "httpMethod": "POST", "requestSchema": {"amount": 5, "lines": [{"sku": "string"}]},
+				   "responseSchema": {"lines": [{"sku": "string"}], "total": {"amount": 5}},
+				   "parameters": [{"name": "id", "in": "path", "required": true}], "tags": ["orders"]},
+				  {"endpoint": "/users", "httpMethod": "PUT"},
+				  {"endpoint": "/orders", "httpMethod": "DELETE", "requestSchema": {"amount": 5}}
+				]
+				""", new TypeReference<>() {
+		});
+
+		String deduplicated = deduplicatingService.generateSwaggerYaml(requests);
+		Map<String, Object> document = yamlPool.load(deduplicated);
+		Map<String, Object> schemas = get(document, "components", "schemas");
+		Map<String, Object> inlined = yamlPool.load(swaggerGeneratorService.generateSwaggerYaml(requests));
+
+		assertThat(resolveRefs(document.get("paths"), schemas)).isEqualTo(inlined.get("paths"));
+		assertThat(streamedYaml(deduplicatingService, requests)).isEqualTo(deduplicated);
+		assertThat(new String(deduplicatingService.generateCachedSwaggerYaml(requests).content(), StandardCharsets.UTF_8))
+				.isEqualTo(deduplicated);
+	}
+
+	@Test
+	void propertiesKeepTheirOrderAndEmptySchemasAreAnchored() throws Exception {
+		String json = """
+				[
+				  {"endpoint": "/users", "httpMethod": "POST", "requestSchema": {"name": "string", "age": "number", "tags": []}},
+				  {"endpoint": "/teams", "httpMethod": "PUT", "requestSchema": {"tags": [], "age": "number", "name": "string"}}
+				]
+				""";
+		List<SwaggerSchemaRequest> requests = objectMapper.readValue(json, new TypeReference<>() {
+		});
+
+		Operation users = SwaggerDocumentBuilder.buildOperation(requests.get(0));
+		Operation teams = SwaggerDocumentBuilder.buildOperation(requests.get(1));
+		ObjectSchema schema = (ObjectSchema) users.requestSchema();
+
+		assertThat(List.of(schema.name(0), schema.name(1), schema.name(2))).containsExactly("name", "age", "tags");
+		assertThat(schema.schema(1)).isSameAs(LeafSchema.NUMBER);
+		assertThat(schema.schema(2)).isSameAs(ArraySchema.of(LeafSchema.EMPTY));
+		assertThat(users.responseSchema()).isSameAs(LeafSchema.EMPTY);
+		assertThat(teams.requestSchema()).isEqualTo(schema).hasSameHashCodeAs(schema);
+
+		// The empty schema is seen twice before the second scope list, so it is anchored first
+		String yaml = swaggerGeneratorService.generateSwaggerYaml(requests);
+		assertThat(yaml).contains("""
+				              properties:
+				                name:
+				                  type: string
+				                age:
+				                  type: number
+				                tags:
+				                  type: array
+				                  items: &id001 {}
+				""").contains("schema: *id001").contains("&id002").doesNotContain("&id003");
+		assertThat(streamedYaml(requests)).isEqualTo(yaml);
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		swaggerGeneratorService.writeSwaggerYaml(swaggerGeneratorService.readOperations(
+				new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))), outputStream);
+		assertThat(outputStream.toString(StandardCharsets.UTF_8)).isEqualTo(yaml);
+	}
+
+	@Test
+	void anchorsAreNumberedInTheOrderSnakeYamlAssignsThem() throws Exception {
+		List<String> documents = List.of(
+				"[{\"endpoint\": \"/a\", \"httpMethod\": \"GET\", \"responseSchema\": {\"id\": 1}}]",
+				"[{\"endpoint\": \"/a\", \"httpMethod\": \"GET\"}]",
+				"[{\"endpoint\": \"/a\", \"httpMethod\": \"GET\", \"responseSchema\": {\"id\": 1}}, {\"endpoint\": \"/b\", \"httpMethod\": \"GET\"},"
+						+ " {\"endpoint\": \"/c\", \"httpMethod\": \"GET\", \"responseSchema\": {\"tags\": []}}]",
+				"[{\"endpoint\": \"/a\", \"httpMethod\": \"GET\"}, {\"endpoint\": \"/b\", \"httpMethod\": \"POST\", \"requestSchema\": {\"id\": 1}}]",
+				"[{\"endpoint\": \"/a\", \"httpMethod\": \"POST\", \"requestSchema\": {\"x\": {\"y\": []}}, \"responseSchema\": {\"z\": [[]]}}]");
+		for (String document : documents) {
+			List<SwaggerSchemaRequest> requests = objectMapper.readValue(document, new TypeReference<>() {
+			});
+			String yaml = swaggerGeneratorService.generateSwaggerYaml(requests);
+
+			assertThat(streamedYaml(requests)).as(document).isEqualTo(yaml);
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			swaggerGeneratorService.writeSwaggerYaml(swaggerGeneratorService.readOperations(
+					new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8))), outputStream);
+			assertThat(outputStream.toString(StandardCharsets.UTF_8)).as(document).isEqualTo(yaml);
+		}
+	}
+
+	@Test
+	void everyFormatDescribesTheSameDocument() throws Exception {
+		List<SwaggerSchemaRequest> requests = objectMapper.readValue("""
+				[
+				  {"endpoint": "/users", "httpMethod": "POST", "requestSchema": {"address": {"city": "string"}, "tags": ["a"]},
+				   "responseSchema": {"address": {"city": "string"}}, "description": "multi\\nline"},
+				  {"endpoint": "/orders/{id}", "httpMethod": "PUT", "parameters": [{"name": "id", "in": "path", "required": true}]},
+				  {"endpoint": "/users", "httpMethod": "GET", "responseSchema": {"count": 5, "active": true}}
+				]
+				""", new TypeReference<>() {
+		});
+		Map<String, Object> yaml = yamlPool.load(swaggerGeneratorService.generateSwaggerYaml(requests));
+
+		Map<OutputFormat, ObjectMapper> readers = Map.of(OutputFormat.JSON, objectMapper,
+				OutputFormat.SMILE, new ObjectMapper(new SmileFactory()), OutputFormat.CBOR, new ObjectMapper(new CBORFactory()));
+		for (Map.Entry<OutputFormat, ObjectMapper> reader : readers.entrySet()) {
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			swaggerGeneratorService.writeSwagger(requests, reader.getKey(), outputStream, RequestMetrics.disabled());
+			GeneratedSpec cached = swaggerGeneratorService.generateCachedSwagger(requests, reader.getKey(), RequestMetrics.disabled());
+
+			assertThat(reader.getValue().readValue(outputStream.toByteArray(), new TypeReference<Map<String, Object>>() {
+			})).as(reader.getKey().name()).isEqualTo(yaml);
+			assertThat(cached.content()).isEqualTo(outputStream.toByteArray());
+			assertThat(cached.eTag()).isNotEqualTo(swaggerGeneratorService.generateCachedSwaggerYaml(requests).eTag());
+		}
+	}
+
+	@Test
+	void schemasOverTheLimitsFailWithTheirPath() throws Exception {
+		GenerationProperties generationProperties = new GenerationProperties();
+		generationProperties.setMaxSchemaDepth(3);
+		generationProperties.setMaxSchemaProperties(4);
+		generationProperties.setMaxSchemaNodes(12);
+		SwaggerGeneratorService limitedService = new SwaggerGeneratorService(objectMapper, new GeneratorCacheProperties(),
+				generationProperties, new GenerationExecutor(generationProperties), new YamlPool(new LoaderOptions()));
+
+		List<SwaggerSchemaRequest> tooDeep = objectMapper.readValue("""
+				[{"endpoint": "/orders", "httpMethod": "POST", "requestSchema": {"a": {"b": [{"c": {"d": "string"}}]}}}]
+				""", new TypeReference<>() {
+		});
+		List<SwaggerSchemaRequest> tooWide = objectMapper.readValue("""
+				[{"endpoint": "/users", "httpMethod": "GET", "responseSchema": {"address": {"a": 1, "b": 2, "c": 3, "d": 4, "e": 5}}}]
+				""", new TypeReference<>() {
+		});
+		List<SwaggerSchemaRequest> tooLarge = objectMapper.readValue("""
+				[{"endpoint": "/users", "httpMethod": "GET",
+				  "responseSchema": {"a": {"a": 1, "b": 2, "c": 3}, "b": {"a": 1, "b": 2, "c": 3}, "c": {"a": 1, "b": 2, "c": 3}}}]
+				""", new TypeReference<>() {
+		});
+		List<SwaggerSchemaRequest> withinLimits = objectMapper.readValue("""
+				[{"endpoint": "/users", "httpMethod": "GET", "responseSchema": {"a": {"b": [{"c": "string"}]}}}]
+				""", new TypeReference<>() {
+		});
+
+		assertThatThrownBy(() -> limitedService.generateSwaggerYaml(tooDeep))
+				.isInstanceOf(SchemaLimitExceededException.class)
+				.hasMessage("Nesting deeper than 3 objects at POST /orders requestSchema.a.b[0].c");
+		assertThatThrownBy(() -> limitedService.generateSwaggerYaml(tooWide))
+				.isInstanceOf(SchemaLimitExceededException.class)
+				.hasMessage("More than 4 properties at GET /users responseSchema.address");
+		assertThatThrownBy(() -> streamedYaml(limitedService, tooLarge))
+				.isInstanceOf(SchemaLimitExceededException.class)
+				.hasMessage("More than 12 values at GET /users responseSchema.c.c");
+		assertThat(limitedService.generateSwaggerYaml(withinLimits)).contains("c:");
+	}
+
+	@Test
+	void deeplyNestedSchemasConvertWithoutRecursion() {
+		ObjectNode root = objectMapper.createObjectNode();
+		ObjectNode node = root;
+		for (int i = 0; i < 100_000; i++) {
+			node = node.putObject("child");
+		}
+		node.put("id", "number");
+
+		Schema schema = Utility.parseSchema(root, new SchemaLimits(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE));
+		assertThat(schema.depth()).isEqualTo(100_001);
+
+		int depth = 0;
+		while (schema instanceof ObjectSchema object && object.name(0).equals("child")) {
+			schema = object.schema(0);
+			depth++;
+		}
+		assertThat(depth).isEqualTo(100_000);
+		assertThat(((ObjectSchema) schema).schema(0)).isSameAs(LeafSchema.NUMBER);
+	}
+
+	// Parallel for every batch, and small stream batches so that endpoints span batch boundaries
+	private SwaggerGeneratorService generatorService(boolean deduplicateSchemas) {
+		GenerationProperties generationProperties = new GenerationProperties();
+		generationProperties.setParallelism(4);
+		generationProperties.setParallelThreshold(1);
+		generationProperties.setBatchSize(2);
+		generationProperties.setDeduplicateSchemas(deduplicateSchemas);
+		return new SwaggerGeneratorService(objectMapper, new GeneratorCacheProperties(), generationProperties,
+				new GenerationExecutor(generationProperties), new YamlPool(new LoaderOptions()));
+	}
+
+	private String streamedYaml(List<SwaggerSchemaRequest> requests) throws Exception {
+		return streamedYaml(swaggerGeneratorService, requests);
+	}
+
+	private static String streamedYaml(SwaggerGeneratorService service, List<SwaggerSchemaRequest> requests) throws Exception {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		service.writeSwaggerYaml(requests, outputStream);
+		return outputStream.toString(StandardCharsets.UTF_8);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T get(Object node, String... keys) {
+		for (String key : keys) {
+			node = ((Map<String, Object>) node).get(key);
+		}
+		return (T) node;
+	}
+
+	private static Object resolveRefs(Object node, Map<String, Object> schemas) {
+		if (node instanceof Map<?, ?> map) {
+			if (map.get("$ref") instanceof String ref) {
+				return resolveRefs(schemas.get(ref.substring("#/components/schemas/".length())), schemas);
+			}
+			Map<Object, Object> resolved = new LinkedHashMap<>();
+			map.forEach((key, value) -> resolved.put(key, resolveRefs(value, schemas)));
+			return resolved;
+		}
+		if (node instanceof List<?> list) {
+			return list.stream().map(item -> resolveRefs(item, schemas)).toList();
+		}
+		return node;
+	}
+
+}
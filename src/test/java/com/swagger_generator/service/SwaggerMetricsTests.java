@@ -0,0 +1,100 @@
+package com.swagger_generator.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.swagger_generator.config.GenerationProperties;
+import com.swagger_generator.config.GeneratorCacheProperties;
+import com.swagger_generator.config.MetricsProperties;
+import com.swagger_generator.entity.SwaggerSchemaRequest;
+import com.swagger_generator.util.YamlPool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.LoaderOptions;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SwaggerMetricsTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final SwaggerMetrics swaggerMetrics = new SwaggerMetrics(meterRegistry, new MetricsProperties());
+
+	private final GenerationProperties generationProperties = new GenerationProperties();
+
+	private final GenerationExecutor generationExecutor = new GenerationExecutor(generationProperties);
+
+	private final SwaggerGeneratorService swaggerGeneratorService = new SwaggerGeneratorService(objectMapper,
+			new GeneratorCacheProperties(), generationProperties, generationExecutor, new YamlPool(new LoaderOptions()));
+
+	@AfterEach
+	void shutDownExecutor() {
+		generationExecutor.destroy();
+	}
+
+	@Test
+	void generationRecordsStagesAndSizes() throws Exception {
+		List<SwaggerSchemaRequest> requests = objectMapper.readValue("""
+				[
+				  {"endpoint": "/users", "httpMethod": "GET", "responseSchema": {"id": "number"}},
+				  {"endpoint": "/orders", "httpMethod": "POST", "requestSchema": {"amount": 5, "lines": [{"sku": "string"}]}}
+				]
+				""", new TypeReference<>() {
+		});
+
+		RequestMetrics metrics = swaggerMetrics.start("generate", 1_000L);
+		GeneratedSpec spec = swaggerGeneratorService.generateCachedSwaggerYaml(requests, metrics);
+		metrics.finish();
+
+		assertThat(meterRegistry.get("swagger.request").tag("endpoint", "generate").timer().count()).isEqualTo(1);
+		for (String stage : List.of("bind", "convert", "assemble", "dump")) {
+			assertThat(meterRegistry.get("swagger.request.stage").tag("stage", stage).timer().count()).isEqualTo(1);
+		}
+		assertThat(meterRegistry.find("swagger.request.stage").tag("stage", "compliance").timer()).isNull();
+		assertThat(meterRegistry.get("swagger.request.operations").summary().totalAmount()).isEqualTo(2);
+		assertThat(meterRegistry.get("swagger.request.schema.depth").summary().max()).isEqualTo(2);
+		assertThat(meterRegistry.get("swagger.request.output.size").summary().totalAmount()).isEqualTo(spec.content().length);
+	}
+
+	@Test
+	void cachedSchemasRecordTheirDepth() throws Exception {
+		List<SwaggerSchemaRequest> first = objectMapper.readValue("""
+				[{"endpoint": "/users", "httpMethod": "GET", "responseSchema": {"address": {"lines": [{"text": "string"}]}}}]
+				""", new TypeReference<>() {
+		});
+		List<SwaggerSchemaRequest> second = objectMapper.readValue("""
+				[{"endpoint": "/people", "httpMethod": "GET", "responseSchema": {"address": {"lines": [{"text": "string"}]}}}]
+				""", new TypeReference<>() {
+		});
+		swaggerGeneratorService.generateCachedSwaggerYaml(first);
+
+		// A new document, but its schema comes from the schema cache
+		RequestMetrics metrics = swaggerMetrics.start("generate", null);
+		swaggerGeneratorService.generateCachedSwaggerYaml(second, metrics);
+		metrics.finish();
+
+		assertThat(meterRegistry.get("swagger.request.schema.depth").summary().max()).isEqualTo(3);
+	}
+
+	@Test
+	void cachedGenerationOnlyRecordsOutputSize() throws Exception {
+		List<SwaggerSchemaRequest> requests = objectMapper.readValue("""
+				[{"endpoint": "/ping", "httpMethod": "DELETE"}]
+				""", new TypeReference<>() {
+		});
+		swaggerGeneratorService.generateCachedSwaggerYaml(requests);
+
+		RequestMetrics metrics = swaggerMetrics.start("generate", null);
+		swaggerGeneratorService.generateCachedSwaggerYaml(requests, metrics);
+		metrics.finish();
+
+		assertThat(meterRegistry.find("swagger.request.stage").timer()).isNull();
+		assertThat(meterRegistry.find("swagger.request.operations").summary()).isNull();
+		assertThat(meterRegistry.get("swagger.request.output.size").summary().count()).isEqualTo(1);
+	}
+
+}
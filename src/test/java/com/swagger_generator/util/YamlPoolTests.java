@@ -0,0 +1,86 @@
+package com.swagger_generator.util;
+
+import org.junit.jupiter.api.Test;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.ScalarEvent;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class YamlPoolTests {
+
+	private static final int LARGE_ENTRIES = 64 * 1024;
+
+	// About 4 MB, over SnakeYAML's default limit of 3,145,728 code points
+	private static final String LARGE_DOCUMENT = largeDocument();
+
+	@Test
+	void loadsDocumentsOverTheDefaultCodePointLimitWhenConfigured() {
+		Map<String, Object> document = pool(8 * 1024 * 1024, 50).load(LARGE_DOCUMENT);
+
+		assertThat(LARGE_DOCUMENT.length()).isGreaterThan(new LoaderOptions().getCodePointLimit());
+		assertThat(document).hasSize(LARGE_ENTRIES);
+	}
+
+	@Test
+	void parsesDocumentsOverTheDefaultCodePointLimitWhenConfigured() {
+		int scalars = 0;
+		for (Event event : pool(8 * 1024 * 1024, 50).parse(new StringReader(LARGE_DOCUMENT))) {
+			if (event instanceof ScalarEvent) {
+				scalars++;
+			}
+		}
+
+		assertThat(scalars).isEqualTo(2 * LARGE_ENTRIES);
+	}
+
+	@Test
+	void rejectsDocumentsOverTheConfiguredCodePointLimit() {
+		assertThatThrownBy(() -> pool(1024, 50).load(LARGE_DOCUMENT))
+				.isInstanceOf(YAMLException.class)
+				.hasMessageContaining("1024");
+	}
+
+	@Test
+	void loadsDocumentsWithMoreAliasesThanTheDefaultWhenConfigured() {
+		Map<String, Object> document = pool(1024 * 1024, 1000).load(aliases(200));
+
+		assertThat((List<?>) document.get("uses")).hasSize(200).allSatisfy(use -> assertThat(use).isSameAs(document.get("shared")));
+	}
+
+	@Test
+	void rejectsDocumentsOverTheConfiguredAliasLimit() {
+		assertThatThrownBy(() -> pool(1024 * 1024, 100).load(aliases(200)))
+				.isInstanceOf(YAMLException.class)
+				.hasMessageContaining("max=100");
+	}
+
+	private static YamlPool pool(int maxCodePoints, int maxAliases) {
+		LoaderOptions loaderOptions = new LoaderOptions();
+		loaderOptions.setCodePointLimit(maxCodePoints);
+		loaderOptions.setMaxAliasesForCollections(maxAliases);
+		return new YamlPool(loaderOptions);
+	}
+
+	private static String largeDocument() {
+		StringBuilder yaml = new StringBuilder();
+		for (int i = 0; i < LARGE_ENTRIES; i++) {
+			yaml.append("key").append(i).append(": ").append("x".repeat(52)).append('\n');
+		}
+		return yaml.toString();
+	}
+
+	private static String aliases(int count) {
+		StringBuilder yaml = new StringBuilder("shared: &shared []\nuses:\n");
+		for (int i = 0; i < count; i++) {
+			yaml.append("- *shared\n");
+		}
+		return yaml.toString();
+	}
+}